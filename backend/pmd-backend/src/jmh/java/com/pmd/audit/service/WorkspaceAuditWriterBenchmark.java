@@ -0,0 +1,43 @@
+package com.pmd.audit.service;
+
+import com.pmd.audit.model.WorkspaceAuditEvent;
+import com.pmd.bench.SyntheticWorkspace;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Hash-chain hashing of one audit event, paid on every append and per event when verifying. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkspaceAuditWriterBenchmark {
+
+    private WorkspaceAuditWriter writer;
+    private List<WorkspaceAuditEvent> events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        writer = new WorkspaceAuditWriter(null, null);
+        events = SyntheticWorkspace.ofSize("small").auditEvents();
+    }
+
+    @Benchmark
+    public String hashEvent() {
+        WorkspaceAuditEvent event = events.get(next);
+        next = next + 1 == events.size() ? 0 : next + 1;
+        return writer.recomputeHash(event);
+    }
+}
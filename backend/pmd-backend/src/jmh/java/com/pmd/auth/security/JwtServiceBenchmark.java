@@ -0,0 +1,74 @@
+package com.pmd.auth.security;
+
+import com.pmd.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Access-token verification as the authentication filter does it for every API call:
+ * {@code builderPerCall} is the previous path (a parser built per call, full verification),
+ * {@code reusedParser} verifies every time with the shared parser (cache sized to zero), and
+ * {@code cachedRepeat} is the SPA sending the same token again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-32-bytes-minimum-123456";
+
+    private SecretKey secretKey;
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        uncached = jwtService(0);
+        cached = jwtService(10_000);
+        token = cached.generateToken("user-42", Map.of("username", "alex.42@example.com"));
+    }
+
+    private static JwtService jwtService(long verifiedCacheMaxEntries) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpirationSeconds(3_600);
+        properties.setVerifiedCacheMaxEntries(verifiedCacheMaxEntries);
+        return new JwtService(properties, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Claims builderPerCall() {
+        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims reusedParser() {
+        return uncached.parseToken(token);
+    }
+
+    @Benchmark
+    public Claims cachedRepeat() {
+        return cached.parseToken(token);
+    }
+}
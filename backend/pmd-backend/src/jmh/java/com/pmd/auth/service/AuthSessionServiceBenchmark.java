@@ -0,0 +1,120 @@
+package com.pmd.auth.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.pmd.auth.model.AuthSession;
+import com.pmd.auth.repository.AuthSessionRepository;
+import com.pmd.config.AuthSessionProperties;
+import com.pmd.security.ClientMetadataService;
+import com.pmd.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+/**
+ * Login ({@code createSession}) against a real MongoDB as {@code auth_sessions} grows, half of it
+ * expired rows of other users. It should stay flat: a login reads only the user's own live
+ * sessions and leaves expired rows to the TTL index, which is not created here so the filler
+ * stays put for the whole run.
+ *
+ * <p>Needs a database like {@code RandomSelectionBenchmark}: {@code docker-compose.deps.yml}
+ * starts one on localhost, or set {@code PMD_BENCH_MONGO_URI}. It seeds and drops its own
+ * {@code pmd-bench-sessions} database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthSessionServiceBenchmark {
+
+    private static final String DATABASE = "pmd-bench-sessions";
+    private static final int INSERT_BATCH = 5_000;
+    private static final int USERS = 2_000;
+
+    @Param({"1000", "20000", "200000"})
+    public int sessionCount;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private AuthSessionService authSessionService;
+    private final List<User> users = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String uri = System.getenv().getOrDefault("PMD_BENCH_MONGO_URI", "mongodb://localhost:27017");
+        client = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+        mongoTemplate.indexOps(AuthSession.class).createIndex(new Index()
+            .on("userId", Sort.Direction.ASC)
+            .on("revokedAt", Sort.Direction.ASC)
+            .named("idx_auth_sessions_user_revoked"));
+
+        Instant past = Instant.now().minusSeconds(3_600);
+        Instant future = Instant.now().plusSeconds(86_400);
+        List<AuthSession> filler = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < sessionCount; i++) {
+            AuthSession session = new AuthSession();
+            session.setId(UUID.randomUUID().toString());
+            session.setUserId("other-" + (i % USERS));
+            session.setTokenHash(UUID.randomUUID().toString());
+            session.setCreatedAt(past);
+            session.setLastUsedAt(past);
+            session.setExpiresAt(i % 2 == 0 ? past : future);
+            filler.add(session);
+            if (filler.size() == INSERT_BATCH) {
+                mongoTemplate.insertAll(filler);
+                filler.clear();
+            }
+        }
+        if (!filler.isEmpty()) {
+            mongoTemplate.insertAll(filler);
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setId("login-" + i);
+            users.add(user);
+        }
+        AuthSessionRepository repository = new MongoRepositoryFactory(mongoTemplate)
+            .getRepository(AuthSessionRepository.class);
+        authSessionService = new AuthSessionService(repository, new AuthSessionProperties(),
+            new ClientMetadataService(false, false, ""), mongoTemplate, new SessionActivityBuffer(mongoTemplate),
+            new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Benchmark
+    public AuthSessionService.IssuedSession login() {
+        User user = users.get(next);
+        next = (next + 1) % users.size();
+        return authSessionService.createSession(user, false, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.pmd.bench;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Repository and collaborator stand-ins for benchmarks. Stub-only mocks keep no invocation
+ * history, so a long measurement does not grow the heap or slow down as calls accumulate.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    public static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,197 @@
+package com.pmd.bench;
+
+import com.pmd.audit.model.WorkspaceAuditEvent;
+import com.pmd.project.model.Project;
+import com.pmd.project.model.ProjectStatus;
+import com.pmd.team.model.Team;
+import com.pmd.user.model.User;
+import com.pmd.workspace.model.WorkspaceMember;
+import com.pmd.workspace.model.WorkspaceMemberStatus;
+import com.pmd.workspace.model.WorkspaceRole;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.bson.Document;
+
+/**
+ * Deterministic in-memory workspace for the benchmarks: teams, roles, users (a few admins, some
+ * in a second team), active memberships, projects with a realistic status mix and member lists,
+ * per-project comment tallies as {@code project_comments} would group them, and audit events.
+ *
+ * <p>The same seed and sizes always produce the same data, so two runs of a benchmark compare
+ * code, not inputs.
+ */
+public final class SyntheticWorkspace {
+
+    public static final String WORKSPACE_ID = "bench-workspace";
+
+    private static final ProjectStatus[] STATUS_MIX = {
+        ProjectStatus.NOT_STARTED, ProjectStatus.IN_PROGRESS, ProjectStatus.IN_PROGRESS, ProjectStatus.IN_PROGRESS,
+        ProjectStatus.COMPLETED, ProjectStatus.COMPLETED, ProjectStatus.CANCELED, ProjectStatus.ARCHIVED, null
+    };
+    private static final String[] FIRST_NAMES = {"Alex", "Maria", "Nikos", "Eleni", "Sam", "Dana", "Kostas", "Ioanna"};
+    private static final String[] LAST_NAMES = {"Papadopoulos", "Smith", "Georgiou", "Novak", "Ivanova", "Kim"};
+
+    private final List<Team> teams = new ArrayList<>();
+    private final List<WorkspaceRole> roles = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+    private final List<WorkspaceMember> members = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+    private final List<Document> commentTallies = new ArrayList<>();
+    private final List<WorkspaceAuditEvent> auditEvents = new ArrayList<>();
+
+    private SyntheticWorkspace() {
+    }
+
+    /**
+     * Named sizes shared by every benchmark: {@code small} is a team trying the app, {@code large}
+     * is well past what one Pi deployment holds today.
+     */
+    public static SyntheticWorkspace ofSize(String size) {
+        return switch (size) {
+            case "small" -> generate(200, 40, 5, 42L);
+            case "large" -> generate(5_000, 400, 20, 42L);
+            default -> throw new IllegalArgumentException("Unknown benchmark size: " + size);
+        };
+    }
+
+    public static SyntheticWorkspace generate(int projectCount, int userCount, int teamCount, long seed) {
+        SyntheticWorkspace workspace = new SyntheticWorkspace();
+        Random random = new Random(seed);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+
+        for (int i = 0; i < teamCount; i++) {
+            Team team = new Team();
+            team.setId("team-" + i);
+            team.setName("Team " + i);
+            team.setSlug("team-" + i);
+            team.setWorkspaceId(WORKSPACE_ID);
+            team.setActive(true);
+            workspace.teams.add(team);
+        }
+        for (String name : List.of("Owner", "Manager", "Member", "Viewer")) {
+            WorkspaceRole role = new WorkspaceRole();
+            role.setId("role-" + name.toLowerCase());
+            role.setName(name);
+            role.setWorkspaceId(WORKSPACE_ID);
+            role.setSystem(true);
+            workspace.roles.add(role);
+        }
+        for (int i = 0; i < userCount; i++) {
+            User user = new User();
+            user.setId("user-" + i);
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            user.setFirstName(first);
+            user.setLastName(last);
+            user.setDisplayName(first + " " + last + " " + i);
+            user.setEmail(first.toLowerCase() + "." + i + "@example.com");
+            user.setUsername(user.getEmail());
+            user.setAdmin(i % 25 == 0);
+            if (teamCount > 0 && random.nextInt(10) > 0) {
+                String teamId = "team-" + random.nextInt(teamCount);
+                user.setTeamId(teamId);
+                List<String> teamIds = new ArrayList<>(List.of(teamId));
+                if (random.nextInt(5) == 0) {
+                    teamIds.add("team-" + random.nextInt(teamCount));
+                }
+                user.setTeamIds(teamIds);
+            }
+            workspace.users.add(user);
+
+            WorkspaceMember member = new WorkspaceMember();
+            member.setId("member-" + i);
+            member.setWorkspaceId(WORKSPACE_ID);
+            member.setUserId(user.getId());
+            member.setRoleId(workspace.roles.get(i == 0 ? 0 : 1 + random.nextInt(3)).getId());
+            member.setStatus(WorkspaceMemberStatus.ACTIVE);
+            workspace.members.add(member);
+        }
+        for (int i = 0; i < projectCount; i++) {
+            Project project = new Project();
+            project.setId("project-" + i);
+            project.setWorkspaceId(WORKSPACE_ID);
+            project.setName("Project " + i);
+            project.setDescription("Synthetic project " + i);
+            project.setStatus(STATUS_MIX[random.nextInt(STATUS_MIX.length)]);
+            project.setTeamId(teamCount > 0 && random.nextInt(8) > 0 ? "team-" + random.nextInt(teamCount) : null);
+            Set<String> memberIds = new HashSet<>();
+            int size = userCount == 0 ? 0 : random.nextInt(Math.min(userCount, 6) + 1);
+            for (int m = 0; m < size; m++) {
+                memberIds.add("user-" + random.nextInt(userCount));
+            }
+            project.setMemberIds(new ArrayList<>(memberIds));
+            Instant createdAt = base.plusSeconds(random.nextInt(86_400 * 180));
+            project.setCreatedAt(createdAt);
+            project.setUpdatedAt(createdAt.plusSeconds(random.nextInt(86_400 * 10)));
+            project.setCreatedByUserId("user-0");
+            workspace.projects.add(project);
+
+            if (random.nextInt(3) > 0) {
+                int comments = 1 + random.nextInt(12);
+                workspace.commentTallies.add(new Document("_id", project.getId())
+                    .append("comments", comments)
+                    .append("minutes", (long) comments * random.nextInt(90)));
+            }
+        }
+        String prevHash = null;
+        for (int i = 0; i < Math.max(projectCount, 1); i++) {
+            WorkspaceAuditEvent event = new WorkspaceAuditEvent();
+            event.setId("audit-" + i);
+            event.setWorkspaceId(WORKSPACE_ID);
+            event.setCreatedAt(base.plusSeconds(i * 37L));
+            event.setCategory("PROJECT");
+            event.setAction(i % 3 == 0 ? "PROJECT_CREATED" : "PROJECT_UPDATED");
+            event.setOutcome("SUCCESS");
+            event.setActorUserId("user-" + (userCount == 0 ? 0 : random.nextInt(userCount)));
+            event.setProjectId("project-" + i);
+            event.setEntityType("PROJECT");
+            event.setEntityId("project-" + i);
+            event.setEntityName("Project " + i);
+            event.setMessage("Updated project fields: status, memberIds, description");
+            event.setPrevEventHash(prevHash);
+            prevHash = Integer.toHexString(i).repeat(8);
+            workspace.auditEvents.add(event);
+        }
+        return workspace;
+    }
+
+    public List<Team> teams() {
+        return teams;
+    }
+
+    public List<WorkspaceRole> roles() {
+        return roles;
+    }
+
+    public List<User> users() {
+        return users;
+    }
+
+    public List<WorkspaceMember> members() {
+        return members;
+    }
+
+    public List<Project> projects() {
+        return projects;
+    }
+
+    /** {@code {_id: projectId, comments, minutes}} rows, the shape the dashboard aggregation returns. */
+    public List<Document> commentTallies() {
+        return commentTallies;
+    }
+
+    public List<WorkspaceAuditEvent> auditEvents() {
+        return auditEvents;
+    }
+
+    /** Projects the given user is a member of. */
+    public List<Project> projectsOf(String userId) {
+        return projects.stream()
+            .filter(project -> project.getMemberIds() != null && project.getMemberIds().contains(userId))
+            .toList();
+    }
+}
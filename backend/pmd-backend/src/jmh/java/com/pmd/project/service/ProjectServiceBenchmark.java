@@ -0,0 +1,134 @@
+package com.pmd.project.service;
+
+import static com.pmd.bench.Stubs.stub;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.pmd.auth.policy.AccessPolicy;
+import com.pmd.bench.SyntheticWorkspace;
+import com.pmd.mention.service.MentionPolicyService;
+import com.pmd.notification.EmailNotificationService;
+import com.pmd.project.dto.DashboardStatsResponse;
+import com.pmd.project.model.Project;
+import com.pmd.project.repository.ProjectRepository;
+import com.pmd.stats.service.WorkspaceStatsService;
+import com.pmd.team.repository.TeamRepository;
+import com.pmd.team.service.TeamService;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import com.pmd.user.service.UserService;
+import com.pmd.workspace.repository.WorkspaceMemberRepository;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+/**
+ * "My stats" for the busiest member, and mention parsing for the message shapes users send.
+ * Repositories return the synthetic workspace from memory; mention emails go to a stub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectServiceBenchmark {
+
+    @Param({"small", "large"})
+    public String size;
+
+    private ProjectService projectService;
+    private MentionNotificationService mentionNotificationService;
+    private User busiestMember;
+    private Project project;
+    private String plainMessage;
+    private String tokenMessage;
+    private String displayNameMessage;
+
+    @Setup
+    public void setUp() {
+        SyntheticWorkspace workspace = SyntheticWorkspace.ofSize(size);
+        busiestMember = workspace.users().stream()
+            .max(Comparator.comparingInt((User user) -> workspace.projectsOf(user.getId()).size()))
+            .orElseThrow();
+        List<Project> memberProjects = workspace.projectsOf(busiestMember.getId());
+        Set<String> memberProjectIds = memberProjects.stream().map(Project::getId).collect(Collectors.toSet());
+        List<Document> tallies = workspace.commentTallies().stream()
+            .filter(row -> memberProjectIds.contains(row.getString("_id")))
+            .toList();
+
+        ProjectRepository projectRepository = stub(ProjectRepository.class);
+        when(projectRepository.findByWorkspaceIdAndMemberIdsContaining(SyntheticWorkspace.WORKSPACE_ID,
+            busiestMember.getId())).thenReturn(memberProjects);
+        MongoTemplate mongoTemplate = stub(MongoTemplate.class);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("project_comments"), eq(Document.class)))
+            .thenReturn(new AggregationResults<>(tallies, new Document()));
+        UserRepository userRepository = stub(UserRepository.class);
+        TeamService teamService = stub(TeamService.class);
+        projectService = new ProjectService(projectRepository, userRepository, stub(UserService.class),
+            stub(ApplicationEventPublisher.class), stub(AccessPolicy.class), mongoTemplate, teamService,
+            stub(EmailNotificationService.class), stub(MentionNotificationService.class),
+            stub(MentionPolicyService.class), new ProjectResponseAssembler(userRepository, teamService),
+            stub(WorkspaceStatsService.class));
+
+        UserService userService = stub(UserService.class);
+        when(userService.listUsersForWorkspace(SyntheticWorkspace.WORKSPACE_ID, true)).thenReturn(workspace.users());
+        TeamRepository teamRepository = stub(TeamRepository.class);
+        when(teamRepository.findByWorkspaceId(SyntheticWorkspace.WORKSPACE_ID)).thenReturn(workspace.teams());
+        WorkspaceMemberRepository memberRepository = stub(WorkspaceMemberRepository.class);
+        when(memberRepository.findByWorkspaceId(SyntheticWorkspace.WORKSPACE_ID)).thenReturn(workspace.members());
+        mentionNotificationService = new MentionNotificationService(userService, teamRepository, memberRepository,
+            stub(EmailNotificationService.class));
+
+        project = workspace.projects().get(0);
+        User mentioned = workspace.users().get(workspace.users().size() - 1);
+        String filler = "Pushed the fix for the export job, the nightly run should pick it up. "
+            + "Can somebody double-check the numbers on the staging dashboard before Friday? ";
+        plainMessage = filler.repeat(3);
+        tokenMessage = filler + "@" + mentioned.getDisplayName() + "{user:" + mentioned.getId() + "} and "
+            + "@Team 1{team:team-1}, please review. cc @" + mentioned.getEmail() + " " + filler;
+        displayNameMessage = filler + "@" + mentioned.getDisplayName().toLowerCase() + " " + filler;
+    }
+
+    @Benchmark
+    public DashboardStatsResponse myDashboardStats() {
+        return projectService.getMyDashboardStats(SyntheticWorkspace.WORKSPACE_ID, busiestMember);
+    }
+
+    @Benchmark
+    public void mentionsNone() {
+        mentionNotificationService.notifyMentions(SyntheticWorkspace.WORKSPACE_ID, project, busiestMember,
+            plainMessage, MentionNotificationService.MentionSource.COMMENT);
+    }
+
+    @Benchmark
+    public void mentionsTokens() {
+        mentionNotificationService.notifyMentions(SyntheticWorkspace.WORKSPACE_ID, project, busiestMember,
+            tokenMessage, MentionNotificationService.MentionSource.COMMENT);
+    }
+
+    @Benchmark
+    public void mentionsDisplayName() {
+        mentionNotificationService.notifyMentions(SyntheticWorkspace.WORKSPACE_ID, project, busiestMember,
+            displayNameMessage, MentionNotificationService.MentionSource.COMMENT);
+    }
+}
@@ -0,0 +1,133 @@
+package com.pmd.project.service;
+
+import static com.pmd.bench.Stubs.stub;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.pmd.auth.policy.AccessPolicy;
+import com.pmd.bench.SyntheticWorkspace;
+import com.pmd.mention.service.MentionPolicyService;
+import com.pmd.notification.EmailNotificationService;
+import com.pmd.project.dto.ProjectResponse;
+import com.pmd.project.model.Project;
+import com.pmd.project.repository.ProjectRepository;
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import com.pmd.stats.service.ProjectStatsEngine;
+import com.pmd.stats.service.WorkloadIndex;
+import com.pmd.stats.service.WorkspaceStatsService;
+import com.pmd.team.service.TeamService;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import com.pmd.user.service.UserService;
+import com.pmd.workspace.model.WorkspaceMember;
+import com.pmd.workspace.repository.WorkspaceMemberRepository;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+/**
+ * Random project and least-loaded assignee selection against a real MongoDB, at growing project
+ * counts with the same 400 members. Both should stay flat: {@code $sample} returns one document
+ * whatever the workspace holds, and the least-loaded pick is answered from {@link WorkloadIndex}.
+ * {@code leastLoadedCold} drops the index entry first, so it shows what the grouped count costs
+ * as projects grow.
+ *
+ * <p>Unlike the other benchmarks this one needs a database: {@code docker-compose.deps.yml} starts
+ * one on localhost, or set {@code PMD_BENCH_MONGO_URI}. It seeds and drops its own
+ * {@code pmd-bench} database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomSelectionBenchmark {
+
+    private static final String DATABASE = "pmd-bench";
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int projectCount;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ProjectService projectService;
+    private WorkloadIndex workloadIndex;
+    private User requester;
+
+    @Setup
+    public void setUp() {
+        String uri = System.getenv().getOrDefault("PMD_BENCH_MONGO_URI", "mongodb://localhost:27017");
+        client = MongoClients.create(uri);
+        mongoTemplate = new MongoTemplate(client, DATABASE);
+        mongoTemplate.getDb().drop();
+
+        SyntheticWorkspace workspace = SyntheticWorkspace.generate(projectCount, 400, 20, 42L);
+        List<Project> projects = workspace.projects();
+        for (int from = 0; from < projects.size(); from += INSERT_BATCH) {
+            mongoTemplate.insert(projects.subList(from, Math.min(projects.size(), from + INSERT_BATCH)), Project.class);
+        }
+        mongoTemplate.insert(workspace.users(), User.class);
+        mongoTemplate.insert(workspace.members(), WorkspaceMember.class);
+        mongoTemplate.indexOps(Project.class).createIndex(new Index()
+            .on("workspaceId", Sort.Direction.ASC)
+            .on("status", Sort.Direction.ASC)
+            .named("idx_projects_workspace_status"));
+        mongoTemplate.indexOps(WorkspaceMember.class).createIndex(new Index()
+            .on("workspaceId", Sort.Direction.ASC)
+            .on("status", Sort.Direction.ASC));
+
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+        UserRepository userRepository = repositories.getRepository(UserRepository.class);
+        WorkspaceMemberRepository memberRepository = repositories.getRepository(WorkspaceMemberRepository.class);
+        workloadIndex = new WorkloadIndex(new ProjectStatsEngine(mongoTemplate, "aggregation"), memberRepository,
+            userRepository, 3600, 0);
+        TeamService teamService = stub(TeamService.class);
+        projectService = new ProjectService(repositories.getRepository(ProjectRepository.class), userRepository,
+            stub(UserService.class), stub(ApplicationEventPublisher.class), stub(AccessPolicy.class), mongoTemplate,
+            teamService, stub(EmailNotificationService.class), stub(MentionNotificationService.class),
+            stub(MentionPolicyService.class), new ProjectResponseAssembler(userRepository, teamService),
+            stub(WorkspaceStatsService.class));
+        requester = workspace.users().get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Benchmark
+    public ProjectResponse randomProject() {
+        return projectService.randomProject(SyntheticWorkspace.WORKSPACE_ID, requester, null);
+    }
+
+    @Benchmark
+    public WorkloadIndex.Pool leastLoaded() {
+        return workloadIndex.leastLoaded(SyntheticWorkspace.WORKSPACE_ID, null, false, List.of());
+    }
+
+    @Benchmark
+    public WorkloadIndex.Pool leastLoadedCold() {
+        workloadIndex.onWorkspaceStatsChanged(new WorkspaceStatsChanged(SyntheticWorkspace.WORKSPACE_ID,
+            WorkspaceStatsChanged.Change.MEMBERSHIP));
+        return workloadIndex.leastLoaded(SyntheticWorkspace.WORKSPACE_ID, null, false, List.of());
+    }
+}
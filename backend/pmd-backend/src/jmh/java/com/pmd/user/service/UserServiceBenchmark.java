@@ -0,0 +1,65 @@
+package com.pmd.user.service;
+
+import static com.pmd.bench.Stubs.stub;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.when;
+
+import com.pmd.auth.policy.AccessPolicy;
+import com.pmd.auth.security.PrincipalCache;
+import com.pmd.bench.SyntheticWorkspace;
+import com.pmd.stats.service.WorkloadIndex;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import com.pmd.workspace.model.WorkspaceMemberStatus;
+import com.pmd.workspace.repository.WorkspaceMemberRepository;
+import com.pmd.workspace.repository.WorkspaceRoleRepository;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The assignee picker's filtering: member list, admin flag, name/email search and team match. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"small", "large"})
+    public String size;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        SyntheticWorkspace workspace = SyntheticWorkspace.ofSize(size);
+        WorkspaceMemberRepository memberRepository = stub(WorkspaceMemberRepository.class);
+        when(memberRepository.findByWorkspaceIdAndStatus(SyntheticWorkspace.WORKSPACE_ID, WorkspaceMemberStatus.ACTIVE))
+            .thenReturn(workspace.members());
+        UserRepository userRepository = stub(UserRepository.class);
+        when(userRepository.findAllById(anyIterable())).thenReturn(workspace.users());
+        userService = new UserService(userRepository, stub(AccessPolicy.class), memberRepository,
+            stub(WorkspaceRoleRepository.class), stub(WorkloadIndex.class), stub(PrincipalCache.class));
+    }
+
+    @Benchmark
+    public List<User> everyone() {
+        return userService.findAssignableUsers(SyntheticWorkspace.WORKSPACE_ID, null, null, true);
+    }
+
+    @Benchmark
+    public List<User> searchWithinTeam() {
+        return userService.findAssignableUsers(SyntheticWorkspace.WORKSPACE_ID, "maria", "team-1", false);
+    }
+}
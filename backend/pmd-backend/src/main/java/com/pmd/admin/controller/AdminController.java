@@ -1,7 +1,10 @@
 package com.pmd.admin.controller;
 
+import com.pmd.audit.model.AuditChainStatus;
 import com.pmd.audit.model.WorkspaceAuditEvent;
 import com.pmd.audit.repository.WorkspaceAuditEventRepository;
+import com.pmd.audit.service.AuditChainVerificationService;
+import com.pmd.audit.service.AuditSearchTerms;
 import com.pmd.auth.policy.AccessPolicy;
 import com.pmd.auth.security.UserPrincipal;
 import com.pmd.project.repository.ProjectRepository;
@@ -24,8 +27,10 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -47,6 +52,7 @@ public class AdminController {
     private final WorkspaceAuditEventRepository workspaceAuditEventRepository;
     private final AccessPolicy accessPolicy;
     private final MongoTemplate mongoTemplate;
+    private final AuditChainVerificationService auditChainVerificationService;
 
     public AdminController(UserRepository userRepository,
                            WorkspaceRepository workspaceRepository,
@@ -58,7 +64,8 @@ public class AdminController {
                            WorkspaceJoinRequestRepository workspaceJoinRequestRepository,
                            WorkspaceAuditEventRepository workspaceAuditEventRepository,
                            AccessPolicy accessPolicy,
-                           MongoTemplate mongoTemplate) {
+                           MongoTemplate mongoTemplate,
+                           AuditChainVerificationService auditChainVerificationService) {
         this.userRepository = userRepository;
         this.workspaceRepository = workspaceRepository;
         this.projectRepository = projectRepository;
@@ -70,6 +77,7 @@ public class AdminController {
         this.workspaceAuditEventRepository = workspaceAuditEventRepository;
         this.accessPolicy = accessPolicy;
         this.mongoTemplate = mongoTemplate;
+        this.auditChainVerificationService = auditChainVerificationService;
     }
 
     @GetMapping("/overview")
@@ -156,13 +164,9 @@ public class AdminController {
         if (!isBlank(action)) {
             query.addCriteria(Criteria.where("action").is(action.trim().toUpperCase()));
         }
-        if (!isBlank(q)) {
-            String regex = ".*" + java.util.regex.Pattern.quote(q.trim()) + ".*";
-            query.addCriteria(new Criteria().orOperator(
-                Criteria.where("message").regex(regex, "i"),
-                Criteria.where("entityName").regex(regex, "i"),
-                Criteria.where("actorName").regex(regex, "i")
-            ));
+        Criteria search = AuditSearchTerms.matching(q);
+        if (search != null) {
+            query.addCriteria(search);
         }
         query.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
         query.limit(clampLimit(limit));
@@ -184,6 +188,33 @@ public class AdminController {
             .toList();
     }
 
+    @GetMapping("/audit/chains")
+    public AdminAuditChainsResponse auditChains(Authentication authentication) {
+        requireAdmin(authentication);
+        List<AdminAuditChainRow> chains = auditChainVerificationService.statuses().stream()
+            .map(status -> new AdminAuditChainRow(
+                status.getWorkspaceId(),
+                status.getOutcome(),
+                status.getEventsChecked(),
+                status.getBrokenEventId(),
+                status.getDetail(),
+                status.getCheckedAt(),
+                status.getDurationMillis()
+            ))
+            .toList();
+        long broken = chains.stream().filter(chain -> AuditChainStatus.BROKEN.equals(chain.outcome())).count();
+        return new AdminAuditChainsResponse(auditChainVerificationService.isRunning(), broken, chains);
+    }
+
+    @PostMapping("/audit/chains/verify")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void verifyAuditChains(Authentication authentication) {
+        requireAdmin(authentication);
+        if (!auditChainVerificationService.startRun()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Verification already running.");
+        }
+    }
+
     private AdminWorkspaceRow toWorkspaceRow(Workspace workspace) {
         String workspaceId = workspace.getId();
         long memberCount = workspaceMemberRepository.countByWorkspaceId(workspaceId);
@@ -307,5 +338,22 @@ public class AdminController {
         String message
     ) {
     }
-}
 
+    public record AdminAuditChainsResponse(
+        boolean running,
+        long brokenChains,
+        List<AdminAuditChainRow> chains
+    ) {
+    }
+
+    public record AdminAuditChainRow(
+        String workspaceId,
+        String outcome,
+        long eventsChecked,
+        String brokenEventId,
+        String detail,
+        Instant checkedAt,
+        long durationMillis
+    ) {
+    }
+}
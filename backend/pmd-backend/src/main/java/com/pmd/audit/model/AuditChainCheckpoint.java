@@ -0,0 +1,80 @@
+package com.pmd.audit.model;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * How far a workspace's audit chain has been verified: every event up to and including
+ * {@code eventId} was intact and linked. Signed, so editing it to skip a stretch of the chain
+ * only sends the next run back to the start.
+ */
+@Document("audit_chain_checkpoints")
+public class AuditChainCheckpoint {
+
+    @Id
+    private String workspaceId;
+
+    private String eventId;
+    private Instant eventCreatedAt;
+    private String eventHash;
+    private long eventCount;
+    private Instant verifiedAt;
+    private String signature;
+
+    public String getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(String workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public Instant getEventCreatedAt() {
+        return eventCreatedAt;
+    }
+
+    public void setEventCreatedAt(Instant eventCreatedAt) {
+        this.eventCreatedAt = eventCreatedAt;
+    }
+
+    public String getEventHash() {
+        return eventHash;
+    }
+
+    public void setEventHash(String eventHash) {
+        this.eventHash = eventHash;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(long eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public Instant getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(Instant verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public void setSignature(String signature) {
+        this.signature = signature;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pmd.audit.model;
+
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/** Result of the latest verification of one workspace's audit chain. */
+@Document("audit_chain_status")
+public class AuditChainStatus {
+
+    public static final String INTACT = "INTACT";
+    public static final String BROKEN = "BROKEN";
+    /** The run itself failed (e.g. Mongo unreachable); says nothing about the chain. */
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String workspaceId;
+
+    private String outcome;
+    private long eventsChecked;
+    private String brokenEventId;
+    private String detail;
+    private Instant checkedAt;
+    private long durationMillis;
+
+    public String getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public void setWorkspaceId(String workspaceId) {
+        this.workspaceId = workspaceId;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public long getEventsChecked() {
+        return eventsChecked;
+    }
+
+    public void setEventsChecked(long eventsChecked) {
+        this.eventsChecked = eventsChecked;
+    }
+
+    public String getBrokenEventId() {
+        return brokenEventId;
+    }
+
+    public void setBrokenEventId(String brokenEventId) {
+        this.brokenEventId = brokenEventId;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(Instant checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -1,6 +1,7 @@
 package com.pmd.audit.model;
 
 import java.time.Instant;
+import java.util.List;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -48,6 +49,8 @@ public class WorkspaceAuditEvent {
     private String message;
     private String prevEventHash;
     private String eventHash;
+    // Derived from the text fields for search; not part of the hash.
+    private List<String> searchTerms;
     private int schemaVersion = 1;
 
     public String getId() {
@@ -201,4 +204,12 @@ public class WorkspaceAuditEvent {
     public void setSchemaVersion(int schemaVersion) {
         this.schemaVersion = schemaVersion;
     }
+
+    public List<String> getSearchTerms() {
+        return searchTerms;
+    }
+
+    public void setSearchTerms(List<String> searchTerms) {
+        this.searchTerms = searchTerms;
+    }
 }
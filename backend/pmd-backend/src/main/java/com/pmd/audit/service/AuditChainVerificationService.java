@@ -0,0 +1,222 @@
+package com.pmd.audit.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.pmd.audit.model.AuditChainStatus;
+import com.pmd.audit.model.WorkspaceAuditEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Verifies every workspace's audit chain on a schedule, so a broken chain is noticed without
+ * anyone having to ask.
+ *
+ * <p>Workspaces are spread over a small pool of low-priority threads, by default half the cores.
+ * All of them draw from one read budget ({@code reads-per-second} events), so a run on a large
+ * history is stretched out rather than competing with user traffic for Mongo. Runs are
+ * incremental through {@link AuditChainVerifier}'s checkpoints: after the first, each run reads
+ * only what was appended since the previous one.
+ *
+ * <p>The outcome per workspace is kept in {@code audit_chain_status} for the admin API, and the
+ * last run's totals are exported as {@code pmd.audit.chains}. A run that could not even list the
+ * workspaces keeps the previous totals and sets {@code pmd.audit.verification.last-run-failed}.
+ * A run never overlaps another, and never runs on the caller's thread.
+ */
+@Service
+public class AuditChainVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerificationService.class);
+
+    private final AuditChainVerifier verifier;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int threads;
+    private final RateLimiter readBudget;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger intactChains = new AtomicInteger();
+    private final AtomicInteger brokenChains = new AtomicInteger();
+    private final AtomicInteger failedChains = new AtomicInteger();
+    private final AtomicLong lastRunEpochSeconds = new AtomicLong();
+    private final AtomicInteger lastRunFailed = new AtomicInteger();
+
+    public AuditChainVerificationService(
+        AuditChainVerifier verifier,
+        MongoTemplate mongoTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${pmd.audit.verification.threads:0}") int threads,
+        @Value("${pmd.audit.verification.reads-per-second:2000}") double readsPerSecond
+    ) {
+        this.verifier = verifier;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.readBudget = readsPerSecond > 0 ? RateLimiter.create(readsPerSecond) : null;
+        Map.of(AuditChainStatus.INTACT, intactChains, AuditChainStatus.BROKEN, brokenChains,
+            AuditChainStatus.FAILED, failedChains).forEach((outcome, count) ->
+            Gauge.builder("pmd.audit.chains", count, AtomicInteger::get)
+                .description("Workspace audit chains by outcome of the last verification run")
+                .tag("outcome", outcome.toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        Gauge.builder("pmd.audit.verification.last-run", lastRunEpochSeconds, AtomicLong::get)
+            .description("When the last verification run finished, in epoch seconds")
+            .register(meterRegistry);
+        Gauge.builder("pmd.audit.verification.last-run-failed", lastRunFailed, AtomicInteger::get)
+            .description("1 when the last verification run could not list the workspaces to verify")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Hands the run to its own thread like {@link #startRun}. Spring schedules every task on a
+     * single thread, and a run over a large history would hold up the rest for hours.
+     */
+    @Scheduled(cron = "${pmd.audit.verification.cron:0 47 3 * * *}")
+    public void scheduledRun() {
+        if (!startRun()) {
+            logger.info("Skipping scheduled audit chain verification: a run is still in progress");
+        }
+    }
+
+    /** Starts a run in the background; {@code false} when one is already in progress. */
+    public boolean startRun() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().name("pmd-audit-verify").daemon().start(() -> {
+            try {
+                verifyAll();
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /** Latest status per workspace, problems first. */
+    public List<AuditChainStatus> statuses() {
+        List<AuditChainStatus> statuses = new ArrayList<>(mongoTemplate.findAll(AuditChainStatus.class));
+        statuses.sort(Comparator.comparing((AuditChainStatus status) -> AuditChainStatus.INTACT.equals(status.getOutcome()))
+            .thenComparing(AuditChainStatus::getWorkspaceId));
+        return statuses;
+    }
+
+    AuditChainStatus verifyWorkspace(String workspaceId) {
+        long started = System.nanoTime();
+        AuditChainStatus status = new AuditChainStatus();
+        status.setWorkspaceId(workspaceId);
+        try {
+            AuditChainVerifier.Result result = verifier.verify(workspaceId, this::acquireRead);
+            status.setOutcome(result.intact() ? AuditChainStatus.INTACT : AuditChainStatus.BROKEN);
+            status.setEventsChecked(result.eventsChecked());
+            status.setBrokenEventId(result.brokenEventId());
+            status.setDetail(result.detail());
+            if (!result.intact()) {
+                logger.error("Audit chain of workspace {} is broken at event {}: {}",
+                    workspaceId, result.brokenEventId(), result.detail());
+            }
+        } catch (RuntimeException ex) {
+            status.setOutcome(AuditChainStatus.FAILED);
+            status.setDetail(ex.getClass().getSimpleName());
+            logger.warn("Audit chain verification failed for workspace {}", workspaceId, ex);
+        }
+        long elapsed = System.nanoTime() - started;
+        status.setCheckedAt(Instant.now());
+        status.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        Timer.builder("pmd.audit.verification")
+            .description("Time to verify one workspace's audit chain")
+            .tag("outcome", status.getOutcome().toLowerCase(Locale.ROOT))
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        try {
+            mongoTemplate.save(status);
+        } catch (RuntimeException ex) {
+            logger.warn("Could not store audit chain status for workspace {}", workspaceId, ex);
+        }
+        return status;
+    }
+
+    private void verifyAll() {
+        long started = System.nanoTime();
+        List<String> workspaceIds;
+        try {
+            workspaceIds = mongoTemplate.findDistinct(new Query(), "workspaceId",
+                WorkspaceAuditEvent.class, String.class);
+        } catch (RuntimeException ex) {
+            lastRunFailed.set(1);
+            lastRunEpochSeconds.set(Instant.now().getEpochSecond());
+            logger.warn("Audit chain verification run failed: could not list the workspaces to verify", ex);
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pmd-audit-verify-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        int intact = 0;
+        int broken = 0;
+        int failed = 0;
+        try {
+            List<Future<AuditChainStatus>> runs = new ArrayList<>(workspaceIds.size());
+            for (String workspaceId : workspaceIds) {
+                runs.add(pool.submit(() -> verifyWorkspace(workspaceId)));
+            }
+            for (Future<AuditChainStatus> run : runs) {
+                String outcome;
+                try {
+                    outcome = run.get().getOutcome();
+                } catch (ExecutionException ex) {
+                    outcome = AuditChainStatus.FAILED;
+                }
+                switch (outcome) {
+                    case AuditChainStatus.INTACT -> intact++;
+                    case AuditChainStatus.BROKEN -> broken++;
+                    default -> failed++;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            pool.shutdownNow();
+        }
+        intactChains.set(intact);
+        brokenChains.set(broken);
+        failedChains.set(failed);
+        lastRunFailed.set(0);
+        lastRunEpochSeconds.set(Instant.now().getEpochSecond());
+        logger.info("Verified {} workspace audit chains in {} ms: {} intact, {} broken, {} failed",
+            workspaceIds.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), intact, broken, failed);
+    }
+
+    private void acquireRead() {
+        if (readBudget != null) {
+            readBudget.acquire();
+        }
+    }
+}
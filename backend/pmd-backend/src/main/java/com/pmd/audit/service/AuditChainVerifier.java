@@ -1,12 +1,26 @@
 package com.pmd.audit.service;
 
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.pmd.audit.model.AuditChainCheckpoint;
 import com.pmd.audit.model.WorkspaceAuditEvent;
-import com.pmd.audit.repository.WorkspaceAuditEventRepository;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,6 +32,19 @@ import org.springframework.stereotype.Component;
  * predecessor link points at a hash that is no longer present), and a fork (two rows claiming
  * the same predecessor, which the write-time unique index should already prevent).
  *
+ * <p>Events are streamed from a cursor in {@code (createdAt, _id)} order and each is checked as
+ * it arrives: its hash is recomputed and its {@code prevEventHash} must be the hash of the event
+ * accepted before it. Only the current tail is kept. An event that arrives before its
+ * predecessor (instances with skewed clocks) waits in a small bounded buffer, and when the walk is
+ * stuck the successor of the tail is fetched directly by {@code prevEventHash}, so memory stays
+ * constant however long the history is.
+ *
+ * <p>A successful run stores a signed {@link AuditChainCheckpoint} at the last event, and the next
+ * {@link #verify} starts from there, checking only what was appended since. Earlier events are
+ * not re-read; {@link #verifyFromStart} does that. A checkpoint whose signature does not match is
+ * ignored, so forging one to skip a stretch gains nothing. The checkpoint also lets the chain
+ * outlive retention: once verified past the cutoff, losing the oldest events is not a gap.
+ *
  * <p>What it does NOT defend against: an operator with database root who rewrites the whole
  * chain from the genesis. That bound is stated honestly in the privacy notice; the chain
  * protects against selective edits, not against total reconstruction by the host.
@@ -25,61 +52,213 @@ import org.springframework.stereotype.Component;
 @Component
 public class AuditChainVerifier {
 
-    private final WorkspaceAuditEventRepository auditRepository;
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainVerifier.class);
+    private static final int CURSOR_BATCH = 500;
+    private static final int MAX_OUT_OF_ORDER = 1024;
+    private static final String GENESIS = "";
+
     private final WorkspaceAuditWriter auditWriter;
+    private final MongoTemplate mongoTemplate;
+    private final HashFunction signer;
 
-    public AuditChainVerifier(WorkspaceAuditEventRepository auditRepository, WorkspaceAuditWriter auditWriter) {
-        this.auditRepository = auditRepository;
+    public AuditChainVerifier(
+        WorkspaceAuditWriter auditWriter,
+        MongoTemplate mongoTemplate,
+        @Value("${pmd.audit.checkpoint.secret:${pmd.jwt.secret}}") String checkpointSecret
+    ) {
         this.auditWriter = auditWriter;
+        this.mongoTemplate = mongoTemplate;
+        this.signer = Hashing.hmacSha256(checkpointSecret.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Verifies the events appended since the last checkpoint (all of them on the first run) and
+     * moves the checkpoint forward. {@code eventsChecked} counts the whole verified chain.
+     */
     public Result verify(String workspaceId) {
-        List<WorkspaceAuditEvent> events = auditRepository.findByWorkspaceIdOrderByCreatedAtAscIdAsc(workspaceId);
-        if (events.isEmpty()) {
-            return Result.intact(0);
-        }
+        return verify(workspaceId, () -> { });
+    }
 
-        // 1. Content integrity: each stored hash must match a fresh recompute of its own fields.
-        for (WorkspaceAuditEvent event : events) {
-            if (!auditWriter.recomputeHash(event).equals(orEmpty(event.getEventHash()))) {
-                return Result.broken(event.getId(), "content of an event was edited after it was written");
-            }
+    /** As {@link #verify(String)}, calling {@code beforeRead} ahead of each event read from Mongo. */
+    public Result verify(String workspaceId, Runnable beforeRead) {
+        AuditChainCheckpoint checkpoint = mongoTemplate.findById(workspaceId, AuditChainCheckpoint.class);
+        if (checkpoint != null && !sign(checkpoint).equals(checkpoint.getSignature())) {
+            logger.warn("Audit checkpoint for workspace {} has a bad signature; verifying from the start", workspaceId);
+            checkpoint = null;
         }
+        return walk(workspaceId, checkpoint, beforeRead);
+    }
 
-        // 2. Structure: exactly one genesis, every non-genesis link resolves, no forks.
-        Set<String> hashes = new HashSet<>();
-        Map<String, Integer> predecessorUse = new HashMap<>();
-        int genesisCount = 0;
-        for (WorkspaceAuditEvent event : events) {
-            hashes.add(orEmpty(event.getEventHash()));
-            String prev = event.getPrevEventHash();
-            if (prev == null || prev.isBlank()) {
-                genesisCount++;
-            } else {
-                predecessorUse.merge(prev, 1, Integer::sum);
+    /** Verifies the whole chain regardless of any checkpoint, then stores a fresh one. */
+    public Result verifyFromStart(String workspaceId) {
+        return walk(workspaceId, null, () -> { });
+    }
+
+    private Result walk(String workspaceId, AuditChainCheckpoint checkpoint, Runnable beforeRead) {
+        Walk walk = new Walk(workspaceId, checkpoint, beforeRead);
+        Query query = new Query(eventsAfter(workspaceId, checkpoint))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "_id")))
+            .cursorBatchSize(CURSOR_BATCH);
+        try (Stream<WorkspaceAuditEvent> events = mongoTemplate.stream(query, WorkspaceAuditEvent.class)) {
+            Iterator<WorkspaceAuditEvent> iterator = events.iterator();
+            while (true) {
+                beforeRead.run();
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                Result broken = walk.accept(iterator.next());
+                if (broken != null) {
+                    return broken;
+                }
             }
         }
-        if (genesisCount != 1) {
-            return Result.broken(null, "expected exactly one starting event, found " + genesisCount);
+        Result broken = walk.resolve(0);
+        if (broken != null) {
+            return broken;
         }
-        for (WorkspaceAuditEvent event : events) {
-            String prev = event.getPrevEventHash();
-            if (prev != null && !prev.isBlank() && !hashes.contains(prev)) {
-                return Result.broken(event.getId(), "an earlier event referenced by this one is missing (deleted?)");
-            }
+        if (walk.tailEvent != null) {
+            saveCheckpoint(workspaceId, walk.tailEvent, walk.count);
         }
-        for (Map.Entry<String, Integer> entry : predecessorUse.entrySet()) {
-            if (entry.getValue() > 1) {
-                return Result.broken(null, "two events share a predecessor (forked chain)");
-            }
+        return Result.intact((int) Math.min(walk.count, Integer.MAX_VALUE));
+    }
+
+    private static Criteria eventsAfter(String workspaceId, AuditChainCheckpoint checkpoint) {
+        Criteria criteria = Criteria.where("workspaceId").is(workspaceId);
+        if (checkpoint == null) {
+            return criteria;
         }
-        return Result.intact(events.size());
+        Object id = ObjectId.isValid(checkpoint.getEventId())
+            ? new ObjectId(checkpoint.getEventId()) : checkpoint.getEventId();
+        return criteria.orOperator(
+            Criteria.where("createdAt").gt(checkpoint.getEventCreatedAt()),
+            new Criteria().andOperator(
+                Criteria.where("createdAt").is(checkpoint.getEventCreatedAt()),
+                Criteria.where("_id").gt(id)));
+    }
+
+    private void saveCheckpoint(String workspaceId, WorkspaceAuditEvent tail, long count) {
+        AuditChainCheckpoint checkpoint = new AuditChainCheckpoint();
+        checkpoint.setWorkspaceId(workspaceId);
+        checkpoint.setEventId(tail.getId());
+        checkpoint.setEventCreatedAt(tail.getCreatedAt());
+        checkpoint.setEventHash(tail.getEventHash());
+        checkpoint.setEventCount(count);
+        checkpoint.setVerifiedAt(Instant.now());
+        checkpoint.setSignature(sign(checkpoint));
+        mongoTemplate.save(checkpoint);
+    }
+
+    private String sign(AuditChainCheckpoint checkpoint) {
+        String payload = checkpoint.getWorkspaceId() + "|" + checkpoint.getEventId() + "|"
+            + checkpoint.getEventCreatedAt() + "|" + checkpoint.getEventHash() + "|" + checkpoint.getEventCount();
+        return signer.hashString(payload, StandardCharsets.UTF_8).toString();
+    }
+
+    private boolean contentIntact(WorkspaceAuditEvent event) {
+        byte[] expected = auditWriter.recomputeHash(event).getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(expected, orEmpty(event.getEventHash()).getBytes(StandardCharsets.UTF_8));
     }
 
     private static String orEmpty(String value) {
         return value == null ? "" : value;
     }
 
+    private static String linkOf(WorkspaceAuditEvent event) {
+        String prev = event.getPrevEventHash();
+        return prev == null || prev.isBlank() ? GENESIS : prev;
+    }
+
+    /** State of one pass: the tail, and the few events that arrived before their predecessor. */
+    private final class Walk {
+        private final String workspaceId;
+        private final Runnable beforeRead;
+        private String tail;
+        private WorkspaceAuditEvent tailEvent;
+        private long count;
+        // Keyed by the predecessor each one is waiting for, in arrival order.
+        private final Map<String, WorkspaceAuditEvent> waiting = new LinkedHashMap<>();
+        // Fetched ahead of the cursor by resolve(); skipped when the cursor reaches them.
+        private final Set<String> fetchedAhead = new HashSet<>();
+
+        Walk(String workspaceId, AuditChainCheckpoint checkpoint, Runnable beforeRead) {
+            this.workspaceId = workspaceId;
+            this.beforeRead = beforeRead;
+            this.tail = checkpoint != null ? orEmpty(checkpoint.getEventHash()) : GENESIS;
+            this.count = checkpoint != null ? checkpoint.getEventCount() : 0;
+        }
+
+        Result accept(WorkspaceAuditEvent event) {
+            if (fetchedAhead.remove(event.getId())) {
+                return null;
+            }
+            if (!contentIntact(event)) {
+                return Result.broken(event.getId(), "content of an event was edited after it was written");
+            }
+            String link = linkOf(event);
+            if (link.equals(tail)) {
+                advance(event);
+                return null;
+            }
+            if (waiting.putIfAbsent(link, event) != null) {
+                return Result.broken(event.getId(), GENESIS.equals(link)
+                    ? "expected exactly one starting event, found more than one"
+                    : "two events share a predecessor (forked chain)");
+            }
+            return waiting.size() > MAX_OUT_OF_ORDER ? resolve(MAX_OUT_OF_ORDER) : null;
+        }
+
+        /** Follows the chain by {@code prevEventHash} until at most {@code limit} events wait. */
+        Result resolve(int limit) {
+            while (waiting.size() > limit) {
+                Query successorQuery = new Query(new Criteria().andOperator(
+                    Criteria.where("workspaceId").is(workspaceId),
+                    Criteria.where("prevEventHash").is(GENESIS.equals(tail) ? null : tail)));
+                beforeRead.run();
+                WorkspaceAuditEvent successor = mongoTemplate.findOne(successorQuery, WorkspaceAuditEvent.class);
+                if (successor == null) {
+                    return stuck();
+                }
+                if (!contentIntact(successor)) {
+                    return Result.broken(successor.getId(), "content of an event was edited after it was written");
+                }
+                WorkspaceAuditEvent buffered = waiting.get(tail);
+                if (buffered != null && buffered.getId().equals(successor.getId())) {
+                    advance(buffered);
+                } else {
+                    fetchedAhead.add(successor.getId());
+                    advance(successor);
+                }
+            }
+            return null;
+        }
+
+        private void advance(WorkspaceAuditEvent event) {
+            WorkspaceAuditEvent next = event;
+            while (next != null) {
+                waiting.remove(linkOf(next), next);
+                tail = orEmpty(next.getEventHash());
+                tailEvent = next;
+                count++;
+                next = waiting.get(tail);
+            }
+        }
+
+        /** Nothing continues the tail, yet events are left: name the first of them. */
+        private Result stuck() {
+            WorkspaceAuditEvent first = waiting.values().iterator().next();
+            String link = linkOf(first);
+            if (GENESIS.equals(link)) {
+                return Result.broken(first.getId(), "expected exactly one starting event, found more than one");
+            }
+            boolean predecessorExists = mongoTemplate.exists(new Query(new Criteria().andOperator(
+                Criteria.where("workspaceId").is(workspaceId),
+                Criteria.where("eventHash").is(link))), WorkspaceAuditEvent.class);
+            return Result.broken(first.getId(), predecessorExists
+                ? "two events share a predecessor (forked chain)"
+                : "an earlier event referenced by this one is missing (deleted?)");
+        }
+    }
+
     /** Outcome of a verification: intact, or broken with the offending event and why. */
     public record Result(boolean intact, int eventsChecked, String brokenEventId, String detail) {
         static Result intact(int count) {
@@ -0,0 +1,347 @@
+package com.pmd.audit.service;
+
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes audit events off the request thread. {@link #submit} queues the event and returns; a
+ * virtual-thread worker drains the queue and hands each workspace's events to
+ * {@link WorkspaceAuditWriter} together, so they share one insert when that workspace's lane is
+ * idle.
+ *
+ * <p>The queue is bounded. When it is full a request waits up to {@code offer-timeout-ms} and then
+ * goes on without its event: auditing must not take the API down with it, but every such loss is
+ * counted ({@code pmd.audit.dropped}) and logged. On shutdown the worker gets
+ * {@code shutdown-timeout-ms} to empty the queue; whatever is left goes to the spill journal and
+ * is written on the next start, together with any insert still unconfirmed when the time ran
+ * out. Such an insert may yet have reached Mongo, so its events can appear twice, but none is
+ * lost unseen. Events submitted once shutdown has begun are written directly.
+ *
+ * <p>Queued events carry the actor's display name. Erasure calls {@link #flush} before it
+ * anonymises the stored rows, so none of them lands afterwards with the name still on it. The
+ * spill journal keeps only the actor id, and the replay looks the name up again: an actor erased
+ * in between comes back without one.
+ */
+@Component
+public class AuditEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEventSink.class);
+    private static final int MAX_DRAIN = 512;
+    private static final long POLL_MILLIS = 200;
+
+    private final WorkspaceAuditWriter writer;
+    private final UserRepository userRepository;
+    private final BlockingQueue<Queued> queue;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final AuditSpillJournal journal;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    // Inserts the worker has not seen finish, with their events; what shutdown has to account for.
+    private final Map<Future<?>, List<Queued>> inFlight = new ConcurrentHashMap<>();
+    private final Timer lag;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter spilled;
+    private volatile boolean accepting = true;
+    private Thread worker;
+
+    public AuditEventSink(
+        WorkspaceAuditWriter writer,
+        UserRepository userRepository,
+        MeterRegistry meterRegistry,
+        @Value("${pmd.audit.sink.capacity:4096}") int capacity,
+        @Value("${pmd.audit.sink.offer-timeout-ms:50}") long offerTimeoutMillis,
+        @Value("${pmd.audit.sink.shutdown-timeout-ms:5000}") long shutdownTimeoutMillis,
+        @Value("${pmd.audit.sink.journal:audit-spill.journal}") String journal
+    ) {
+        this.writer = writer;
+        this.userRepository = userRepository;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+        this.shutdownTimeoutMillis = Math.max(0, shutdownTimeoutMillis);
+        this.journal = journal == null || journal.isBlank() ? null : new AuditSpillJournal(Path.of(journal.trim()));
+        this.lag = Timer.builder("pmd.audit.lag")
+            .description("Time from an audit event being submitted to it being stored")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("pmd.audit.dropped")
+            .description("Audit events given up because the queue stayed full")
+            .register(meterRegistry);
+        this.failed = Counter.builder("pmd.audit.failed")
+            .description("Audit events the worker could not store")
+            .register(meterRegistry);
+        this.spilled = Counter.builder("pmd.audit.spilled")
+            .description("Audit events still queued at shutdown and written to the spill journal")
+            .register(meterRegistry);
+        Gauge.builder("pmd.audit.queue", queue, BlockingQueue::size)
+            .description("Audit events waiting to be stored")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        worker = Thread.ofVirtual().name("audit-sink").start(this::run);
+    }
+
+    public void submit(WorkspaceAuditService.WorkspaceAuditWriteRequest request) {
+        if (request == null) {
+            return;
+        }
+        if (!accepting) {
+            writer.log(request);
+            return;
+        }
+        try {
+            if (queue.offer(new Queued(request, System.nanoTime()), offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        logger.warn("Audit queue full, dropped {} event for workspace {}", request.action(), request.workspaceId());
+    }
+
+    /**
+     * Waits until every event submitted before the call has been stored or given up on. Returns
+     * {@code false} when that takes longer than {@code timeout}.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        if (!accepting || worker == null) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        CountDownLatch flushed = new CountDownLatch(1);
+        try {
+            if (!queue.offer(new Queued(null, System.nanoTime(), flushed), timeout, unit)) {
+                return false;
+            }
+            return flushed.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        accepting = false;
+        if (worker != null) {
+            try {
+                worker.join(Math.max(1, shutdownTimeoutMillis));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            worker.interrupt();
+            try {
+                // Returns at once: the worker only ever waits on the queue or on an insert.
+                worker.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writers.shutdownNow();
+        List<Queued> left = new ArrayList<>(unconfirmed());
+        queue.drainTo(left);
+        flushesIn(left).forEach(CountDownLatch::countDown);
+        if (left.isEmpty()) {
+            return;
+        }
+        if (journal == null) {
+            failed.increment(left.size());
+            logger.error("{} queued audit events lost at shutdown: no spill journal configured", left.size());
+            return;
+        }
+        try {
+            journal.append(left.stream().map(Queued::request).toList());
+            spilled.increment(left.size());
+            logger.warn("Spilled {} queued audit events to {}", left.size(), journal.file());
+        } catch (RuntimeException ex) {
+            failed.increment(left.size());
+            logger.error("{} queued audit events lost at shutdown", left.size(), ex);
+        }
+    }
+
+    private void run() {
+        replayJournal();
+        List<Queued> batch = new ArrayList<>();
+        while (accepting || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException ex) {
+                return;
+            }
+            queue.drainTo(batch, MAX_DRAIN - 1);
+            List<CountDownLatch> flushes = flushesIn(batch);
+            failed.increment(write(batch).size());
+            flushes.forEach(CountDownLatch::countDown);
+            batch.clear();
+        }
+    }
+
+    private void replayJournal() {
+        if (journal == null) {
+            return;
+        }
+        AuditSpillJournal.Replay replay;
+        try {
+            replay = journal.read();
+        } catch (RuntimeException ex) {
+            logger.error("Could not replay audit spill journal {}", journal.file(), ex);
+            return;
+        }
+        List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests = replay.requests();
+        if (!requests.isEmpty()) {
+            logger.info("Replaying {} audit events from {}", requests.size(), journal.file());
+            try {
+                restoreActorNames(requests);
+            } catch (RuntimeException ex) {
+                // Left in the file as it is for the next start.
+                logger.error("Could not look up actors for audit spill journal {}", journal.file(), ex);
+                return;
+            }
+        }
+        List<WorkspaceAuditService.WorkspaceAuditWriteRequest> unstored = new ArrayList<>();
+        long now = System.nanoTime();
+        for (int from = 0; from < requests.size(); from += MAX_DRAIN) {
+            List<Queued> batch = new ArrayList<>();
+            for (WorkspaceAuditService.WorkspaceAuditWriteRequest request
+                : requests.subList(from, Math.min(requests.size(), from + MAX_DRAIN))) {
+                batch.add(new Queued(request, now));
+            }
+            write(batch).forEach(queued -> unstored.add(queued.request()));
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutdown came first. The file still holds every event, so none needs spilling again.
+                inFlight.clear();
+                return;
+            }
+        }
+        try {
+            journal.completeReplay(replay.consumed(), unstored);
+        } catch (RuntimeException ex) {
+            // The file is left as it was, so the next start replays all of it again.
+            logger.error("Could not update audit spill journal {} after replay", journal.file(), ex);
+            return;
+        }
+        if (!unstored.isEmpty()) {
+            logger.warn("Kept {} audit events in {} for the next start", unstored.size(), journal.file());
+        }
+    }
+
+    /** The journal keeps only actor ids; names come from the users that still exist. */
+    private void restoreActorNames(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+        List<String> actorIds = requests.stream()
+            .map(request -> request.actor().getId())
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Map<String, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(actorIds)) {
+            if (user.getDisplayName() != null) {
+                names.put(user.getId(), user.getDisplayName());
+            }
+        }
+        requests.forEach(request -> request.actor().setDisplayName(names.get(request.actor().getId())));
+    }
+
+    /** Events of inserts that did not finish successfully; clears {@link #inFlight}. */
+    private List<Queued> unconfirmed() {
+        List<Queued> unconfirmed = new ArrayList<>();
+        inFlight.forEach((write, events) -> {
+            if (write.state() != Future.State.SUCCESS) {
+                unconfirmed.addAll(events);
+            }
+        });
+        inFlight.clear();
+        if (!unconfirmed.isEmpty()) {
+            logger.warn("{} audit events were still being stored at shutdown; spilling them as well",
+                unconfirmed.size());
+        }
+        return unconfirmed;
+    }
+
+    /** Takes flush markers out of {@code batch}, returning them to be released once it is written. */
+    private static List<CountDownLatch> flushesIn(List<Queued> batch) {
+        List<CountDownLatch> flushes = new ArrayList<>();
+        batch.removeIf(queued -> queued.flushed() != null && flushes.add(queued.flushed()));
+        return flushes;
+    }
+
+    /**
+     * Writes each workspace's events on its own virtual thread and waits for all of them. Returns
+     * the events that could not be stored. When interrupted it stops waiting, and the inserts it
+     * did not see finish stay in {@link #inFlight}.
+     */
+    private List<Queued> write(List<Queued> batch) {
+        Map<String, List<Queued>> byWorkspace = new LinkedHashMap<>();
+        for (Queued queued : batch) {
+            byWorkspace.computeIfAbsent(queued.request().workspaceId(), key -> new ArrayList<>()).add(queued);
+        }
+        Map<String, Future<?>> writes = new LinkedHashMap<>();
+        byWorkspace.forEach((workspaceId, events) -> {
+            Future<?> write = writers.submit(() -> {
+                writer.logAll(events.stream().map(Queued::request).toList());
+                long now = System.nanoTime();
+                for (Queued queued : events) {
+                    lag.record(now - queued.enqueuedAt(), TimeUnit.NANOSECONDS);
+                }
+            });
+            inFlight.put(write, events);
+            writes.put(workspaceId, write);
+        });
+        List<Queued> unstored = new ArrayList<>();
+        for (Map.Entry<String, Future<?>> write : writes.entrySet()) {
+            List<Queued> events = byWorkspace.get(write.getKey());
+            try {
+                write.getValue().get();
+            } catch (ExecutionException ex) {
+                unstored.addAll(events);
+                logger.error("Failed to store {} audit events for workspace {}",
+                    events.size(), write.getKey(), ex.getCause());
+            } catch (InterruptedException ex) {
+                // Shutdown gave up waiting; it spills what is still in flight.
+                Thread.currentThread().interrupt();
+                return unstored;
+            }
+            inFlight.remove(write.getValue());
+        }
+        return unstored;
+    }
+
+    /** A queued event, or with {@code flushed} set, a marker that {@link #flush} waits on. */
+    private record Queued(WorkspaceAuditService.WorkspaceAuditWriteRequest request, long enqueuedAt,
+                          CountDownLatch flushed) {
+        Queued(WorkspaceAuditService.WorkspaceAuditWriteRequest request, long enqueuedAt) {
+            this(request, enqueuedAt, null);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pmd.audit.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Search words for an audit event, stored in {@code searchTerms} so {@code q} can be answered from
+ * the {@code (workspaceId, searchTerms, createdAt)} index instead of a regex over every row.
+ *
+ * <p>Text is lower-cased and split on anything that is not a letter or digit, so
+ * {@code PROJECT_CREATED} yields {@code project} and {@code created}. A query matches an event
+ * when every one of its words is the prefix of one of the event's words. Prefix regexes anchored
+ * at {@code ^} with no special characters become a plain index range in Mongo.
+ *
+ * <p>Words from the actor's name carry {@link #ACTOR_PREFIX}, so erasure can pull them without
+ * knowing the event's other text.
+ */
+public final class AuditSearchTerms {
+
+    public static final String FIELD = "searchTerms";
+    public static final String ACTOR_PREFIX = "a:";
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MAX_TERM_LENGTH = 32;
+    private static final int MAX_TERMS = 64;
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private AuditSearchTerms() {
+    }
+
+    public static List<String> of(String category, String action, String entityName, String message,
+                                  String actorName) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : new String[] {category, action, entityName, message}) {
+            for (String word : words(text)) {
+                if (word.length() > 1) {
+                    terms.add(word);
+                }
+            }
+        }
+        for (String word : words(actorName)) {
+            terms.add(ACTOR_PREFIX + word);
+        }
+        List<String> capped = new ArrayList<>(terms);
+        return capped.size() > MAX_TERMS ? List.copyOf(capped.subList(0, MAX_TERMS)) : capped;
+    }
+
+    /** Criteria for a free-text query, or {@code null} when it has no searchable words. */
+    public static Criteria matching(String query) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return null;
+        }
+        List<Criteria> all = new ArrayList<>();
+        for (String word : words.subList(0, Math.min(words.size(), MAX_QUERY_TERMS))) {
+            // Words hold only letters and digits, so they need no regex escaping.
+            all.add(Criteria.where(FIELD).in(
+                Pattern.compile("^" + word),
+                Pattern.compile("^" + ACTOR_PREFIX + word)));
+        }
+        return all.size() == 1 ? all.get(0) : new Criteria().andOperator(all.toArray(Criteria[]::new));
+    }
+
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word.codePointCount(0, word.length()) > MAX_TERM_LENGTH
+                    ? word.substring(0, word.offsetByCodePoints(0, MAX_TERM_LENGTH))
+                    : word);
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,183 @@
+package com.pmd.audit.service;
+
+import com.pmd.user.model.User;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File that holds audit events still queued when the application stops, until the next start
+ * writes them. Records are appended, so a second shutdown before a replay adds to the file
+ * rather than replacing it.
+ *
+ * <p>Only what {@link WorkspaceAuditWriter} reads from a request is kept, and the actor is reduced
+ * to its id. The display name is personal data that erasure has to be able to reach, so it is not
+ * written here and is looked up again on replay. A record cut short by a crash ends the replay at
+ * that point.
+ *
+ * <p>A replay reads the file and leaves it in place; {@link #completeReplay} then rewrites it to
+ * hold only the events that could not be stored, plus anything appended meanwhile, and deletes
+ * it once that is nothing. A start while Mongo is still down therefore loses nothing.
+ */
+final class AuditSpillJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditSpillJournal.class);
+    private static final int RECORD_VERSION = 1;
+
+    private final Path file;
+
+    AuditSpillJournal(Path file) {
+        this.file = file;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    synchronized void append(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)))) {
+                for (WorkspaceAuditService.WorkspaceAuditWriteRequest request : requests) {
+                    write(out, request);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write audit spill journal " + file, ex);
+        }
+    }
+
+    /**
+     * Every complete record, and the size of the file they were read from. Anything after the
+     * last complete record is unreadable and counts as consumed, so later appends stay readable.
+     */
+    synchronized Replay read() {
+        if (!Files.exists(file)) {
+            return new Replay(List.of(), 0);
+        }
+        List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int version = in.read();
+                if (version < 0) {
+                    break;
+                }
+                if (version != RECORD_VERSION) {
+                    logger.warn("Audit spill journal {} has an unknown record version {}, stopping after {} events",
+                        file, version, requests.size());
+                    break;
+                }
+                requests.add(read(in));
+            }
+            return new Replay(requests, Files.size(file));
+        } catch (EOFException ex) {
+            logger.warn("Audit spill journal {} ends in a partial record, kept {} events", file, requests.size());
+            return new Replay(requests, fileSize());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read audit spill journal " + file, ex);
+        }
+    }
+
+    /**
+     * Drops the first {@code consumed} bytes, which a replay has dealt with, and puts the events
+     * it could not store in front of whatever was appended since. Deletes the file when that
+     * leaves nothing.
+     */
+    synchronized void completeReplay(long consumed, List<WorkspaceAuditService.WorkspaceAuditWriteRequest> unstored) {
+        try {
+            if (!Files.exists(file)) {
+                if (!unstored.isEmpty()) {
+                    append(unstored);
+                }
+                return;
+            }
+            if (unstored.isEmpty() && consumed >= Files.size(file)) {
+                Files.delete(file);
+                return;
+            }
+            Path rewritten = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(rewritten)));
+                 InputStream rest = Files.newInputStream(file)) {
+                for (WorkspaceAuditService.WorkspaceAuditWriteRequest request : unstored) {
+                    write(out, request);
+                }
+                rest.skipNBytes(Math.min(consumed, Files.size(file)));
+                rest.transferTo(out);
+            }
+            Files.move(rewritten, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not rewrite audit spill journal " + file, ex);
+        }
+    }
+
+    private long fileSize() {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read audit spill journal " + file, ex);
+        }
+    }
+
+    /** What a replay read: the requests, and how many bytes of the file it has dealt with. */
+    record Replay(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests, long consumed) {
+    }
+
+    private static void write(DataOutputStream out,
+                              WorkspaceAuditService.WorkspaceAuditWriteRequest request) throws IOException {
+        out.writeByte(RECORD_VERSION);
+        writeNullable(out, request.workspaceId());
+        writeNullable(out, request.category());
+        writeNullable(out, request.action());
+        writeNullable(out, request.outcome());
+        writeNullable(out, request.actor().getId());
+        writeNullable(out, request.targetUserId());
+        writeNullable(out, request.teamId());
+        writeNullable(out, request.roleId());
+        writeNullable(out, request.projectId());
+        writeNullable(out, request.entityType());
+        writeNullable(out, request.entityId());
+        writeNullable(out, request.entityName());
+        writeNullable(out, request.message());
+    }
+
+    private static WorkspaceAuditService.WorkspaceAuditWriteRequest read(DataInputStream in) throws IOException {
+        String workspaceId = readNullable(in);
+        String category = readNullable(in);
+        String action = readNullable(in);
+        String outcome = readNullable(in);
+        User actor = new User();
+        actor.setId(readNullable(in));
+        return new WorkspaceAuditService.WorkspaceAuditWriteRequest(workspaceId, category, action, outcome, actor,
+            readNullable(in), readNullable(in), readNullable(in), readNullable(in), readNullable(in),
+            readNullable(in), readNullable(in), readNullable(in));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -23,18 +23,19 @@ public class WorkspaceAuditService {
 
     private final WorkspaceService workspaceService;
     private final MongoTemplate mongoTemplate;
-    private final WorkspaceAuditWriter writer;
+    private final AuditEventSink sink;
 
     public WorkspaceAuditService(WorkspaceService workspaceService,
                                  MongoTemplate mongoTemplate,
-                                 WorkspaceAuditWriter writer) {
+                                 AuditEventSink sink) {
         this.workspaceService = workspaceService;
         this.mongoTemplate = mongoTemplate;
-        this.writer = writer;
+        this.sink = sink;
     }
 
+    /** Queues the event and returns; see {@link AuditEventSink} for when it is stored. */
     public void log(WorkspaceAuditWriteRequest request) {
-        writer.log(request);
+        sink.submit(request);
     }
 
     public List<WorkspaceAuditEventResponse> list(String workspaceId, WorkspaceAuditQuery query, User requester) {
@@ -86,15 +87,9 @@ public class WorkspaceAuditService {
                 criteria.add(Criteria.where("createdAt").lte(to));
             }
         }
-        if (!isBlank(query.q())) {
-            String regex = ".*" + java.util.regex.Pattern.quote(query.q().trim()) + ".*";
-            criteria.add(new Criteria().orOperator(
-                Criteria.where("message").regex(regex, "i"),
-                Criteria.where("entityName").regex(regex, "i"),
-                Criteria.where("actorName").regex(regex, "i"),
-                Criteria.where("action").regex(regex, "i"),
-                Criteria.where("category").regex(regex, "i")
-            ));
+        Criteria search = AuditSearchTerms.matching(query.q());
+        if (search != null) {
+            criteria.add(search);
         }
 
         mongoQuery.addCriteria(new Criteria().andOperator(criteria.toArray(Criteria[]::new)));
@@ -1,13 +1,23 @@
 package com.pmd.audit.service;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.pmd.audit.model.WorkspaceAuditEvent;
 import com.pmd.audit.repository.WorkspaceAuditEventRepository;
 import com.pmd.user.model.User;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
 import org.slf4j.Logger;
@@ -34,15 +44,27 @@ import org.springframework.stereotype.Component;
  * than a tree: two concurrent writes cannot both claim the same predecessor. The loser of that
  * race retries against the new tail (see {@link #log}), so the chain stays linear under
  * concurrency instead of silently forking.
+ *
+ * <p>Within this instance, appends to one workspace go through a lane that serialises them and
+ * remembers the chain tail, so the tail is read from Mongo only when a lane starts or after
+ * another instance appended in between (which surfaces as the duplicate-key error above).
+ * Whoever finds the lane idle writes everything queued behind it with one {@code insertMany},
+ * so a burst for a busy workspace costs a round trip per batch rather than a read and a write
+ * per event. {@link #log} still returns only once its own event is stored.
  */
 @Component
 public class WorkspaceAuditWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(WorkspaceAuditWriter.class);
     private static final int MAX_APPEND_ATTEMPTS = 6;
+    private static final int MAX_BATCH = 100;
 
     private final WorkspaceAuditEventRepository auditRepository;
     private final MongoTemplate mongoTemplate;
+    // Idle lanes are dropped; the next append to that workspace just re-reads the tail.
+    private final LoadingCache<String, Lane> lanes = CacheBuilder.newBuilder()
+        .expireAfterAccess(Duration.ofMinutes(10))
+        .build(CacheLoader.from(workspaceId -> new Lane()));
 
     public WorkspaceAuditWriter(WorkspaceAuditEventRepository auditRepository, MongoTemplate mongoTemplate) {
         this.auditRepository = auditRepository;
@@ -50,45 +72,164 @@ public class WorkspaceAuditWriter {
     }
 
     public void log(WorkspaceAuditService.WorkspaceAuditWriteRequest request) {
-        if (request == null || isBlank(request.workspaceId()) || request.actor() == null) {
-            return;
+        logAll(Collections.singletonList(request));
+    }
+
+    /**
+     * Appends the events in order, each workspace's run queued together so they land in one
+     * batch when its lane is idle. Returns once all are stored; a failure is rethrown after the
+     * remaining workspaces have been attempted.
+     */
+    public void logAll(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+        Map<String, List<WorkspaceAuditEvent>> byWorkspace = new LinkedHashMap<>();
+        for (WorkspaceAuditService.WorkspaceAuditWriteRequest request : requests) {
+            if (request == null || isBlank(request.workspaceId()) || request.actor() == null) {
+                continue;
+            }
+            byWorkspace.computeIfAbsent(request.workspaceId(), key -> new ArrayList<>()).add(newEvent(request));
+        }
+        RuntimeException failure = null;
+        for (Map.Entry<String, List<WorkspaceAuditEvent>> entry : byWorkspace.entrySet()) {
+            try {
+                append(lanes.getUnchecked(entry.getKey()), entry.getValue());
+            } catch (RuntimeException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void append(Lane lane, List<WorkspaceAuditEvent> events) {
+        Ticket ticket = new Ticket(events.size());
+        boolean leader;
+        synchronized (lane) {
+            // Stamped under the lane lock so createdAt follows chain order on this instance.
+            Instant now = now();
+            for (WorkspaceAuditEvent event : events) {
+                event.setCreatedAt(now);
+                lane.queue.add(new Pending(event, ticket));
+            }
+            leader = !lane.draining;
+            lane.draining = true;
+        }
+        while (leader || ticket.awaitTurn()) {
+            leader = false;
+            lead(lane, ticket);
+        }
+        ticket.rethrowFailure();
+    }
+
+    /**
+     * Writes queued batches until {@code own} is stored, then hands the lane to the oldest waiter
+     * (or marks it idle), so no caller is kept writing other callers' events indefinitely.
+     */
+    private void lead(Lane lane, Ticket own) {
+        try {
+            while (!own.isDone()) {
+                List<Pending> batch = new ArrayList<>();
+                synchronized (lane) {
+                    while (batch.size() < MAX_BATCH && !lane.queue.isEmpty()) {
+                        batch.add(lane.queue.poll());
+                    }
+                }
+                RuntimeException failure = null;
+                try {
+                    write(lane, batch);
+                } catch (RuntimeException ex) {
+                    // Unknown what reached Mongo; start over from the stored tail.
+                    lane.seeded = false;
+                    failure = ex;
+                } finally {
+                    for (Pending pending : batch) {
+                        pending.ticket().finish(failure);
+                    }
+                }
+            }
+        } finally {
+            synchronized (lane) {
+                Pending next = lane.queue.peek();
+                if (next == null) {
+                    lane.draining = false;
+                } else {
+                    next.ticket().promote();
+                }
+            }
+        }
+    }
+
+    private void write(Lane lane, List<Pending> batch) {
+        String workspaceId = batch.get(0).event().getWorkspaceId();
+        List<WorkspaceAuditEvent> events = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            events.add(pending.event());
         }
         for (int attempt = 1; attempt <= MAX_APPEND_ATTEMPTS; attempt++) {
-            WorkspaceAuditEvent previous = auditRepository.findTopByWorkspaceIdOrderByCreatedAtDescIdDesc(request.workspaceId());
-            String prevHash = previous != null ? blankToNull(previous.getEventHash()) : null;
-            WorkspaceAuditEvent event = new WorkspaceAuditEvent();
-            event.setWorkspaceId(request.workspaceId());
-            // Truncate to milliseconds — BSON dates store only millis, so a nanosecond value
-            // here would hash differently from what a verifier reads back and would report every
-            // untampered event as edited.
-            event.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
-            event.setCategory(normalize(request.category(), "GENERAL"));
-            event.setAction(normalize(request.action(), "UNKNOWN"));
-            event.setOutcome(normalize(request.outcome(), "SUCCESS"));
-            event.setActorUserId(request.actor().getId());
-            event.setActorName(request.actor().getDisplayName());
-            event.setTargetUserId(blankToNull(request.targetUserId()));
-            event.setTeamId(blankToNull(request.teamId()));
-            event.setRoleId(blankToNull(request.roleId()));
-            event.setProjectId(blankToNull(request.projectId()));
-            event.setEntityType(blankToNull(request.entityType()));
-            event.setEntityId(blankToNull(request.entityId()));
-            event.setEntityName(blankToNull(request.entityName()));
-            event.setMessage(blankToNull(request.message()));
-            event.setPrevEventHash(prevHash);
-            event.setEventHash(hashEvent(event, prevHash));
+            if (!lane.seeded) {
+                WorkspaceAuditEvent previous = auditRepository.findTopByWorkspaceIdOrderByCreatedAtDescIdDesc(workspaceId);
+                lane.tail = previous != null ? blankToNull(previous.getEventHash()) : null;
+                lane.seeded = true;
+            }
+            String prevHash = lane.tail;
+            for (WorkspaceAuditEvent event : events) {
+                event.setPrevEventHash(prevHash);
+                event.setEventHash(hashEvent(event, prevHash));
+                prevHash = event.getEventHash();
+            }
             try {
-                mongoTemplate.insert(event);
+                // Ordered: only the first event can clash on the predecessor index (the others
+                // link to hashes that did not exist before), so a clash means nothing was stored.
+                mongoTemplate.insert(events, WorkspaceAuditEvent.class);
+                lane.tail = prevHash;
                 return;
             } catch (DuplicateKeyException ex) {
-                // Another write claimed this predecessor first. Re-read the tail and re-link
-                // rather than forking the chain. Under a low-traffic beta this is rare.
+                // Another instance appended since the tail was read. Re-read it and re-link
+                // rather than forking the chain; re-stamp so createdAt stays after that event.
+                lane.seeded = false;
+                Instant now = now();
+                for (WorkspaceAuditEvent event : events) {
+                    event.setId(null);
+                    event.setCreatedAt(now);
+                }
                 logger.debug("Audit append lost the race for workspace {} (attempt {}), retrying",
-                    request.workspaceId(), attempt);
+                    workspaceId, attempt);
             }
         }
-        logger.error("Gave up appending an audit event for workspace {} after {} attempts",
-            request.workspaceId(), MAX_APPEND_ATTEMPTS);
+        logger.error("Gave up appending {} audit events for workspace {} after {} attempts",
+            events.size(), workspaceId, MAX_APPEND_ATTEMPTS);
+    }
+
+    private WorkspaceAuditEvent newEvent(WorkspaceAuditService.WorkspaceAuditWriteRequest request) {
+        WorkspaceAuditEvent event = new WorkspaceAuditEvent();
+        event.setWorkspaceId(request.workspaceId());
+        event.setCategory(normalize(request.category(), "GENERAL"));
+        event.setAction(normalize(request.action(), "UNKNOWN"));
+        event.setOutcome(normalize(request.outcome(), "SUCCESS"));
+        event.setActorUserId(request.actor().getId());
+        event.setActorName(request.actor().getDisplayName());
+        event.setTargetUserId(blankToNull(request.targetUserId()));
+        event.setTeamId(blankToNull(request.teamId()));
+        event.setRoleId(blankToNull(request.roleId()));
+        event.setProjectId(blankToNull(request.projectId()));
+        event.setEntityType(blankToNull(request.entityType()));
+        event.setEntityId(blankToNull(request.entityId()));
+        event.setEntityName(blankToNull(request.entityName()));
+        event.setMessage(blankToNull(request.message()));
+        event.setSearchTerms(AuditSearchTerms.of(event.getCategory(), event.getAction(), event.getEntityName(),
+            event.getMessage(), event.getActorName()));
+        return event;
+    }
+
+    // Truncate to milliseconds — BSON dates store only millis, so a nanosecond value here would
+    // hash differently from what a verifier reads back and would report every untampered event
+    // as edited.
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
     }
 
     /**
@@ -153,4 +294,70 @@ public class WorkspaceAuditWriter {
     private String nonNull(String value) {
         return Objects.requireNonNullElse(value, "");
     }
+
+    /** One workspace's queue and last known chain tail. */
+    private static final class Lane {
+        // Guarded by the lane.
+        final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        boolean draining;
+        // Only touched by the current leader; the hand-off under the lane lock publishes them.
+        String tail;
+        boolean seeded;
+    }
+
+    private record Pending(WorkspaceAuditEvent event, Ticket ticket) {
+    }
+
+    /** A caller's share of the lane: how many of its events are still unwritten, and the hand-off. */
+    private static final class Ticket {
+        private int remaining;
+        private boolean promoted;
+        private RuntimeException failure;
+
+        Ticket(int events) {
+            this.remaining = events;
+        }
+
+        synchronized void finish(RuntimeException failure) {
+            remaining--;
+            if (failure != null && this.failure == null) {
+                this.failure = failure;
+            }
+            notifyAll();
+        }
+
+        synchronized void promote() {
+            promoted = true;
+            notifyAll();
+        }
+
+        synchronized boolean isDone() {
+            return remaining == 0;
+        }
+
+        /** Blocks until the events are stored ({@code false}) or the lane is handed over ({@code true}). */
+        synchronized boolean awaitTurn() {
+            boolean interrupted = false;
+            while (remaining > 0 && !promoted) {
+                try {
+                    wait();
+                } catch (InterruptedException ex) {
+                    // The lane may still be handed to us; walking away would stall the callers behind.
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            boolean lead = promoted && remaining > 0;
+            promoted = false;
+            return lead;
+        }
+
+        synchronized void rethrowFailure() {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
 }
@@ -11,11 +11,13 @@ import com.pmd.auth.dto.RegisterResponse;
 import com.pmd.auth.dto.UpdateProfileRequest;
 import com.pmd.auth.dto.UserResponse;
 import com.pmd.auth.security.JwtService;
+import com.pmd.auth.security.PrincipalCache;
 import com.pmd.auth.security.GoogleTokenVerifier;
 import com.pmd.auth.security.TurnstileService;
 import com.pmd.auth.service.EmailVerificationTokenService;
 import com.pmd.auth.service.AuthSessionService;
 import com.pmd.auth.service.LoginRateLimiterService;
+import com.pmd.auth.service.PasswordHashingService;
 import com.pmd.auth.service.PasswordPolicyService;
 import com.pmd.auth.service.AuthSecurityEventService;
 import com.pmd.notification.WelcomeEmailService;
@@ -41,7 +43,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -60,7 +61,7 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final WelcomeEmailService welcomeEmailService;
     private final EmailVerificationTokenService emailVerificationTokenService;
@@ -74,8 +75,9 @@ public class AuthController {
     private final TurnstileService turnstileService;
     private final AccountPrivacyService accountPrivacyService;
     private final AvatarCleanupService avatarCleanupService;
+    private final PrincipalCache principalCache;
 
-    public AuthController(UserService userService, PasswordEncoder passwordEncoder, JwtService jwtService,
+    public AuthController(UserService userService, PasswordHashingService passwordHashingService, JwtService jwtService,
                           WelcomeEmailService welcomeEmailService,
                           EmailVerificationTokenService emailVerificationTokenService,
                           AuthSessionService authSessionService,
@@ -87,10 +89,12 @@ public class AuthController {
                           GoogleTokenVerifier googleTokenVerifier,
                           TurnstileService turnstileService,
                           AccountPrivacyService accountPrivacyService,
-                          AvatarCleanupService avatarCleanupService) {
+                          AvatarCleanupService avatarCleanupService,
+                          PrincipalCache principalCache) {
         this.avatarCleanupService = avatarCleanupService;
+        this.principalCache = principalCache;
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
         this.welcomeEmailService = welcomeEmailService;
         this.emailVerificationTokenService = emailVerificationTokenService;
@@ -108,7 +112,7 @@ public class AuthController {
     @PostMapping("/login")
     @ResponseStatus(HttpStatus.OK)
     public LoginResponse login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest, HttpServletResponse httpResponse) {
-        String clientIp = clientMetadataService.resolveClientIp(httpRequest);
+        String clientIp = clientMetadataService.context(httpRequest).ip();
         String username = normalizeEmail(request.getUsername());
         loginRateLimiterService.checkAllowed(clientIp, username);
         turnstileService.verifyOrThrow(request.getTurnstileToken(), clientIp);
@@ -125,7 +129,7 @@ public class AuthController {
             authSecurityEventService.log("LOGIN", "DENY", user.getId(), username, "Password login unavailable (Google account)", httpRequest);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPasswordHash())) {
             loginRateLimiterService.recordFailure(clientIp, username);
             authSecurityEventService.log("LOGIN", "DENY", user.getId(), username, "Invalid password", httpRequest);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
@@ -135,6 +139,7 @@ public class AuthController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Email verification required");
         }
         loginRateLimiterService.recordSuccess(clientIp, username);
+        passwordHashingService.rehashIfNeeded(user, request.getPassword());
         authSecurityEventService.log("LOGIN", "ALLOW", user.getId(), username, "Login success", httpRequest);
         return issueSession(user, request.isRemember(), httpRequest, httpResponse);
     }
@@ -142,7 +147,7 @@ public class AuthController {
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.OK)
     public RegisterResponse register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
-        turnstileService.verifyOrThrow(request.getTurnstileToken(), clientMetadataService.resolveClientIp(httpRequest));
+        turnstileService.verifyOrThrow(request.getTurnstileToken(), clientMetadataService.context(httpRequest).ip());
         requireTermsAccepted(request.isAcceptedTerms());
         String username = normalizeEmail(request.getEmail());
         if (userService.existsByUsername(username)) {
@@ -155,7 +160,7 @@ public class AuthController {
 
         User user = new User();
         user.setUsername(username);
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHashingService.encode(request.getPassword()));
         user.setEmail(username);
         user.setFirstName(request.getFirstName() != null ? request.getFirstName().trim() : null);
         user.setLastName(request.getLastName() != null ? request.getLastName().trim() : null);
@@ -294,6 +299,7 @@ public class AuthController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
         authSessionService.revokeAllByUserId(principal.getId());
+        principalCache.invalidate(principal.getId());
         httpResponse.addHeader("Set-Cookie", authSessionService.buildClearRefreshCookie(httpRequest.isSecure()));
         httpResponse.addHeader("Set-Cookie", authSessionService.buildClearCsrfCookie(httpRequest.isSecure()));
         authSecurityEventService.log("LOGOUT_ALL", "ALLOW", principal.getId(), principal.getUsername(), "All sessions revoked", httpRequest);
@@ -32,6 +32,23 @@ public class AuthSession {
 
     private String ipAddress;
 
+    public AuthSession() {
+    }
+
+    /** Field-by-field copy; used to hand out cached sessions without sharing them. */
+    public AuthSession(AuthSession other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.tokenHash = other.tokenHash;
+        this.remember = other.remember;
+        this.createdAt = other.createdAt;
+        this.expiresAt = other.expiresAt;
+        this.lastUsedAt = other.lastUsedAt;
+        this.revokedAt = other.revokedAt;
+        this.userAgent = other.userAgent;
+        this.ipAddress = other.ipAddress;
+    }
+
     public String getId() {
         return id;
     }
@@ -2,7 +2,6 @@ package com.pmd.auth.repository;
 
 import com.pmd.auth.model.AuthSession;
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
@@ -10,8 +9,6 @@ public interface AuthSessionRepository extends MongoRepository<AuthSession, Stri
 
     Optional<AuthSession> findByTokenHash(String tokenHash);
 
-    List<AuthSession> findByUserIdAndRevokedAtIsNull(String userId);
-
     void deleteByExpiresAtBefore(Instant cutoff);
 
     void deleteByRevokedAtBefore(Instant cutoff);
@@ -1,7 +1,7 @@
 package com.pmd.auth.security;
 
+import com.pmd.security.RequestClientContext;
 import com.pmd.user.model.User;
-import com.pmd.user.repository.UserRepository;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -20,11 +20,11 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService, PrincipalCache principalCache) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -52,13 +52,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             Claims claims = jwtService.parseToken(token);
             String userId = claims.getSubject();
             if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findById(userId).orElse(null);
+                User user = principalCache.get(userId);
                 if (user != null) {
                     UserPrincipal principal = new UserPrincipal(user.getId(), user.getUsername(), user.getDisplayName());
                     UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    RequestClientContext client = RequestClientContext.current(request);
+                    if (client != null) {
+                        client.authenticatedAs(user.getId());
+                    }
                 }
             }
         } catch (Exception ignored) {
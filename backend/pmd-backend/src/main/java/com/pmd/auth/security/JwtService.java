@@ -1,9 +1,17 @@
 package com.pmd.auth.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
@@ -11,15 +19,38 @@ import javax.crypto.SecretKey;
 import org.springframework.stereotype.Service;
 import com.pmd.config.JwtProperties;
 
+/**
+ * Issues and verifies access tokens.
+ *
+ * <p>Verified tokens are remembered by their SHA-256 digest (the raw bearer token is never kept)
+ * until the token's own {@code exp}, so the same token sent again skips the HMAC check and claim
+ * decoding. This does not extend a token's life: an entry past {@code exp} is dropped and the
+ * token goes through the parser again, which rejects it. Access tokens are not revocable today
+ * either, so remembering a verification changes nothing a logout could have undone.
+ */
 @Service
 public class JwtService {
 
+    private record Verified(Claims claims, long expiresAtMillis) {
+    }
+
     private final SecretKey secretKey;
     private final long expirationSeconds;
+    private final JwtParser parser;
+    private final Cache<HashCode, Verified> verified;
 
-    public JwtService(JwtProperties jwtProperties) {
+    public JwtService(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
         this.secretKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
         this.expirationSeconds = jwtProperties.getExpirationSeconds();
+        // Immutable and thread-safe once built.
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        // Per-entry expiry is checked on read; expireAfterWrite only bounds entries nobody asks for again.
+        this.verified = CacheBuilder.newBuilder()
+            .maximumSize(jwtProperties.getVerifiedCacheMaxEntries())
+            .expireAfterWrite(Duration.ofSeconds(expirationSeconds))
+            .recordStats()
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, verified, "pmd.jwt.verified");
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
@@ -31,10 +62,19 @@ public class JwtService {
     }
 
     public Claims parseToken(String token) {
-        return Jwts.parser()
-            .verifyWith(secretKey)
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+        HashCode digest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        Verified hit = verified.getIfPresent(digest);
+        if (hit != null) {
+            if (System.currentTimeMillis() < hit.expiresAtMillis()) {
+                return hit.claims();
+            }
+            verified.invalidate(digest);
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verified.put(digest, new Verified(claims, expiration.getTime()));
+        }
+        return claims;
     }
 }
@@ -0,0 +1,88 @@
+package com.pmd.auth.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Short-lived, bounded cache of {@link User} documents keyed by id, in front of the lookup
+ * {@link JwtAuthenticationFilter} does on every authenticated call and the requester lookup
+ * most controllers repeat right after it.
+ *
+ * <p>The cached document itself is never handed out. Each HTTP request gets one copy of it,
+ * kept as a request attribute, and every caller in that request receives that same instance:
+ * the authenticated principal, the controller's requester lookup and any service after them.
+ * Treat it as read-only unless the request is about to save it: an edit is seen by everything
+ * after it in the same request, though never by the cache or by other requests.
+ *
+ * <p>Writes through {@code UserService.save}, admin-flag changes, account erasure and
+ * logout-all call {@link #invalidate}. The TTL bounds how long a write that bypasses those
+ * (another instance, a manual database edit) keeps serving the old document.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalCache.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    public PrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                          @Value("${pmd.auth.principal-cache.max-entries:10000}") long maxEntries,
+                          @Value("${pmd.auth.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "pmd.auth.principal");
+    }
+
+    /** The user with this id, or {@code null} when there is none. Missing users are not cached. */
+    public User get(String userId) {
+        if (userId == null || userId.isBlank()) {
+            return null;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+            && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User current
+            && userId.equals(current.getId())) {
+            return current;
+        }
+        User cached = cache.getIfPresent(userId);
+        if (cached == null) {
+            cached = userRepository.findById(userId).orElse(null);
+            if (cached == null) {
+                return null;
+            }
+            cache.put(userId, cached);
+        }
+        User snapshot = new User(cached);
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) == null) {
+            request.setAttribute(REQUEST_ATTRIBUTE, snapshot, RequestAttributes.SCOPE_REQUEST);
+        }
+        return snapshot;
+    }
+
+    public void invalidate(String userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+            && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User current
+            && userId.equals(current.getId())) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -123,8 +123,12 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Raising the strength takes effect for existing users on their next sign-in, when
+     * {@code PasswordHashingService} rehashes them.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${pmd.security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
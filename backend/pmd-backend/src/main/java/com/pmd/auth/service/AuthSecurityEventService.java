@@ -3,6 +3,7 @@ package com.pmd.auth.service;
 import com.pmd.auth.model.AuthSecurityEvent;
 import com.pmd.auth.repository.AuthSecurityEventRepository;
 import com.pmd.security.ClientMetadataService;
+import com.pmd.security.RequestClientContext;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import org.springframework.stereotype.Service;
@@ -28,10 +29,9 @@ public class AuthSecurityEventService {
         event.setUsername(username);
         event.setMessage(message);
         if (request != null) {
-            String rawIp = clientMetadataService.resolveClientIp(request);
-            String ua = request.getHeader("User-Agent");
-            event.setIpAddress(clientMetadataService.sanitizeIpForStorage(rawIp));
-            event.setUserAgent(clientMetadataService.sanitizeUserAgentForStorage(ua));
+            RequestClientContext client = clientMetadataService.context(request);
+            event.setIpAddress(client.ipForStorage());
+            event.setUserAgent(client.userAgentForStorage());
         }
         repository.save(event);
     }
@@ -1,25 +1,46 @@
 package com.pmd.auth.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.pmd.auth.model.AuthSession;
 import com.pmd.auth.repository.AuthSessionRepository;
 import com.pmd.config.AuthSessionProperties;
 import com.pmd.security.ClientMetadataService;
+import com.pmd.security.RequestClientContext;
 import com.pmd.user.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
-import java.util.Comparator;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Refresh-token sessions. Active sessions are cached by token hash so refresh and logout do not
+ * query {@code auth_sessions} each time; every local revocation invalidates its entry, and the
+ * cache TTL bounds how long a revocation made on another instance goes unseen. Rotation revokes
+ * with a conditional update, so a stale entry can still not be rotated twice.
+ *
+ * <p>Each successful lookup is a use of the session: {@code lastUsedAt} slides through
+ * {@link SessionActivityBuffer} rather than a write per request.
+ */
 @Service
 public class AuthSessionService {
 
@@ -29,18 +50,31 @@ public class AuthSessionService {
     private final AuthSessionRepository authSessionRepository;
     private final AuthSessionProperties properties;
     private final ClientMetadataService clientMetadataService;
+    private final MongoTemplate mongoTemplate;
+    private final SessionActivityBuffer sessionActivityBuffer;
+    private final Cache<String, AuthSession> sessionCache;
     private final java.security.SecureRandom secureRandom = new java.security.SecureRandom();
 
     public AuthSessionService(AuthSessionRepository authSessionRepository,
                               AuthSessionProperties properties,
-                              ClientMetadataService clientMetadataService) {
+                              ClientMetadataService clientMetadataService,
+                              MongoTemplate mongoTemplate,
+                              SessionActivityBuffer sessionActivityBuffer,
+                              MeterRegistry meterRegistry) {
         this.authSessionRepository = authSessionRepository;
         this.properties = properties;
         this.clientMetadataService = clientMetadataService;
+        this.mongoTemplate = mongoTemplate;
+        this.sessionActivityBuffer = sessionActivityBuffer;
+        this.sessionCache = CacheBuilder.newBuilder()
+            .maximumSize(properties.getCacheMaxEntries())
+            .expireAfterWrite(Duration.ofSeconds(properties.getCacheTtlSeconds()))
+            .recordStats()
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, sessionCache, "pmd.auth.sessions");
     }
 
     public IssuedSession createSession(User user, boolean remember, HttpServletRequest request) {
-        cleanupExpired();
         enforceSessionLimit(user.getId());
         String rawToken = generateToken();
         Instant now = Instant.now();
@@ -53,10 +87,9 @@ public class AuthSessionService {
         session.setCreatedAt(now);
         session.setLastUsedAt(now);
         session.setExpiresAt(expiresAt);
-        String rawIp = clientMetadataService.resolveClientIp(request);
-        String rawUserAgent = request != null ? request.getHeader("User-Agent") : null;
-        session.setUserAgent(clientMetadataService.sanitizeUserAgentForStorage(rawUserAgent));
-        session.setIpAddress(clientMetadataService.sanitizeIpForStorage(rawIp));
+        RequestClientContext client = clientMetadataService.context(request);
+        session.setUserAgent(client.userAgentForStorage());
+        session.setIpAddress(client.ipForStorage());
         authSessionRepository.save(session);
         return new IssuedSession(rawToken, expiresAt, remember);
     }
@@ -65,48 +98,54 @@ public class AuthSessionService {
         if (rawToken == null || rawToken.isBlank()) {
             return Optional.empty();
         }
-        Optional<AuthSession> session = authSessionRepository.findByTokenHash(hashToken(rawToken));
-        if (session.isEmpty()) {
-            return Optional.empty();
+        String tokenHash = hashToken(rawToken);
+        AuthSession current = sessionCache.getIfPresent(tokenHash);
+        boolean cached = current != null;
+        if (!cached) {
+            current = authSessionRepository.findByTokenHash(tokenHash).orElse(null);
+            if (current == null) {
+                return Optional.empty();
+            }
         }
-        AuthSession current = session.get();
         Instant now = Instant.now();
         if (current.getRevokedAt() != null || current.getExpiresAt() == null || current.getExpiresAt().isBefore(now)) {
+            sessionCache.invalidate(tokenHash);
             return Optional.empty();
         }
-        if (current.getLastUsedAt() != null
-            && current.getLastUsedAt().plusSeconds(properties.getInactivityTtlSeconds()).isBefore(now)) {
+        Instant lastUsedAt = latest(current.getLastUsedAt(), sessionActivityBuffer.lastTouch(current.getId()));
+        if (lastUsedAt != null && lastUsedAt.plusSeconds(properties.getInactivityTtlSeconds()).isBefore(now)) {
+            sessionCache.invalidate(tokenHash);
             return Optional.empty();
         }
-        return Optional.of(current);
+        sessionActivityBuffer.touch(current.getId(), now);
+        current.setLastUsedAt(now);
+        if (!cached) {
+            // Not re-put on hits: the entry must still expire so remote revocations are seen.
+            sessionCache.put(tokenHash, current);
+        }
+        return Optional.of(new AuthSession(current));
     }
 
     public IssuedSession rotateSession(AuthSession current, HttpServletRequest request) {
-        current.setRevokedAt(Instant.now());
-        authSessionRepository.save(current);
+        if (!revoke(current, Instant.now())) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Session expired");
+        }
         User pseudo = new User();
         pseudo.setId(current.getUserId());
         return createSession(pseudo, current.isRemember(), request);
     }
 
     public void revokeByRawToken(String rawToken) {
-        findActiveSessionByRawToken(rawToken).ifPresent(session -> {
-            session.setRevokedAt(Instant.now());
-            authSessionRepository.save(session);
-        });
+        findActiveSessionByRawToken(rawToken).ifPresent(session -> revoke(session, Instant.now()));
     }
 
     public void revokeAllByUserId(String userId) {
-        List<AuthSession> sessions = authSessionRepository.findByUserIdAndRevokedAtIsNull(userId);
-        Instant now = Instant.now();
-        boolean changed = false;
-        for (AuthSession session : sessions) {
-            session.setRevokedAt(now);
-            changed = true;
-        }
-        if (changed) {
-            authSessionRepository.saveAll(sessions);
-        }
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("userId").is(userId).and("revokedAt").is(null)),
+            new Update().set("revokedAt", Instant.now()),
+            AuthSession.class
+        );
+        sessionCache.asMap().values().removeIf(session -> userId.equals(session.getUserId()));
     }
 
     public String buildRefreshCookie(IssuedSession issued, boolean secureRequest) {
@@ -177,25 +216,55 @@ public class AuthSessionService {
         return properties.isRequireVerifiedEmail();
     }
 
+    /**
+     * Makes room for one more session: everything past the newest {@code maxSessionsPerUser - 1}
+     * live sessions is revoked. One read of ids (served by {@code idx_auth_sessions_user_revoked})
+     * and one {@code updateMulti}, however many sessions overflow.
+     */
     private void enforceSessionLimit(String userId) {
-        List<AuthSession> activeSessions = authSessionRepository.findByUserIdAndRevokedAtIsNull(userId).stream()
-            .filter(session -> session.getExpiresAt() != null && session.getExpiresAt().isAfter(Instant.now()))
-            .sorted(Comparator.comparing(AuthSession::getCreatedAt))
-            .toList();
-        int overflow = activeSessions.size() - properties.getMaxSessionsPerUser() + 1;
-        if (overflow <= 0) {
+        Instant now = Instant.now();
+        Query overflowQuery = Query.query(Criteria.where("userId").is(userId)
+                .and("revokedAt").is(null)
+                .and("expiresAt").gt(now))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+            .skip(Math.max(0, properties.getMaxSessionsPerUser() - 1));
+        overflowQuery.fields().include("_id", "tokenHash");
+        List<AuthSession> overflow = mongoTemplate.find(overflowQuery, AuthSession.class);
+        if (overflow.isEmpty()) {
             return;
         }
-        Instant now = Instant.now();
-        for (int i = 0; i < overflow; i++) {
-            AuthSession session = activeSessions.get(i);
-            session.setRevokedAt(now);
-            authSessionRepository.save(session);
+        List<String> ids = overflow.stream().map(AuthSession::getId).toList();
+        mongoTemplate.updateMulti(
+            Query.query(Criteria.where("_id").in(ids).and("revokedAt").is(null)),
+            new Update().set("revokedAt", now),
+            AuthSession.class
+        );
+        for (AuthSession session : overflow) {
+            sessionCache.invalidate(session.getTokenHash());
+            sessionActivityBuffer.forget(session.getId());
         }
     }
 
-    private void cleanupExpired() {
-        authSessionRepository.deleteByExpiresAtBefore(Instant.now().minusSeconds(60));
+    /**
+     * Marks the session revoked unless it already is; {@code false} when another request (or
+     * instance) got there first.
+     */
+    private boolean revoke(AuthSession session, Instant now) {
+        sessionCache.invalidate(session.getTokenHash());
+        sessionActivityBuffer.forget(session.getId());
+        session.setRevokedAt(now);
+        return mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(session.getId()).and("revokedAt").is(null)),
+            new Update().set("revokedAt", now),
+            AuthSession.class
+        ).getModifiedCount() > 0;
+    }
+
+    private static Instant latest(Instant stored, Instant touched) {
+        if (stored == null) {
+            return touched;
+        }
+        return touched != null && touched.isAfter(stored) ? touched : stored;
     }
 
     private String generateToken() {
@@ -0,0 +1,112 @@
+package com.pmd.auth.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter of breached passwords, read straight from a memory-mapped file built offline by
+ * {@link BreachedPasswordFilterBuilder}. The bits stay in the page cache rather than the heap,
+ * so a list of millions of passwords costs a few megabytes of mapped file and nothing at
+ * startup beyond reading the header. A lookup hashes the characters in place and reads
+ * {@code k} longs; it allocates nothing.
+ *
+ * <p>As with any Bloom filter a password that is not on the list is occasionally reported as
+ * breached (the builder picks the rate, 1 in 1000 by default); a listed one never slips
+ * through. Matching ignores case, like the short built-in list in {@link PasswordPolicyService}.
+ *
+ * <p>File layout, big-endian: magic {@code PMDB}, format version, probe count {@code k}, a
+ * reserved int, the bit count (a power of two), then the bits as longs.
+ */
+@Component
+public class BreachedPasswordFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BreachedPasswordFilter.class);
+
+    static final int MAGIC = 0x504D4442;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private final MappedByteBuffer bits;
+    private final long mask;
+    private final int probes;
+
+    public BreachedPasswordFilter(@Value("${pmd.security.password.breached-filter:}") String location) {
+        if (location == null || location.isBlank()) {
+            this.bits = null;
+            this.mask = 0;
+            this.probes = 0;
+            logger.info("No breached-password filter configured; only the built-in common list applies");
+            return;
+        }
+        Path path = Path.of(location.trim());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Breached-password filter " + path + " has an invalid size");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            long bitCount = mapped.getLong(16);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION
+                || Long.bitCount(bitCount) != 1 || HEADER_BYTES + bitCount / 8 != size) {
+                throw new IllegalStateException("Not a breached-password filter: " + path);
+            }
+            this.bits = mapped;
+            this.mask = bitCount - 1;
+            this.probes = mapped.getInt(8);
+            logger.info("Breached-password filter mapped from {} ({} KiB, {} probes)", path, size / 1024, probes);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot read breached-password filter " + path, ex);
+        }
+    }
+
+    public boolean isEnabled() {
+        return bits != null;
+    }
+
+    public boolean contains(CharSequence password) {
+        if (bits == null || password == null) {
+            return false;
+        }
+        long h1 = hash(password);
+        long h2 = probeStep(h1);
+        for (int i = 0; i < probes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((bits.getLong(HEADER_BYTES + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Shared with the builder: both sides must agree bit for bit. */
+    static long hash(CharSequence password) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < password.length(); i++) {
+            h = Long.rotateLeft((h ^ Character.toLowerCase(password.charAt(i))) * 0xBF58476D1CE4E5B9L, 31);
+        }
+        return mix(h ^ password.length());
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** Second hash for double hashing; odd so that probes never repeat a bit. */
+    static long probeStep(long h1) {
+        return mix(h1 ^ 0x5DEECE66DL) | 1;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pmd.auth.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Offline tool that turns a plain-text password list (one per line, UTF-8) into the file
+ * {@link BreachedPasswordFilter} maps:
+ *
+ * <pre>
+ *   java -cp target/classes com.pmd.auth.service.BreachedPasswordFilterBuilder \
+ *       breached.txt breached.bloom [false-positive-rate]
+ * </pre>
+ *
+ * <p>The list is read twice, once to size the filter and once to fill it, so it never has to
+ * fit in memory; the bit array does, at 1.8 to 3.6 bytes per password for the default rate of
+ * 0.001 (the size is rounded up to a power of two). Undecodable bytes are replaced rather than
+ * failing the build: those lines are rarely passwords anyone can type anyway.
+ */
+public final class BreachedPasswordFilterBuilder {
+
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+    private static final long MAX_BITS = 1L << 33;
+
+    private BreachedPasswordFilterBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("usage: BreachedPasswordFilterBuilder <passwords.txt> <output.bloom> [false-positive-rate]");
+            System.exit(2);
+        }
+        double rate = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+        long count = build(Path.of(args[0]), Path.of(args[1]), rate);
+        System.out.printf("%d passwords written to %s (%d bytes)%n", count, args[1], Files.size(Path.of(args[1])));
+    }
+
+    /** Builds the filter file and returns how many passwords went into it. */
+    static long build(Path input, Path output, double falsePositiveRate) throws IOException {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false-positive rate must be between 0 and 1");
+        }
+        long entries = 0;
+        try (BufferedReader reader = open(input)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank()) {
+                    entries++;
+                }
+            }
+        }
+        long bitCount = bitCount(Math.max(1, entries), falsePositiveRate);
+        int probes = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / Math.max(1, entries) * Math.log(2))));
+        long[] bits = new long[(int) (bitCount >>> 6)];
+        long mask = bitCount - 1;
+        try (BufferedReader reader = open(input)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                long h1 = BreachedPasswordFilter.hash(line);
+                long h2 = BreachedPasswordFilter.probeStep(h1);
+                for (int i = 0; i < probes; i++) {
+                    long bit = (h1 + i * h2) & mask;
+                    bits[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+        try (OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(BreachedPasswordFilter.MAGIC);
+            out.writeInt(BreachedPasswordFilter.VERSION);
+            out.writeInt(probes);
+            out.writeInt(0);
+            out.writeLong(bitCount);
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+        }
+        return entries;
+    }
+
+    /** Optimal bit count for the rate, rounded up to a power of two so probes can mask. */
+    static long bitCount(long entries, double falsePositiveRate) {
+        double optimal = -entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long bits = Long.highestOneBit(Math.max(64, (long) Math.ceil(optimal)) - 1) << 1;
+        if (bits > MAX_BITS) {
+            throw new IllegalArgumentException("Password list too large for one filter file");
+        }
+        return bits;
+    }
+
+    private static BufferedReader open(Path input) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(input),
+            StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)), 1 << 16);
+    }
+}
@@ -1,12 +1,8 @@
 package com.pmd.auth.service;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import java.time.Instant;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import com.pmd.security.ratelimit.RateLimiter;
+import com.pmd.security.ratelimit.RateLimiters;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -15,87 +11,41 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 public class LoginRateLimiterService {
 
-    private final int maxAttemptsPerIpWindow;
-    private final int maxAttemptsPerUserWindow;
-    private final long lockMinutes;
+    private final Duration lockDuration;
 
-    private final LoadingCache<String, AtomicInteger> attemptsByIp;
-    private final LoadingCache<String, AtomicInteger> attemptsByUser;
-    private final LoadingCache<String, Instant> lockByIp;
-    private final LoadingCache<String, Instant> lockByUser;
+    private final RateLimiter attemptsByIp;
+    private final RateLimiter attemptsByUser;
 
     public LoginRateLimiterService(
+        RateLimiters rateLimiters,
         @Value("${pmd.security.auth-rate-limit.ip-per-10-min:40}") int maxAttemptsPerIpWindow,
         @Value("${pmd.security.auth-rate-limit.user-per-10-min:12}") int maxAttemptsPerUserWindow,
-        @Value("${pmd.security.auth-rate-limit.lock-minutes:15}") long lockMinutes
+        @Value("${pmd.security.auth-rate-limit.lock-minutes:15}") long lockMinutes,
+        @Value("${pmd.security.auth-rate-limit.max-keys:16384}") int maxKeys
     ) {
-        this.maxAttemptsPerIpWindow = maxAttemptsPerIpWindow;
-        this.maxAttemptsPerUserWindow = maxAttemptsPerUserWindow;
-        this.lockMinutes = lockMinutes;
-        this.attemptsByIp = CacheBuilder.newBuilder()
-            .expireAfterWrite(10, TimeUnit.MINUTES)
-            .build(new CacheLoader<>() {
-                @Override
-                public AtomicInteger load(String key) {
-                    return new AtomicInteger(0);
-                }
-            });
-        this.attemptsByUser = CacheBuilder.newBuilder()
-            .expireAfterWrite(10, TimeUnit.MINUTES)
-            .build(new CacheLoader<>() {
-                @Override
-                public AtomicInteger load(String key) {
-                    return new AtomicInteger(0);
-                }
-            });
-        this.lockByIp = CacheBuilder.newBuilder()
-            .expireAfterWrite(lockMinutes, TimeUnit.MINUTES)
-            .build(new CacheLoader<>() {
-                @Override
-                public Instant load(String key) {
-                    return Instant.EPOCH;
-                }
-            });
-        this.lockByUser = CacheBuilder.newBuilder()
-            .expireAfterWrite(lockMinutes, TimeUnit.MINUTES)
-            .build(new CacheLoader<>() {
-                @Override
-                public Instant load(String key) {
-                    return Instant.EPOCH;
-                }
-            });
+        this.lockDuration = Duration.ofMinutes(lockMinutes);
+        this.attemptsByIp = rateLimiters.create("login-ip", maxAttemptsPerIpWindow, Duration.ofMinutes(10), maxKeys);
+        this.attemptsByUser = rateLimiters.create("login-user", maxAttemptsPerUserWindow, Duration.ofMinutes(10), maxKeys);
     }
 
     public void checkAllowed(String clientIp, String username) {
-        Instant now = Instant.now();
-        try {
-            if (lockByIp.get(clientIp).isAfter(now) || lockByUser.get(username).isAfter(now)) {
-                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Try later.");
-            }
-        } catch (ExecutionException ex) {
+        if (attemptsByIp.isBlocked(clientIp) || attemptsByUser.isBlocked(username)) {
             throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts. Try later.");
         }
     }
 
     public void recordFailure(String clientIp, String username) {
-        try {
-            int ipAttempts = attemptsByIp.get(clientIp).incrementAndGet();
-            int userAttempts = attemptsByUser.get(username).incrementAndGet();
-            Instant lockedUntil = Instant.now().plusSeconds(lockMinutes * 60);
-            if (ipAttempts >= maxAttemptsPerIpWindow) {
-                lockByIp.put(clientIp, lockedUntil);
-            }
-            if (userAttempts >= maxAttemptsPerUserWindow) {
-                lockByUser.put(username, lockedUntil);
-            }
-        } catch (ExecutionException ignored) {
+        // Lock on the attempt that reaches the limit, not the one after it.
+        if (attemptsByIp.tryAcquire(clientIp) <= 0) {
+            attemptsByIp.block(clientIp, lockDuration);
+        }
+        if (attemptsByUser.tryAcquire(username) <= 0) {
+            attemptsByUser.block(username, lockDuration);
         }
     }
 
     public void recordSuccess(String clientIp, String username) {
-        attemptsByIp.invalidate(clientIp);
-        attemptsByUser.invalidate(username);
-        lockByIp.invalidate(clientIp);
-        lockByUser.invalidate(username);
+        attemptsByIp.reset(clientIp);
+        attemptsByUser.reset(username);
     }
 }
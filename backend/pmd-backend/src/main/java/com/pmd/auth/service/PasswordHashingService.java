@@ -0,0 +1,206 @@
+package com.pmd.auth.service;
+
+import com.pmd.auth.security.PrincipalCache;
+import com.pmd.user.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs password hashing and verification for request handlers on a small dedicated pool, so a
+ * burst of sign-ins can use at most {@code threads} cores instead of every servlet thread.
+ *
+ * <p>Work waits in a bounded queue, sign-in checks ahead of new hashes and background rehashes.
+ * When the queue is full the caller gets a 503 at once rather than joining a line it would time
+ * out in anyway. A successful sign-in whose stored hash is weaker than the configured encoder
+ * gets a new hash in the background, written only if the stored hash has not changed meanwhile.
+ *
+ * <p>Startup seeding still calls the encoder directly; this is for the request path.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    enum Priority { VERIFY, ENCODE, REHASH }
+
+    private final PasswordEncoder passwordEncoder;
+    private final MongoTemplate mongoTemplate;
+    private final PrincipalCache principalCache;
+    private final int queueLimit;
+    private final long waitTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Timer verifyTimer;
+    private final Timer encodeTimer;
+    private final Counter rejections;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MongoTemplate mongoTemplate,
+                                  PrincipalCache principalCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${pmd.security.password.hashing-threads:2}") int threads,
+                                  @Value("${pmd.security.password.queue-limit:32}") int queueLimit,
+                                  @Value("${pmd.security.password.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.mongoTemplate = mongoTemplate;
+        this.principalCache = principalCache;
+        this.queueLimit = queueLimit;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "pmd-password-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.verifyTimer = Timer.builder("pmd.password.hash")
+            .description("Time spent hashing passwords, queue wait excluded")
+            .tag("operation", "verify")
+            .register(meterRegistry);
+        this.encodeTimer = Timer.builder("pmd.password.hash")
+            .description("Time spent hashing passwords, queue wait excluded")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        this.rejections = Counter.builder("pmd.password.rejections")
+            .description("Hashing requests turned away because the queue was full")
+            .register(meterRegistry);
+        Gauge.builder("pmd.password.queue", queued, AtomicInteger::get)
+            .description("Hashing requests waiting for a thread")
+            .register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        return await(submit(Priority.VERIFY, verifyTimer, () -> passwordEncoder.matches(rawPassword, passwordHash)));
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(Priority.ENCODE, encodeTimer, () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * After a successful sign-in: replaces the user's hash in the background when the encoder
+     * would produce a stronger one. Skipped (and retried on a later sign-in) when busy.
+     */
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPasswordHash();
+        if (currentHash == null || !passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+        try {
+            submit(Priority.REHASH, encodeTimer, () -> {
+                String upgraded = passwordEncoder.encode(rawPassword);
+                boolean updated = mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(user.getId()).and("passwordHash").is(currentHash)),
+                    new Update().set("passwordHash", upgraded),
+                    User.class
+                ).getModifiedCount() > 0;
+                if (updated) {
+                    principalCache.invalidate(user.getId());
+                }
+                return updated;
+            });
+        } catch (ResponseStatusException ex) {
+            logger.debug("Password rehash for user {} deferred: hashing queue full", user.getId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> HashTask<T> submit(Priority priority, Timer timer, Callable<T> work) {
+        if (queued.incrementAndGet() > queueLimit) {
+            queued.decrementAndGet();
+            rejections.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-ins in progress, try again shortly");
+        }
+        HashTask<T> task = new HashTask<>(priority, sequence.incrementAndGet(), () -> timer.recordCallable(work));
+        executor.execute(task);
+        return task;
+    }
+
+    private <T> T await(HashTask<T> task) {
+        try {
+            return task.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.cancel(false);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sign-in interrupted");
+        } catch (TimeoutException ex) {
+            task.cancel(false);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-ins in progress, try again shortly");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    /** Ordered by priority, then by arrival; counts itself out of the queue when it starts. */
+    private final class HashTask<T> extends FutureTask<T> implements Comparable<HashTask<?>> {
+
+        private final Priority priority;
+        private final long order;
+        private boolean dequeued;
+
+        HashTask(Priority priority, long order, Callable<T> work) {
+            super(work);
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            leaveQueue();
+            super.run();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && executor.remove(this)) {
+                leaveQueue();
+            }
+            return cancelled;
+        }
+
+        private synchronized void leaveQueue() {
+            if (!dequeued) {
+                dequeued = true;
+                queued.decrementAndGet();
+            }
+        }
+
+        @Override
+        public int compareTo(HashTask<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
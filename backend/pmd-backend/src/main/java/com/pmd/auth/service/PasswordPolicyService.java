@@ -18,6 +18,12 @@ public class PasswordPolicyService {
         "admin", "admin123", "letmein", "welcome", "iloveyou", "111111", "000000"
     );
 
+    private final BreachedPasswordFilter breachedPasswordFilter;
+
+    public PasswordPolicyService(BreachedPasswordFilter breachedPasswordFilter) {
+        this.breachedPasswordFilter = breachedPasswordFilter;
+    }
+
     public void validateForRegister(String password) {
         if (password == null || password.length() < 10) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password must be at least 10 characters.");
@@ -38,5 +44,9 @@ public class PasswordPolicyService {
         if (COMMON_PASSWORDS.contains(lowered)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password is too common.");
         }
+        if (breachedPasswordFilter.contains(password)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Password appears in known data breaches. Choose a different one.");
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.pmd.auth.service;
+
+import com.pmd.auth.model.AuthSession;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind for {@code auth_sessions.lastUsedAt}. Each use of a session records a touch here;
+ * touches to one session coalesce to the latest, and {@link #flush} writes all of them as one
+ * unordered bulk write. {@code $max} keeps an older touch (from a slower instance) from moving
+ * the time back.
+ *
+ * <p>Until a flush, {@link #lastTouch} is how this instance knows a session was used recently.
+ * A crash loses at most one flush interval of touches, which only makes a session look idle a
+ * little early.
+ */
+@Component
+public class SessionActivityBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionActivityBuffer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ConcurrentHashMap<String, Instant> pending = new ConcurrentHashMap<>();
+
+    public SessionActivityBuffer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void touch(String sessionId, Instant at) {
+        pending.merge(sessionId, at, (previous, next) -> next.isAfter(previous) ? next : previous);
+    }
+
+    /** The unflushed touch for this session, or {@code null}. */
+    public Instant lastTouch(String sessionId) {
+        return pending.get(sessionId);
+    }
+
+    /** Drops a pending touch, e.g. when the session has just been revoked. */
+    public void forget(String sessionId) {
+        pending.remove(sessionId);
+    }
+
+    @Scheduled(fixedDelayString = "${pmd.auth.session.activity-flush-millis:5000}")
+    @PreDestroy
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Instant> batch = new HashMap<>();
+        for (String sessionId : pending.keySet()) {
+            Instant at = pending.remove(sessionId);
+            if (at != null) {
+                batch.put(sessionId, at);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AuthSession.class);
+        batch.forEach((sessionId, at) -> bulk.updateOne(
+            Query.query(Criteria.where("_id").is(sessionId)),
+            new Update().max("lastUsedAt", at)));
+        try {
+            bulk.execute();
+        } catch (RuntimeException ex) {
+            batch.forEach(this::touch);
+            logger.warn("Session activity flush failed for {} sessions: {}", batch.size(), ex.getMessage());
+        }
+    }
+}
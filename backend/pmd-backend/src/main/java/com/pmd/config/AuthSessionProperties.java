@@ -37,6 +37,18 @@ public class AuthSessionProperties {
 
     private boolean requireVerifiedEmail = false;
 
+    /** Active sessions kept in memory by token hash; 0 turns the cache off. */
+    @Min(0)
+    private long cacheMaxEntries = 10_000;
+
+    /** How long another instance's revocation can go unseen by this one's cache. */
+    @Min(1)
+    private long cacheTtlSeconds = 30;
+
+    /** How often buffered lastUsedAt touches are written back. */
+    @Min(100)
+    private long activityFlushMillis = 5_000;
+
     public String getCookieName() {
         return cookieName;
     }
@@ -116,4 +128,28 @@ public class AuthSessionProperties {
     public void setRevokedRetentionSeconds(long revokedRetentionSeconds) {
         this.revokedRetentionSeconds = revokedRetentionSeconds;
     }
+
+    public long getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(long cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public void setCacheTtlSeconds(long cacheTtlSeconds) {
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+
+    public long getActivityFlushMillis() {
+        return activityFlushMillis;
+    }
+
+    public void setActivityFlushMillis(long activityFlushMillis) {
+        this.activityFlushMillis = activityFlushMillis;
+    }
 }
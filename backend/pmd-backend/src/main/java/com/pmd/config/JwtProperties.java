@@ -17,6 +17,10 @@ public class JwtProperties {
     @Min(value = 60, message = "pmd.jwt.expirationSeconds must be >= 60")
     private long expirationSeconds = 86400;
 
+    /** Verified access tokens remembered until their expiry; 0 verifies every request. */
+    @Min(value = 0, message = "pmd.jwt.verifiedCacheMaxEntries must be >= 0")
+    private long verifiedCacheMaxEntries = 10000;
+
     public String getSecret() {
         return secret;
     }
@@ -32,4 +36,12 @@ public class JwtProperties {
     public void setExpirationSeconds(long expirationSeconds) {
         this.expirationSeconds = expirationSeconds;
     }
+
+    public long getVerifiedCacheMaxEntries() {
+        return verifiedCacheMaxEntries;
+    }
+
+    public void setVerifiedCacheMaxEntries(long verifiedCacheMaxEntries) {
+        this.verifiedCacheMaxEntries = verifiedCacheMaxEntries;
+    }
 }
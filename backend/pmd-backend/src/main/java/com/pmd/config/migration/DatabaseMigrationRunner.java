@@ -1,16 +1,27 @@
 package com.pmd.config.migration;
 
+import com.pmd.audit.service.AuditSearchTerms;
 import com.pmd.security.ClientMetadataService;
+import com.pmd.security.ratelimit.MongoRateLimitStore;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.index.IndexOperations;
@@ -20,10 +31,15 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class DatabaseMigrationRunner implements ApplicationRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseMigrationRunner.class);
 
+    static final String EMBEDDED_COMMENTS_MIGRATION = "2026-10-17-project-embedded-comments-v1";
+    static final int EMBEDDED_COMMENTS_BATCH_SIZE = 200;
+    static final int AUDIT_SEARCH_TERMS_BATCH_SIZE = 1000;
+
     private final MigrationStateRepository migrationStateRepository;
     private final MongoTemplate mongoTemplate;
     private final ClientMetadataService clientMetadataService;
@@ -48,6 +64,200 @@ public class DatabaseMigrationRunner implements ApplicationRunner {
         apply("2026-02-26-client-metadata-redaction-v1", this::applyClientMetadataRedactionV1);
         apply("2026-07-15-core-identity-indexes-v1", this::applyCoreIdentityIndexes);
         apply("2026-07-16-audit-chain-linearity-v1", this::applyAuditChainLinearityIndex);
+        apply("2026-10-16-project-keyset-index-v1", this::applyProjectKeysetIndex);
+        apply(EMBEDDED_COMMENTS_MIGRATION, this::applyEmbeddedCommentExtraction);
+        apply("2026-10-17-rate-limit-windows-ttl-v1", this::applyRateLimitWindowsTtl);
+        apply("2026-10-17-rate-limit-resets-v1", this::applyRateLimitResetIndexes);
+        apply("2026-10-17-audit-search-terms-v1", this::applyAuditSearchTerms);
+    }
+
+    /**
+     * Indexes audit search words and fills them in for events written before the writer stored
+     * them, {@value #AUDIT_SEARCH_TERMS_BATCH_SIZE} at a time. Every processed event gets the field
+     * (possibly empty), so an interrupted run simply picks up the rest.
+     */
+    void applyAuditSearchTerms() {
+        ensureIndex("workspace_audit_events", new Index()
+            .on("workspaceId", Sort.Direction.ASC)
+            .on(AuditSearchTerms.FIELD, Sort.Direction.ASC)
+            .on("createdAt", Sort.Direction.DESC)
+            .named("idx_workspace_audit_workspace_terms_created"));
+        // The admin log searches across workspaces.
+        ensureIndex("workspace_audit_events", new Index()
+            .on(AuditSearchTerms.FIELD, Sort.Direction.ASC)
+            .on("createdAt", Sort.Direction.DESC)
+            .named("idx_workspace_audit_terms_created"));
+        long filled = 0;
+        while (true) {
+            Query batchQuery = Query.query(Criteria.where(AuditSearchTerms.FIELD).exists(false))
+                .limit(AUDIT_SEARCH_TERMS_BATCH_SIZE);
+            batchQuery.fields().include("_id", "category", "action", "entityName", "message", "actorName");
+            List<Document> events = mongoTemplate.find(batchQuery, Document.class, "workspace_audit_events");
+            if (events.isEmpty()) {
+                break;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "workspace_audit_events");
+            for (Document event : events) {
+                List<String> terms = AuditSearchTerms.of(event.getString("category"), event.getString("action"),
+                    event.getString("entityName"), event.getString("message"), event.getString("actorName"));
+                bulk.updateOne(Query.query(Criteria.where("_id").is(event.get("_id"))),
+                    new Update().set(AuditSearchTerms.FIELD, terms));
+            }
+            bulk.execute();
+            filled += events.size();
+        }
+        if (filled > 0) {
+            logger.info("Filled audit search terms for {} events", filled);
+        }
+    }
+
+    /**
+     * Expires shared rate-limit windows once they can no longer weigh into a count; only written
+     * when {@code pmd.security.rate-limit.store=mongo}, harmless on an empty collection otherwise.
+     */
+    private void applyRateLimitWindowsTtl() {
+        ensureIndex(MongoRateLimitStore.COLLECTION, new Index()
+            .on("expiresAt", Sort.Direction.ASC)
+            .expire(0)
+            .named("ttl_rate_limit_windows_expires"));
+    }
+
+    /**
+     * Lets instances poll for the resets recorded since their last sync, and expires the markers
+     * with the windows they cleared; as above, only written with the mongo store.
+     */
+    private void applyRateLimitResetIndexes() {
+        ensureIndex(MongoRateLimitStore.RESETS_COLLECTION, new Index()
+            .on("limiter", Sort.Direction.ASC)
+            .on("resetAt", Sort.Direction.ASC)
+            .named("idx_rate_limit_resets_limiter_reset"));
+        ensureIndex(MongoRateLimitStore.RESETS_COLLECTION, new Index()
+            .on("expiresAt", Sort.Direction.ASC)
+            .expire(0)
+            .named("ttl_rate_limit_resets_expires"));
+    }
+
+    /**
+     * Moves the legacy {@code projects.comments} array into {@code project_comments} and unsets
+     * it, {@value #EMBEDDED_COMMENTS_BATCH_SIZE} projects at a time in {@code _id} order.
+     *
+     * <p>Each batch upserts its comments under deterministic ids with {@code $setOnInsert}
+     * before unsetting the arrays, then records the last project id in {@link MigrationState}.
+     * A restart resumes after that id; a crash mid-batch repeats the batch without duplicating or
+     * overwriting comments that already moved (and may since have collected reactions).
+     */
+    void applyEmbeddedCommentExtraction() {
+        MigrationState state = migrationStateRepository.findById(EMBEDDED_COMMENTS_MIGRATION).orElseGet(() -> {
+            MigrationState created = new MigrationState();
+            created.setId(EMBEDDED_COMMENTS_MIGRATION);
+            return created;
+        });
+        while (true) {
+            Criteria criteria = Criteria.where("comments").exists(true);
+            if (state.getCursor() != null) {
+                criteria = criteria.and("_id").gt(toObjectIdIfValid(state.getCursor()));
+            }
+            Query batchQuery = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(EMBEDDED_COMMENTS_BATCH_SIZE);
+            batchQuery.fields().include("_id").include("comments");
+            List<Document> projects = mongoTemplate.find(batchQuery, Document.class, "projects");
+            if (projects.isEmpty()) {
+                break;
+            }
+
+            Map<String, String> authorNames = findAuthorNames(projects);
+            BulkOperations comments = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "project_comments");
+            int moved = 0;
+            List<Object> projectIds = new ArrayList<>();
+            for (Document project : projects) {
+                Object projectId = project.get("_id");
+                projectIds.add(projectId);
+                List<?> embedded = project.get("comments", List.class);
+                if (embedded == null) {
+                    continue;
+                }
+                for (int i = 0; i < embedded.size(); i++) {
+                    if (!(embedded.get(i) instanceof Document comment)) {
+                        continue;
+                    }
+                    String commentId = comment.getString("commentId");
+                    Object id = commentId != null && !commentId.isBlank()
+                        ? toObjectIdIfValid(commentId)
+                        : "legacy-" + projectId + "-" + i;
+                    String authorId = comment.getString("authorId");
+                    Number minutes = comment.get("timeSpentMinutes", Number.class);
+                    Update insert = new Update()
+                        .setOnInsert("projectId", projectId.toString())
+                        .setOnInsert("authorUserId", authorId)
+                        .setOnInsert("authorName", authorId != null ? authorNames.get(authorId) : null)
+                        .setOnInsert("message", comment.getString("message"))
+                        .setOnInsert("createdAt", comment.get("createdAt"))
+                        .setOnInsert("timeSpentMinutes", minutes != null && minutes.intValue() > 0 ? minutes.intValue() : null)
+                        .setOnInsert("reactions", new Document())
+                        .setOnInsert("schemaVersion", 1);
+                    comments.upsert(Query.query(Criteria.where("_id").is(id)), insert);
+                    moved++;
+                }
+            }
+            if (moved > 0) {
+                comments.execute();
+            }
+            mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(projectIds)),
+                new Update().unset("comments"),
+                "projects"
+            );
+
+            state.setCursor(projectIds.get(projectIds.size() - 1).toString());
+            state.setProgress(state.getProgress() + moved);
+            migrationStateRepository.save(state);
+            logger.info("Moved embedded project comments: {} projects in batch, {} comments so far",
+                projects.size(), state.getProgress());
+        }
+    }
+
+    private Map<String, String> findAuthorNames(List<Document> projects) {
+        Set<Object> authorIds = new HashSet<>();
+        for (Document project : projects) {
+            List<?> embedded = project.get("comments", List.class);
+            if (embedded == null) {
+                continue;
+            }
+            for (Object entry : embedded) {
+                if (entry instanceof Document comment && comment.getString("authorId") != null) {
+                    authorIds.add(toObjectIdIfValid(comment.getString("authorId")));
+                }
+            }
+        }
+        if (authorIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = Query.query(Criteria.where("_id").in(authorIds));
+        query.fields().include("displayName").include("email");
+        Map<String, String> names = new HashMap<>();
+        for (Document user : mongoTemplate.find(query, Document.class, "users")) {
+            String name = user.getString("displayName");
+            names.put(user.get("_id").toString(), name != null && !name.isBlank() ? name : user.getString("email"));
+        }
+        return names;
+    }
+
+    private static Object toObjectIdIfValid(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * Serves the cursor-paginated project list. {@code idx_projects_workspace_created} covers the
+     * range scan but not the {@code _id} tie-break, so a page sorted on {@code (createdAt, _id)}
+     * would still need an in-memory sort over every project in the workspace.
+     */
+    private void applyProjectKeysetIndex() {
+        ensureIndex("projects", new Index()
+            .on("workspaceId", Sort.Direction.ASC)
+            .on("createdAt", Sort.Direction.DESC)
+            .on("_id", Sort.Direction.DESC)
+            .named("idx_projects_workspace_created_id"));
     }
 
     /**
@@ -88,12 +298,13 @@ public class DatabaseMigrationRunner implements ApplicationRunner {
     }
 
     private void apply(String migrationId, Runnable migration) {
-        if (migrationStateRepository.existsById(migrationId)) {
+        // A state without appliedAt is a batched migration that was interrupted; run it again.
+        if (migrationStateRepository.findById(migrationId).map(state -> state.getAppliedAt() != null).orElse(false)) {
             return;
         }
         logger.info("Applying DB migration {}", migrationId);
         migration.run();
-        MigrationState state = new MigrationState();
+        MigrationState state = migrationStateRepository.findById(migrationId).orElseGet(MigrationState::new);
         state.setId(migrationId);
         state.setAppliedAt(Instant.now());
         migrationStateRepository.save(state);
@@ -12,6 +12,12 @@ public class MigrationState {
 
     private Instant appliedAt;
 
+    /** Last document handled by a batched migration that has not finished yet. */
+    private String cursor;
+
+    /** Items a batched migration has processed so far. */
+    private long progress;
+
     public String getId() {
         return id;
     }
@@ -27,4 +33,20 @@ public class MigrationState {
     public void setAppliedAt(Instant appliedAt) {
         this.appliedAt = appliedAt;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public long getProgress() {
+        return progress;
+    }
+
+    public void setProgress(long progress) {
+        this.progress = progress;
+    }
 }
@@ -20,6 +20,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -68,17 +72,20 @@ public class DemoSeeder implements ApplicationRunner {
     private final UserService userService;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
+    private final MongoTemplate mongoTemplate;
     private final PasswordEncoder passwordEncoder;
 
     public DemoSeeder(Environment environment,
                       UserService userService,
                       UserRepository userRepository,
                       ProjectRepository projectRepository,
+                      MongoTemplate mongoTemplate,
                       PasswordEncoder passwordEncoder) {
         this.environment = environment;
         this.userService = userService;
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
+        this.mongoTemplate = mongoTemplate;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -218,7 +225,8 @@ public class DemoSeeder implements ApplicationRunner {
             logger.warn("Skipping project {} because author is missing.", name);
             return null;
         }
-        Project project = projectRepository.findByName(name).orElseGet(Project::new);
+        Optional<Project> existing = projectRepository.findByName(name);
+        Project project = existing.orElseGet(Project::new);
         project.setName(name);
         project.setDescription(description);
         project.setStatus(status);
@@ -228,7 +236,18 @@ public class DemoSeeder implements ApplicationRunner {
         project.setCreatedByUserId(author.getId());
         project.setCreatedByTeam(author.getTeam());
         project.setTeamId(author.getTeamId());
-        return projectRepository.save(project);
+        if (existing.isEmpty()) {
+            return projectRepository.insert(project);
+        }
+        // Only the seeded fields: a whole-document save would drop anything this copy did not load.
+        updateProject(project, new Update()
+            .set("description", project.getDescription())
+            .set("status", project.getStatus())
+            .set("createdAt", project.getCreatedAt())
+            .set("createdByUserId", project.getCreatedByUserId())
+            .set("createdByTeam", project.getCreatedByTeam())
+            .set("teamId", project.getTeamId()));
+        return project;
     }
 
     private void ensureAssignments(Project project, List<User> members) {
@@ -245,7 +264,11 @@ public class DemoSeeder implements ApplicationRunner {
             }
         }
         project.setMemberIds(new ArrayList<>(ids));
-        projectRepository.save(project);
+        updateProject(project, new Update().set("memberIds", project.getMemberIds()));
+    }
+
+    private void updateProject(Project project, Update update) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(project.getId())), update, Project.class);
     }
 
     private String buildDisplayName(String firstName, String lastName, String fallback) {
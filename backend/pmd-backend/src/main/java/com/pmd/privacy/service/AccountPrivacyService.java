@@ -1,5 +1,8 @@
 package com.pmd.privacy.service;
 
+import com.pmd.audit.service.AuditEventSink;
+import com.pmd.audit.service.AuditSearchTerms;
+import com.pmd.auth.security.PrincipalCache;
 import com.pmd.upload.service.AvatarCleanupService;
 import com.pmd.user.model.User;
 import com.pmd.user.repository.UserRepository;
@@ -15,6 +18,8 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -39,6 +44,7 @@ public class AccountPrivacyService {
 
     /** Shown in place of a deleted author on retained audit rows. */
     private static final String ANONYMISED_NAME = "Deleted user";
+    private static final long AUDIT_FLUSH_SECONDS = 10;
 
     private final MongoTemplate mongo;
     private final UserRepository userRepository;
@@ -46,19 +52,25 @@ public class AccountPrivacyService {
     private final WorkspaceRepository workspaceRepository;
     private final WorkspaceService workspaceService;
     private final AvatarCleanupService avatarCleanupService;
+    private final PrincipalCache principalCache;
+    private final AuditEventSink auditEventSink;
 
     public AccountPrivacyService(MongoTemplate mongo,
                                  UserRepository userRepository,
                                  WorkspaceMemberRepository workspaceMemberRepository,
                                  WorkspaceRepository workspaceRepository,
                                  WorkspaceService workspaceService,
-                                 AvatarCleanupService avatarCleanupService) {
+                                 AvatarCleanupService avatarCleanupService,
+                                 PrincipalCache principalCache,
+                                 AuditEventSink auditEventSink) {
         this.mongo = mongo;
         this.userRepository = userRepository;
         this.workspaceMemberRepository = workspaceMemberRepository;
         this.workspaceRepository = workspaceRepository;
         this.workspaceService = workspaceService;
         this.avatarCleanupService = avatarCleanupService;
+        this.principalCache = principalCache;
+        this.auditEventSink = auditEventSink;
     }
 
     /**
@@ -185,9 +197,28 @@ public class AccountPrivacyService {
         unset("workspace_members", Criteria.where("invitedByUserId").is(userId), "invitedByUserId");
         unset("workspace_join_requests", Criteria.where("invitedByUserId").is(userId), "invitedByUserId");
         unset("projects", Criteria.where("createdByUserId").is(userId), "createdByUserId");
+        // Dashboard counters include per-member workload, so mark the read model of every
+        // workspace the pull touches as unbuilt; it is rebuilt from projects on the next dashboard
+        // load. The document itself stays, since concurrent project writes keep their marks on it.
+        List<String> assignedWorkspaceIds = mongo.findDistinct(
+            Query.query(Criteria.where("memberIds").is(userId)), "workspaceId", "projects", String.class);
         pull("projects", Criteria.where("memberIds").is(userId), "memberIds", userId);
-        // The audit trail is retained for security, but the actor's name is personal data.
-        set("workspace_audit_events", Criteria.where("actorUserId").is(userId), "actorName", ANONYMISED_NAME);
+        if (!assignedWorkspaceIds.isEmpty()) {
+            mongo.updateMulti(Query.query(Criteria.where("_id").in(assignedWorkspaceIds)),
+                new Update().unset("rebuiltAt").inc("version", 1L), "workspace_stats");
+        }
+        // The audit trail is retained for security, but the actor's name is personal data, and
+        // so are the search words taken from it. Events still queued carry the name too, so they
+        // are stored first; otherwise they would land after this with the name intact.
+        if (!auditEventSink.flush(AUDIT_FLUSH_SECONDS, TimeUnit.SECONDS)) {
+            logger.warn("Audit queue not drained within {} s while erasing account {}; "
+                + "events still queued keep the name", AUDIT_FLUSH_SECONDS, userId);
+        }
+        mongo.updateMulti(
+            Query.query(Criteria.where("actorUserId").is(userId)),
+            new Update().set("actorName", ANONYMISED_NAME)
+                .pull(AuditSearchTerms.FIELD, Pattern.compile("^" + AuditSearchTerms.ACTOR_PREFIX)),
+            "workspace_audit_events");
         // Comments stay so other people's threads keep their shape, but the author's name is
         // personal data and is denormalised onto each row (the read path returns it verbatim,
         // it is not re-resolved from users). Anonymise it exactly as the audit actor above;
@@ -196,6 +227,7 @@ public class AccountPrivacyService {
         set("project_comments", Criteria.where("authorUserId").is(userId), "authorName", ANONYMISED_NAME);
 
         userRepository.deleteById(userId);
+        principalCache.invalidate(userId);
         // The photo is personal data and /uploads is public, so leaving the file behind would
         // keep a face downloadable forever by anyone who ever saw the URL. Done after the
         // document is gone: an orphaned file is a smaller problem than a record pointing at nothing.
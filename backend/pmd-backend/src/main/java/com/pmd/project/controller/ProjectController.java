@@ -1,8 +1,11 @@
 package com.pmd.project.controller;
 
 import com.pmd.audit.service.WorkspaceAuditService;
+import com.pmd.project.dto.ProjectFilterRequest;
+import com.pmd.project.dto.ProjectPageResponse;
 import com.pmd.project.dto.ProjectRequest;
 import com.pmd.project.dto.ProjectResponse;
+import com.pmd.project.service.ProjectQuery;
 import com.pmd.project.service.ProjectService;
 import com.pmd.project.dto.DashboardStatsResponse;
 import com.pmd.project.dto.RandomAssignRequest;
@@ -81,11 +84,27 @@ public class ProjectController {
     public List<ProjectResponse> findAll(
         @PathVariable String workspaceId,
         @RequestParam(name = "assignedToMe", defaultValue = "false") boolean assignedToMe,
+        ProjectFilterRequest filter,
         Authentication authentication
     ) {
         User requester = getRequester(authentication);
         workspaceService.requireActiveMembership(workspaceId, requester);
-        return projectService.findAll(workspaceId, requester, assignedToMe);
+        return projectService.findAll(workspaceId, requester, assignedToMe, ProjectQuery.from(workspaceId, filter));
+    }
+
+    @GetMapping(params = "limit")
+    public ProjectPageResponse findPage(
+        @PathVariable String workspaceId,
+        @RequestParam(name = "assignedToMe", defaultValue = "false") boolean assignedToMe,
+        @RequestParam(name = "limit") int limit,
+        @RequestParam(name = "after", required = false) String after,
+        ProjectFilterRequest filter,
+        Authentication authentication
+    ) {
+        User requester = getRequester(authentication);
+        workspaceService.requireActiveMembership(workspaceId, requester);
+        return projectService.findPage(
+            workspaceId, requester, assignedToMe, ProjectQuery.from(workspaceId, filter), limit, after);
     }
 
     @GetMapping("/my-stats")
@@ -0,0 +1,90 @@
+package com.pmd.project.dto;
+
+import java.util.List;
+
+/** Query-string filters shared by the project list and the stats endpoints. */
+public class ProjectFilterRequest {
+
+    private List<String> status;
+
+    private List<String> teamIds;
+
+    private String memberId;
+
+    private String createdFrom;
+
+    private String createdTo;
+
+    private String updatedFrom;
+
+    private String updatedTo;
+
+    private String namePrefix;
+
+    public ProjectFilterRequest() {
+    }
+
+    public List<String> getStatus() {
+        return status;
+    }
+
+    public void setStatus(List<String> status) {
+        this.status = status;
+    }
+
+    public List<String> getTeamIds() {
+        return teamIds;
+    }
+
+    public void setTeamIds(List<String> teamIds) {
+        this.teamIds = teamIds;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(String memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(String createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public String getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(String createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public String getUpdatedFrom() {
+        return updatedFrom;
+    }
+
+    public void setUpdatedFrom(String updatedFrom) {
+        this.updatedFrom = updatedFrom;
+    }
+
+    public String getUpdatedTo() {
+        return updatedTo;
+    }
+
+    public void setUpdatedTo(String updatedTo) {
+        this.updatedTo = updatedTo;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+}
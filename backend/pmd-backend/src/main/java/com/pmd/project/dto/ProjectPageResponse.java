@@ -0,0 +1,34 @@
+package com.pmd.project.dto;
+
+import java.util.List;
+
+public class ProjectPageResponse {
+
+    private List<ProjectResponse> items;
+
+    private String nextCursor;
+
+    public ProjectPageResponse() {
+    }
+
+    public ProjectPageResponse(List<ProjectResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProjectResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProjectResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
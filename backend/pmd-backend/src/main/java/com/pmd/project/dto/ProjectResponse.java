@@ -16,8 +16,6 @@ public class ProjectResponse {
 
     private List<String> memberIds;
 
-    private List<ProjectCommentResponse> comments;
-
     private Instant createdAt;
 
     private Instant updatedAt;
@@ -38,7 +36,7 @@ public class ProjectResponse {
     }
 
     public ProjectResponse(String id, String name, String description, ProjectStatus status, List<String> memberIds,
-                           List<ProjectCommentResponse> comments, Instant createdAt, Instant updatedAt,
+                           Instant createdAt, Instant updatedAt,
                            String createdByUserId, String createdByName, String createdByTeam,
                            String teamId, String teamName, String workspaceId) {
         this.id = id;
@@ -46,7 +44,6 @@ public class ProjectResponse {
         this.description = description;
         this.status = status;
         this.memberIds = memberIds;
-        this.comments = comments;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.createdByUserId = createdByUserId;
@@ -97,14 +94,6 @@ public class ProjectResponse {
         this.memberIds = memberIds;
     }
 
-    public List<ProjectCommentResponse> getComments() {
-        return comments;
-    }
-
-    public void setComments(List<ProjectCommentResponse> comments) {
-        this.comments = comments;
-    }
-
     public Instant getCreatedAt() {
         return createdAt;
     }
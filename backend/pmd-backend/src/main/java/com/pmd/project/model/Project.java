@@ -20,8 +20,6 @@ public class Project {
 
     private List<String> memberIds;
 
-    private List<ProjectComment> comments;
-
     private Instant createdAt;
 
     private Instant updatedAt;
@@ -41,14 +39,13 @@ public class Project {
     }
 
     public Project(String id, String name, String description, ProjectStatus status, List<String> memberIds,
-                   List<ProjectComment> comments, Instant createdAt, Instant updatedAt, String createdByUserId,
+                   Instant createdAt, Instant updatedAt, String createdByUserId,
                    String createdByTeam, String teamId, String workspaceId) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.status = status;
         this.memberIds = memberIds;
-        this.comments = comments;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.createdByUserId = createdByUserId;
@@ -97,14 +94,6 @@ public class Project {
         this.memberIds = memberIds;
     }
 
-    public List<ProjectComment> getComments() {
-        return comments;
-    }
-
-    public void setComments(List<ProjectComment> comments) {
-        this.comments = comments;
-    }
-
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,196 @@
+package com.pmd.project.service;
+
+import com.pmd.config.migration.DatabaseMigrationRunner;
+import com.pmd.project.dto.ProjectFilterRequest;
+import com.pmd.project.model.ProjectStatus;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Server-side project filter. Compiles to a Mongo {@link Criteria} served by the compound indexes
+ * from {@link DatabaseMigrationRunner}, so filtering happens in the database and only matching
+ * documents cross the wire.
+ *
+ * <p>A missing {@code status} is read as {@link ProjectStatus#NOT_STARTED} everywhere else in the
+ * code base, so a status filter that includes {@code NOT_STARTED} also matches documents without one.
+ */
+public record ProjectQuery(
+    String workspaceId,
+    Set<ProjectStatus> statuses,
+    Set<String> teamIds,
+    String memberId,
+    Instant createdFrom,
+    Instant createdTo,
+    Instant updatedFrom,
+    Instant updatedTo,
+    String namePrefix
+) {
+
+    /** Statuses {@code ProjectService.randomProject} and {@code randomAssign} may pick from. */
+    public static final Set<ProjectStatus> RANDOM_ELIGIBLE_STATUSES =
+        Set.copyOf(EnumSet.of(ProjectStatus.NOT_STARTED, ProjectStatus.IN_PROGRESS, ProjectStatus.COMPLETED));
+
+    /** Statuses that count towards someone's active workload. */
+    public static final Set<ProjectStatus> ACTIVE_STATUSES =
+        Set.copyOf(EnumSet.of(ProjectStatus.NOT_STARTED, ProjectStatus.IN_PROGRESS));
+
+    public ProjectQuery {
+        statuses = statuses != null ? Set.copyOf(statuses) : Set.of();
+        teamIds = teamIds != null ? Set.copyOf(teamIds) : Set.of();
+        memberId = blankToNull(memberId);
+        namePrefix = blankToNull(namePrefix);
+    }
+
+    public static ProjectQuery forWorkspace(String workspaceId) {
+        return new ProjectQuery(workspaceId, null, null, null, null, null, null, null, null);
+    }
+
+    /** Parses request parameters, rejecting unknown statuses and malformed timestamps with a 400. */
+    public static ProjectQuery from(String workspaceId, ProjectFilterRequest request) {
+        if (request == null) {
+            return forWorkspace(workspaceId);
+        }
+        return new ProjectQuery(
+            workspaceId,
+            parseStatuses(request.getStatus()),
+            splitIds(request.getTeamIds()),
+            request.getMemberId(),
+            parseInstant(request.getCreatedFrom(), "createdFrom"),
+            parseInstant(request.getCreatedTo(), "createdTo"),
+            parseInstant(request.getUpdatedFrom(), "updatedFrom"),
+            parseInstant(request.getUpdatedTo(), "updatedTo"),
+            request.getNamePrefix()
+        );
+    }
+
+    public ProjectQuery withStatuses(Collection<ProjectStatus> nextStatuses) {
+        return new ProjectQuery(workspaceId, nextStatuses == null ? null : Set.copyOf(nextStatuses), teamIds,
+            memberId, createdFrom, createdTo, updatedFrom, updatedTo, namePrefix);
+    }
+
+    public ProjectQuery withTeamIds(Collection<String> nextTeamIds) {
+        return new ProjectQuery(workspaceId, statuses, nextTeamIds == null ? null : splitIds(nextTeamIds), memberId,
+            createdFrom, createdTo, updatedFrom, updatedTo, namePrefix);
+    }
+
+    public ProjectQuery withMemberId(String nextMemberId) {
+        return new ProjectQuery(workspaceId, statuses, teamIds, nextMemberId, createdFrom, createdTo, updatedFrom,
+            updatedTo, namePrefix);
+    }
+
+    /** True when anything other than the workspace and team narrows the result. */
+    public boolean hasNonTeamFilters() {
+        return !statuses.isEmpty() || memberId != null || createdFrom != null || createdTo != null
+            || updatedFrom != null || updatedTo != null || namePrefix != null;
+    }
+
+    public Criteria toCriteria() {
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("workspaceId").is(workspaceId));
+        if (!statuses.isEmpty()) {
+            List<Object> values = new ArrayList<>(statuses.size() + 1);
+            values.addAll(statuses);
+            if (statuses.contains(ProjectStatus.NOT_STARTED)) {
+                values.add(null);
+            }
+            criteria.add(Criteria.where("status").in(values));
+        }
+        if (!teamIds.isEmpty()) {
+            criteria.add(Criteria.where("teamId").in(teamIds));
+        }
+        if (memberId != null) {
+            criteria.add(Criteria.where("memberIds").is(memberId));
+        }
+        addRange(criteria, "createdAt", createdFrom, createdTo);
+        addRange(criteria, "updatedAt", updatedFrom, updatedTo);
+        if (namePrefix != null) {
+            criteria.add(Criteria.where("name").regex("^" + Pattern.quote(namePrefix)));
+        }
+        return new Criteria().andOperator(criteria.toArray(Criteria[]::new));
+    }
+
+    /**
+     * Newest-first query with the legacy embedded comments projected out. No index is hinted: the
+     * indexes are built by the migration runner after startup, and the planner picks the one that
+     * also serves the sort.
+     */
+    public Query toQuery() {
+        Query query = new Query(toCriteria());
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        query.fields().exclude("comments");
+        return query;
+    }
+
+    private static void addRange(List<Criteria> criteria, String field, Instant from, Instant to) {
+        if (from == null && to == null) {
+            return;
+        }
+        Criteria range = Criteria.where(field);
+        if (from != null) {
+            range = range.gte(from);
+        }
+        if (to != null) {
+            range = range.lte(to);
+        }
+        criteria.add(range);
+    }
+
+    private static Set<ProjectStatus> parseStatuses(Collection<String> raw) {
+        Set<ProjectStatus> parsed = EnumSet.noneOf(ProjectStatus.class);
+        for (String value : splitIds(raw)) {
+            try {
+                parsed.add(ProjectStatus.valueOf(value.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status: " + value);
+            }
+        }
+        return parsed;
+    }
+
+    private static Set<String> splitIds(Collection<String> raw) {
+        if (raw == null || raw.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> values = new LinkedHashSet<>();
+        for (String entry : raw) {
+            if (entry == null) {
+                continue;
+            }
+            for (String part : entry.split(",")) {
+                String clean = part.trim();
+                if (!clean.isEmpty()) {
+                    values.add(clean);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Instant parseInstant(String raw, String name) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(raw.trim());
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + name);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,121 @@
+package com.pmd.project.service;
+
+import com.pmd.project.dto.ProjectResponse;
+import com.pmd.project.model.Project;
+import com.pmd.team.model.Team;
+import com.pmd.team.service.TeamService;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds {@link ProjectResponse}s for a batch of projects with a fixed number of lookups.
+ *
+ * <p>Author display names and team names used to be resolved per project, which made a list of N
+ * projects cost 2N+1 round trips. Here every author id and team id is collected up front and
+ * resolved with one {@code findAllById} per collection, so the cost no longer grows with the list.
+ */
+@Component
+public class ProjectResponseAssembler {
+
+    private final UserRepository userRepository;
+    private final TeamService teamService;
+
+    public ProjectResponseAssembler(UserRepository userRepository, TeamService teamService) {
+        this.userRepository = userRepository;
+        this.teamService = teamService;
+    }
+
+    public ProjectResponse toResponse(Project project) {
+        return toResponses(List.of(project)).get(0);
+    }
+
+    public List<ProjectResponse> toResponses(List<Project> projects) {
+        if (projects == null || projects.isEmpty()) {
+            return List.of();
+        }
+        Map<String, String> authorNames = resolveAuthorNames(projects);
+        Map<String, Team> teamsById = resolveTeams(projects);
+        return projects.stream()
+            .map(project -> toResponse(project, authorNames, teamsById))
+            .toList();
+    }
+
+    private Map<String, String> resolveAuthorNames(List<Project> projects) {
+        Set<String> authorIds = new LinkedHashSet<>();
+        for (Project project : projects) {
+            if (project.getCreatedByUserId() != null) {
+                authorIds.add(project.getCreatedByUserId());
+            }
+        }
+        if (authorIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> names = new HashMap<>();
+        for (User user : userRepository.findAllById(List.copyOf(authorIds))) {
+            if (user.getId() != null && user.getDisplayName() != null) {
+                names.put(user.getId(), user.getDisplayName());
+            }
+        }
+        return names;
+    }
+
+    private Map<String, Team> resolveTeams(List<Project> projects) {
+        Map<String, Set<String>> teamIdsByWorkspace = new LinkedHashMap<>();
+        for (Project project : projects) {
+            if (project.getTeamId() != null) {
+                teamIdsByWorkspace
+                    .computeIfAbsent(project.getWorkspaceId(), key -> new LinkedHashSet<>())
+                    .add(project.getTeamId());
+            }
+        }
+        if (teamIdsByWorkspace.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Team> teams = new HashMap<>();
+        teamIdsByWorkspace.forEach((workspaceId, teamIds) -> {
+            for (Team team : teamService.findByIds(workspaceId, teamIds)) {
+                teams.put(teamKey(workspaceId, team.getId()), team);
+            }
+        });
+        return teams;
+    }
+
+    private ProjectResponse toResponse(Project project, Map<String, String> authorNames, Map<String, Team> teamsById) {
+        String createdByUserId = project.getCreatedByUserId();
+        String createdByTeam = project.getCreatedByTeam();
+        String createdByName = createdByUserId != null ? authorNames.get(createdByUserId) : null;
+        String teamName = createdByTeam;
+        if (project.getTeamId() != null) {
+            Team team = teamsById.get(teamKey(project.getWorkspaceId(), project.getTeamId()));
+            teamName = team != null && team.getName() != null ? team.getName() : createdByTeam;
+        }
+
+        return new ProjectResponse(
+            project.getId(),
+            project.getName(),
+            project.getDescription(),
+            project.getStatus(),
+            project.getMemberIds(),
+            project.getCreatedAt(),
+            project.getUpdatedAt(),
+            createdByUserId,
+            createdByName,
+            createdByTeam,
+            project.getTeamId(),
+            teamName,
+            project.getWorkspaceId()
+        );
+    }
+
+    private static String teamKey(String workspaceId, String teamId) {
+        return Objects.toString(workspaceId, "") + "|" + teamId;
+    }
+}
@@ -4,15 +4,16 @@ import com.pmd.auth.policy.AccessPolicy;
 import com.pmd.notification.EmailNotificationService;
 import com.pmd.notification.event.ProjectAssignmentCreated;
 import com.pmd.mention.service.MentionPolicyService;
-import com.pmd.project.dto.ProjectCommentResponse;
 import com.pmd.project.dto.DashboardStatsResponse;
+import com.pmd.project.dto.ProjectPageResponse;
 import com.pmd.project.dto.ProjectRequest;
 import com.pmd.project.dto.ProjectResponse;
 import com.pmd.project.dto.RandomAssignResponse;
 import com.pmd.project.model.Project;
-import com.pmd.project.model.ProjectComment;
 import com.pmd.project.model.ProjectStatus;
 import com.pmd.project.repository.ProjectRepository;
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import com.pmd.stats.service.WorkspaceStatsService;
 import com.pmd.team.model.Team;
 import com.pmd.team.service.TeamService;
 import com.pmd.user.dto.UserSummaryResponse;
@@ -20,18 +21,27 @@ import com.pmd.user.model.User;
 import com.pmd.user.repository.UserRepository;
 import com.pmd.user.service.UserService;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -40,6 +50,7 @@ import org.springframework.web.server.ResponseStatusException;
 public class ProjectService {
 
     private static final Logger log = LoggerFactory.getLogger(ProjectService.class);
+    private static final int MAX_PAGE_SIZE = 200;
 
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
@@ -51,13 +62,17 @@ public class ProjectService {
     private final EmailNotificationService emailNotificationService;
     private final MentionNotificationService mentionNotificationService;
     private final MentionPolicyService mentionPolicyService;
+    private final ProjectResponseAssembler projectResponseAssembler;
+    private final WorkspaceStatsService workspaceStatsService;
 
     public ProjectService(ProjectRepository projectRepository, UserRepository userRepository,
                           UserService userService, ApplicationEventPublisher eventPublisher,
                           AccessPolicy accessPolicy, MongoTemplate mongoTemplate, TeamService teamService,
                           EmailNotificationService emailNotificationService,
                           MentionNotificationService mentionNotificationService,
-                          MentionPolicyService mentionPolicyService) {
+                          MentionPolicyService mentionPolicyService,
+                          ProjectResponseAssembler projectResponseAssembler,
+                          WorkspaceStatsService workspaceStatsService) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.userService = userService;
@@ -68,6 +83,8 @@ public class ProjectService {
         this.emailNotificationService = emailNotificationService;
         this.mentionNotificationService = mentionNotificationService;
         this.mentionPolicyService = mentionPolicyService;
+        this.projectResponseAssembler = projectResponseAssembler;
+        this.workspaceStatsService = workspaceStatsService;
     }
 
     /** Resolves the (active) team when a teamId is supplied, or null for a teamless project. */
@@ -94,7 +111,6 @@ public class ProjectService {
         project.setDescription(request.getDescription());
         project.setStatus(request.getStatus());
         project.setMemberIds(request.getMemberIds());
-        project.setComments(new ArrayList<>());
         project.setCreatedAt(Instant.now());
         project.setCreatedByUserId(requester.getId());
         project.setCreatedByTeam(team != null ? team.getName() : null);
@@ -119,7 +135,9 @@ public class ProjectService {
             MentionNotificationService.MentionSource.PROJECT_DESCRIPTION.label()
         );
 
-        Project saved = projectRepository.save(project);
+        Project saved = writeCounted(workspaceId, () -> projectRepository.save(project));
+        workspaceStatsService.recordChange(null, WorkspaceStatsService.ProjectSnapshot.of(saved));
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.PROJECTS));
         notifyProjectMembershipChange(requester, saved, List.of());
         mentionNotificationService.notifyMentions(
             workspaceId,
@@ -135,7 +153,7 @@ public class ProjectService {
             saved.getDescription(),
             MentionNotificationService.MentionSource.PROJECT_DESCRIPTION
         );
-        ProjectResponse response = toResponse(saved);
+        ProjectResponse response = projectResponseAssembler.toResponse(saved);
         log.debug(
             "Project created id={}, createdByUserId={}, createdByTeam={}, memberIds={}",
             saved.getId(),
@@ -146,11 +164,10 @@ public class ProjectService {
         return response;
     }
 
-    public List<ProjectResponse> findAll(String workspaceId, User requester, boolean assignedToMe) {
-        List<Project> projects = projectRepository.findByWorkspaceId(
-            workspaceId,
-            Sort.by(Sort.Direction.DESC, "createdAt")
-        );
+    public List<ProjectResponse> findAll(String workspaceId, User requester, boolean assignedToMe,
+                                         ProjectQuery filter) {
+        ProjectQuery query = scopeFilter(workspaceId, requester, assignedToMe, filter);
+        List<Project> projects = mongoTemplate.find(query.toQuery(), Project.class);
         log.debug(
             "Project list db={}, collection={}, sort=createdAt DESC, isAdmin={}, assignedToMe={}, fetched={}",
             mongoTemplate.getDb().getName(),
@@ -159,39 +176,70 @@ public class ProjectService {
             assignedToMe,
             projects.size()
         );
-        if (assignedToMe) {
-            String requesterId = requester.getId();
-            int before = projects.size();
-            projects = projects.stream()
-                .filter(project -> requesterId != null && (project.getMemberIds() != null)
-                    && project.getMemberIds().contains(requesterId))
-                .toList();
-            log.debug(
-                "Project list assignedToMe filter applied memberId={}, before={}, after={}",
-                requesterId,
-                before,
-                projects.size()
-            );
+        return projectResponseAssembler.toResponses(projects);
+    }
+
+    /**
+     * Keyset-paginated listing: newest first, {@code limit} items per page. The cursor is the
+     * {@code createdAt,_id} pair of the last item returned, so each page is one bounded range scan
+     * on {@code idx_projects_workspace_created_id} instead of a full workspace read. The member
+     * and {@link ProjectQuery} filters run in the query and the legacy embedded comments are
+     * projected out.
+     */
+    public ProjectPageResponse findPage(String workspaceId, User requester, boolean assignedToMe,
+                                        ProjectQuery filter, int limit, String after) {
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        ProjectQuery scoped = scopeFilter(workspaceId, requester, assignedToMe, filter);
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(scoped.toCriteria());
+        ProjectCursor cursor = ProjectCursor.parse(after);
+        if (cursor != null && cursor.createdAt() == null) {
+            // Legacy documents without createdAt sort last; page through them by _id alone.
+            criteria.add(Criteria.where("createdAt").is(null));
+            criteria.add(Criteria.where("_id").lt(cursor.id()));
+        } else if (cursor != null) {
+            criteria.add(new Criteria().orOperator(
+                Criteria.where("createdAt").lt(cursor.createdAt()),
+                Criteria.where("createdAt").is(null),
+                new Criteria().andOperator(
+                    Criteria.where("createdAt").is(cursor.createdAt()),
+                    Criteria.where("_id").lt(cursor.id())
+                )
+            ));
         }
-        return projects.stream()
-            .map(this::toResponse)
-            .toList();
+        Query query = new Query(new Criteria().andOperator(criteria.toArray(Criteria[]::new)));
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+        query.limit(pageSize + 1);
+        query.fields().exclude("comments");
+
+        List<Project> projects = mongoTemplate.find(query, Project.class);
+        boolean hasMore = projects.size() > pageSize;
+        if (hasMore) {
+            projects = projects.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Project last = projects.get(projects.size() - 1);
+            nextCursor = new ProjectCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        log.debug(
+            "Project page workspaceId={}, assignedToMe={}, limit={}, after={}, fetched={}, hasMore={}",
+            workspaceId,
+            assignedToMe,
+            pageSize,
+            after,
+            projects.size(),
+            hasMore
+        );
+        return new ProjectPageResponse(projectResponseAssembler.toResponses(projects), nextCursor);
     }
 
     public ProjectResponse findById(String workspaceId, String id, User requester) {
         Project project = getByIdForUser(workspaceId, id, requester);
-        return toResponse(project);
+        return projectResponseAssembler.toResponse(project);
     }
 
     public ProjectResponse randomProject(String workspaceId, User requester, String teamId) {
-        List<Project> projects = projectRepository.findByWorkspaceId(
-            workspaceId,
-            Sort.by(Sort.Direction.DESC, "createdAt")
-        );
-        projects = projects.stream()
-            .filter(this::isRandomEligibleProject)
-            .toList();
-
         if (teamId != null && !teamId.isBlank()) {
             List<User> teamCandidates = userService.findAssignableUsers(
                 workspaceId,
@@ -204,19 +252,20 @@ public class ProjectService {
             }
         }
 
-        if (projects.isEmpty()) {
+        // $sample runs next to the data: only the chosen document leaves Mongo, however many qualify.
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(ProjectQuery.forWorkspace(workspaceId)
+                .withStatuses(ProjectQuery.RANDOM_ELIGIBLE_STATUSES)
+                .toCriteria()),
+            Aggregation.sample(1),
+            Aggregation.project().andExclude("comments")
+        );
+        Project chosen = mongoTemplate.aggregate(aggregation, Project.class, Project.class).getUniqueMappedResult();
+        if (chosen == null) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "No eligible projects available");
         }
-
-        int index = ThreadLocalRandom.current().nextInt(projects.size());
-        Project chosen = projects.get(index);
-        log.debug(
-            "Random project selected projectId={}, teamId={}, candidateCount={}",
-            chosen.getId(),
-            teamId,
-            projects.size()
-        );
-        return toResponse(chosen);
+        log.debug("Random project selected projectId={}, teamId={}", chosen.getId(), teamId);
+        return projectResponseAssembler.toResponse(chosen);
     }
 
     public RandomAssignResponse randomAssign(String workspaceId, String projectId, User requester, String teamId) {
@@ -225,24 +274,22 @@ public class ProjectService {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Project is not eligible for random assignment");
         }
         boolean isAdmin = accessPolicy.isAdmin(requester);
-        List<User> candidates = userService.findAssignableUsers(workspaceId, null, teamId, isAdmin).stream()
-            .filter(user -> user.getId() != null)
-            .filter(user -> project.getMemberIds() == null || !project.getMemberIds().contains(user.getId()))
-            .toList();
-        if (candidates.isEmpty()) {
+        UserService.LeastLoadedPool pool = userService.findLeastLoadedAssignees(
+            workspaceId,
+            teamId,
+            isAdmin,
+            project.getMemberIds() != null ? project.getMemberIds() : List.of()
+        );
+        if (pool == null) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "No eligible people available to assign");
         }
+        long minCount = pool.activeProjectCount();
+        List<String> minimalCandidates = pool.userIds();
+        String chosenId = minimalCandidates.get(ThreadLocalRandom.current().nextInt(minimalCandidates.size()));
+        User chosen = userRepository.findById(chosenId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "No eligible people available to assign"));
 
-        Map<String, Long> activeCounts = userService.findActiveProjectCounts(workspaceId, candidates, isAdmin);
-        long minCount = candidates.stream()
-            .mapToLong(user -> activeCounts.getOrDefault(user.getId(), 0L))
-            .min()
-            .orElse(0L);
-        List<User> minimalCandidates = candidates.stream()
-            .filter(user -> activeCounts.getOrDefault(user.getId(), 0L) == minCount)
-            .toList();
-        User chosen = minimalCandidates.get(ThreadLocalRandom.current().nextInt(minimalCandidates.size()));
-
+        WorkspaceStatsService.ProjectSnapshot before = WorkspaceStatsService.ProjectSnapshot.of(project);
         List<String> previousMemberIds = project.getMemberIds() != null
             ? new ArrayList<>(project.getMemberIds())
             : List.of();
@@ -255,7 +302,12 @@ public class ProjectService {
         project.setMemberIds(nextMemberIds);
         project.setUpdatedAt(Instant.now());
 
-        Project saved = projectRepository.save(project);
+        writeCounted(workspaceId, () -> updateFields(project, new Update()
+            .set("memberIds", project.getMemberIds())
+            .set("updatedAt", project.getUpdatedAt())));
+        Project saved = project;
+        workspaceStatsService.recordChange(before, WorkspaceStatsService.ProjectSnapshot.of(saved));
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.PROJECTS));
         publishAssignmentEvents(saved, previousMemberIds, requester.getId());
         log.debug(
             "Random assign projectId={}, assignedUserId={}, teamId={}, minCount={}, minimalPool={}",
@@ -265,13 +317,8 @@ public class ProjectService {
             minCount,
             minimalCandidates.size()
         );
-        ProjectResponse response = toResponse(saved);
-        UserSummaryResponse assignedPerson = toUserSummary(
-            workspaceId,
-            chosen,
-            activeCounts.getOrDefault(chosen.getId(), 0L),
-            requester
-        );
+        ProjectResponse response = projectResponseAssembler.toResponse(saved);
+        UserSummaryResponse assignedPerson = toUserSummary(workspaceId, chosen, minCount, requester);
         return new RandomAssignResponse(response, assignedPerson);
     }
 
@@ -280,6 +327,7 @@ public class ProjectService {
         Team team = resolveOptionalTeam(workspaceId, request.getTeamId());
         String teamId = team != null ? team.getId() : null;
         Project project = getByIdForUser(workspaceId, id, requester);
+        WorkspaceStatsService.ProjectSnapshot before = WorkspaceStatsService.ProjectSnapshot.of(project);
         ProjectStatus previousStatus = project.getStatus();
         List<String> previousMemberIds = project.getMemberIds() != null
             ? new ArrayList<>(project.getMemberIds())
@@ -310,7 +358,16 @@ public class ProjectService {
         project.setTeamId(teamId);
         project.setUpdatedAt(Instant.now());
 
-        Project saved = projectRepository.save(project);
+        writeCounted(workspaceId, () -> updateFields(project, new Update()
+            .set("name", project.getName())
+            .set("description", project.getDescription())
+            .set("status", project.getStatus())
+            .set("memberIds", project.getMemberIds())
+            .set("teamId", project.getTeamId())
+            .set("updatedAt", project.getUpdatedAt())));
+        Project saved = project;
+        workspaceStatsService.recordChange(before, WorkspaceStatsService.ProjectSnapshot.of(saved));
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.PROJECTS));
         publishAssignmentEvents(saved, previousMemberIds, assignedByUserId);
         notifyProjectStatusChange(requester, saved, previousStatus);
         notifyProjectMembershipChange(requester, saved, previousMemberIds);
@@ -328,17 +385,20 @@ public class ProjectService {
             saved.getDescription(),
             MentionNotificationService.MentionSource.PROJECT_DESCRIPTION
         );
-        return toResponse(saved);
+        return projectResponseAssembler.toResponse(saved);
     }
 
     public void delete(String workspaceId, String id, User requester) {
         Project project = getByIdForUser(workspaceId, id, requester);
-        projectRepository.delete(project);
+        writeCounted(workspaceId, () -> projectRepository.delete(project));
+        workspaceStatsService.recordChange(WorkspaceStatsService.ProjectSnapshot.of(project), null);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.PROJECTS));
     }
 
     public DashboardStatsResponse getMyDashboardStats(String workspaceId, User requester) {
         String userId = requester.getId();
         List<Project> projects = projectRepository.findByWorkspaceIdAndMemberIdsContaining(workspaceId, userId);
+        Map<String, Document> authoredComments = findCommentWorkload(projects, userId);
 
         Map<ProjectStatus, Long> statusCounts = new EnumMap<>(ProjectStatus.class);
         long activeCount = 0;
@@ -357,16 +417,9 @@ public class ProjectService {
                 inactiveCount += 1;
             }
 
-            long minutesForProject = 0;
-            long commentsForProject = 0;
-            if (project.getComments() != null) {
-                for (ProjectComment comment : project.getComments()) {
-                    if (comment != null && userId.equals(comment.getAuthorId())) {
-                        commentsForProject += 1;
-                        minutesForProject += Math.max(comment.getTimeSpentMinutes(), 0);
-                    }
-                }
-            }
+            Document authored = authoredComments.get(project.getId());
+            long minutesForProject = authored != null ? authored.get("minutes", Number.class).longValue() : 0;
+            long commentsForProject = authored != null ? authored.get("comments", Number.class).longValue() : 0;
             if (minutesForProject > 0) {
                 workloadMinutes.put(project.getName() != null ? project.getName() : "Untitled", minutesForProject);
                 totalMinutes += minutesForProject;
@@ -412,45 +465,30 @@ public class ProjectService {
         return new DashboardStatsResponse(statusBreakdown, workloadBreakdown, activeInactiveBreakdown);
     }
 
-    private ProjectResponse toResponse(Project project) {
-        List<ProjectCommentResponse> commentResponses = null;
-        if (project.getComments() != null) {
-            commentResponses = project.getComments().stream()
-                .map(this::toCommentResponse)
-                .toList();
-        }
-
-        String createdByUserId = project.getCreatedByUserId();
-        String createdByTeam = project.getCreatedByTeam();
-        String createdByName = null;
-        if (createdByUserId != null) {
-            createdByName = userRepository.findById(createdByUserId)
-                .map(User::getDisplayName)
-                .orElse(null);
-        }
-        String teamName = createdByTeam;
-        if (project.getTeamId() != null) {
-            teamName = teamService.findById(project.getWorkspaceId(), project.getTeamId())
-                .map(Team::getName)
-                .orElse(createdByTeam);
+    /**
+     * Comments and logged minutes per project authored by {@code userId}, grouped in
+     * {@code project_comments} on {@code idx_project_comments_project_created}.
+     */
+    private Map<String, Document> findCommentWorkload(List<Project> projects, String userId) {
+        List<String> projectIds = projects.stream()
+            .map(Project::getId)
+            .filter(Objects::nonNull)
+            .toList();
+        if (projectIds.isEmpty() || userId == null) {
+            return Map.of();
         }
-
-        return new ProjectResponse(
-            project.getId(),
-            project.getName(),
-            project.getDescription(),
-            project.getStatus(),
-            project.getMemberIds(),
-            commentResponses,
-            project.getCreatedAt(),
-            project.getUpdatedAt(),
-            createdByUserId,
-            createdByName,
-            createdByTeam,
-            project.getTeamId(),
-            teamName,
-            project.getWorkspaceId()
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("projectId").in(projectIds).and("authorUserId").is(userId)),
+            context -> new Document("$group", new Document("_id", "$projectId")
+                .append("comments", new Document("$sum", 1))
+                .append("minutes", new Document("$sum", new Document("$max", List.of(
+                    new Document("$ifNull", List.of("$timeSpentMinutes", 0)), 0)))))
         );
+        Map<String, Document> byProject = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, "project_comments", Document.class)) {
+            byProject.put(group.getString("_id"), group);
+        }
+        return byProject;
     }
 
     private Project getByIdOrThrow(String workspaceId, String id) {
@@ -458,25 +496,53 @@ public class ProjectService {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
     }
 
+    /**
+     * Runs a project write inside {@link WorkspaceStatsService#beginChange}, so a concurrent
+     * rebuild of the counters knows to leave it to the {@code recordChange} that follows.
+     */
+    private <T> T writeCounted(String workspaceId, Supplier<T> write) {
+        workspaceStatsService.beginChange(workspaceId);
+        try {
+            return write.get();
+        } catch (RuntimeException ex) {
+            workspaceStatsService.abandonChange(workspaceId);
+            throw ex;
+        }
+    }
+
+    private void writeCounted(String workspaceId, Runnable write) {
+        writeCounted(workspaceId, () -> {
+            write.run();
+            return null;
+        });
+    }
+
+    /**
+     * Writes only the fields an edit touches. A full {@code save} would replace the document and
+     * drop a legacy {@code comments} array the embedded-comment migration has not moved yet.
+     */
+    private void updateFields(Project project, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(project.getId())
+            .and("workspaceId").is(project.getWorkspaceId()));
+        if (mongoTemplate.updateFirst(query, update, Project.class).getMatchedCount() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
+    }
+
     private Project getByIdForUser(String workspaceId, String id, User requester) {
         Project project = getByIdOrThrow(workspaceId, id);
         accessPolicy.assertCanViewProject(requester, project);
         return project;
     }
 
-    private ProjectCommentResponse toCommentResponse(ProjectComment comment) {
-        return new ProjectCommentResponse(
-            comment.getCommentId(),
-            comment.getAuthorId(),
-            comment.getMessage(),
-            comment.getTimeSpentMinutes(),
-            comment.getCreatedAt()
-        );
-    }
-
     private boolean isRandomEligibleProject(Project project) {
         ProjectStatus status = project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED;
-        return status != ProjectStatus.ARCHIVED && status != ProjectStatus.CANCELED;
+        return ProjectQuery.RANDOM_ELIGIBLE_STATUSES.contains(status);
+    }
+
+    private ProjectQuery scopeFilter(String workspaceId, User requester, boolean assignedToMe, ProjectQuery filter) {
+        ProjectQuery query = filter != null ? filter : ProjectQuery.forWorkspace(workspaceId);
+        return assignedToMe ? query.withMemberId(requester.getId()) : query;
     }
 
     private UserSummaryResponse toUserSummary(String workspaceId, User user, long activeProjectCount, User requester) {
@@ -605,4 +671,33 @@ public class ProjectService {
         }
     }
 
+    /**
+     * Position of the last item on a page, serialised as {@code <createdAt ISO-8601>,<id>}. Legacy
+     * documents without a {@code createdAt} get {@code ,<id>}.
+     */
+    record ProjectCursor(Instant createdAt, String id) {
+
+        static ProjectCursor parse(String raw) {
+            if (raw == null || raw.isBlank()) {
+                return null;
+            }
+            int separator = raw.lastIndexOf(',');
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            if (raw.substring(0, separator).isBlank()) {
+                return new ProjectCursor(null, raw.substring(separator + 1).trim());
+            }
+            try {
+                return new ProjectCursor(Instant.parse(raw.substring(0, separator).trim()),
+                    raw.substring(separator + 1).trim());
+            } catch (DateTimeParseException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        String encode() {
+            return (createdAt != null ? createdAt.toString() : "") + "," + id;
+        }
+    }
 }
@@ -0,0 +1,240 @@
+package com.pmd.security;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Single-pass matcher behind {@link MaliciousRequestFilter}. It blocks exactly what the earlier
+ * list of regexes did when run over {@code URLDecoder.decode(input)} (or over the raw input when
+ * that throws):
+ *
+ * <pre>
+ *   #set\s*\(      \$\{[^}]+\}    &lt;xsl:    xmlns:xsl    java\.lang\.Runtime    \.forName\(
+ *   class\.module\.classLoader    \.\./    %2e%2e%2f    \.htaccess    \.env
+ * </pre>
+ *
+ * all ASCII case-insensitive. The literal ones, plus the fixed prefixes <code>#set</code> and
+ * <code>${</code>, are compiled into one Aho-Corasick automaton; the two open-ended tails ("then
+ * whitespace and a parenthesis", "then at least one character and a closing brace") are two
+ * flags carried along the same pass.
+ *
+ * <p>Percent-escapes are decoded on the fly while scanning, so the common case (plain ASCII,
+ * or escapes of ASCII bytes) reads each input once and allocates nothing. Only when an escape
+ * encodes a non-ASCII byte is the input handed to {@link URLDecoder}, which is the one place
+ * that knows how to turn byte runs into UTF-8 text, malformed sequences included.
+ */
+final class AttackSignatureScanner {
+
+    private static final List<String> SIGNATURES = List.of(
+        "<xsl:",
+        "xmlns:xsl",
+        "java.lang.runtime",
+        ".forname(",
+        "class.module.classloader",
+        "../",
+        "%2e%2e%2f",
+        ".htaccess",
+        ".env"
+    );
+    /** Blocks when followed by optional whitespace and {@code (}. */
+    private static final String SET_DIRECTIVE = "#set";
+    /** Blocks when followed by at least one character other than a closing brace, then one. */
+    private static final String PLACEHOLDER = "${";
+
+    private static final int OUT_BLOCK = 1;
+    private static final int OUT_SET_DIRECTIVE = 2;
+    private static final int OUT_PLACEHOLDER = 4;
+
+    private static final int ASCII = 128;
+
+    private static final int ESCAPES_ASCII = 0;
+    private static final int ESCAPES_NON_ASCII = 1;
+    private static final int ESCAPES_INVALID = 2;
+
+    /** Dense transition table over lower-cased ASCII; any non-ASCII character goes back to the root. */
+    private static final int[][] NEXT;
+    private static final int[] OUTPUT;
+
+    static {
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        trie.add(newRow());
+        outputs.add(0);
+        for (String signature : SIGNATURES) {
+            add(trie, outputs, signature, OUT_BLOCK);
+        }
+        add(trie, outputs, SET_DIRECTIVE, OUT_SET_DIRECTIVE);
+        add(trie, outputs, PLACEHOLDER, OUT_PLACEHOLDER);
+
+        int[][] next = trie.toArray(new int[0][]);
+        int[] output = outputs.stream().mapToInt(Integer::intValue).toArray();
+        int[] fail = new int[next.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ASCII; c++) {
+            if (next[0][c] < 0) {
+                next[0][c] = 0;
+            } else {
+                queue.add(next[0][c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] |= output[fail[state]];
+            for (int c = 0; c < ASCII; c++) {
+                int child = next[state][c];
+                if (child < 0) {
+                    next[state][c] = next[fail[state]][c];
+                } else {
+                    fail[child] = next[fail[state]][c];
+                    queue.add(child);
+                }
+            }
+        }
+        NEXT = next;
+        OUTPUT = output;
+    }
+
+    private AttackSignatureScanner() {
+    }
+
+    static boolean matches(String input) {
+        if (input == null || input.isBlank()) {
+            return false;
+        }
+        return switch (classifyEscapes(input)) {
+            case ESCAPES_ASCII -> scan(input, true);
+            case ESCAPES_NON_ASCII -> scan(URLDecoder.decode(input, StandardCharsets.UTF_8), false);
+            default -> scan(input, false);
+        };
+    }
+
+    private static boolean scan(String text, boolean decode) {
+        int state = 0;
+        boolean awaitingParen = false;
+        boolean placeholderOpened = false;
+        boolean placeholderHasBody = false;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i++);
+            if (decode) {
+                if (c == '+') {
+                    c = ' ';
+                } else if (c == '%') {
+                    c = (char) escapedByte(text, i);
+                    i += 2;
+                }
+            }
+            if (awaitingParen) {
+                if (c == '(') {
+                    return true;
+                }
+                awaitingParen = isRegexWhitespace(c);
+            }
+            if (placeholderHasBody && c == '}') {
+                return true;
+            }
+            if (placeholderOpened) {
+                placeholderHasBody |= c != '}';
+                placeholderOpened = false;
+            }
+            state = c < ASCII ? NEXT[state][toLowerAscii(c)] : 0;
+            int output = OUTPUT[state];
+            if (output != 0) {
+                if ((output & OUT_BLOCK) != 0) {
+                    return true;
+                }
+                if ((output & OUT_SET_DIRECTIVE) != 0) {
+                    awaitingParen = true;
+                }
+                if ((output & OUT_PLACEHOLDER) != 0) {
+                    placeholderOpened = true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Walks the escapes the way {@link URLDecoder#decode(String, java.nio.charset.Charset)} does:
+     * invalid when it would throw, non-ASCII when any escape decodes to a byte of 0x80 or more.
+     */
+    private static int classifyEscapes(String input) {
+        int result = ESCAPES_ASCII;
+        int length = input.length();
+        int i = 0;
+        while (i < length) {
+            if (input.charAt(i) != '%') {
+                i++;
+                continue;
+            }
+            while (i + 2 < length && input.charAt(i) == '%') {
+                int value = escapedByte(input, i + 1);
+                if (value < 0) {
+                    return ESCAPES_INVALID;
+                }
+                if (value >= ASCII) {
+                    result = ESCAPES_NON_ASCII;
+                }
+                i += 3;
+            }
+            if (i < length && input.charAt(i) == '%') {
+                return ESCAPES_INVALID;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The two characters at {@code at} as {@code Integer.parseInt(s, at, at + 2, 16)} reads them,
+     * leading sign and non-ASCII digits included, or -1 where the decoder would reject them.
+     */
+    private static int escapedByte(String text, int at) {
+        char first = text.charAt(at);
+        int low = Character.digit(text.charAt(at + 1), 16);
+        if (low < 0) {
+            return -1;
+        }
+        if (first == '+') {
+            return low;
+        }
+        if (first == '-') {
+            return low == 0 ? 0 : -1;
+        }
+        int high = Character.digit(first, 16);
+        return high < 0 ? -1 : high * 16 + low;
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static int toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static void add(List<int[]> trie, List<Integer> outputs, String word, int output) {
+        int state = 0;
+        for (int k = 0; k < word.length(); k++) {
+            int c = word.charAt(k);
+            if (trie.get(state)[c] < 0) {
+                trie.get(state)[c] = trie.size();
+                trie.add(newRow());
+                outputs.add(0);
+            }
+            state = trie.get(state)[c];
+        }
+        outputs.set(state, outputs.get(state) | output);
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ASCII];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -5,6 +5,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.function.Supplier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -25,6 +26,22 @@ public class ClientMetadataService {
         this.hashSalt = hashSalt == null ? "" : hashSalt.trim();
     }
 
+    /**
+     * The request's {@link RequestClientContext}, created and attached on first call. A
+     * {@code null} request (background work) gets an empty, unattached context.
+     */
+    public RequestClientContext context(HttpServletRequest request) {
+        if (request == null) {
+            return new RequestClientContext(this, null, null);
+        }
+        RequestClientContext context = RequestClientContext.current(request);
+        if (context == null) {
+            context = new RequestClientContext(this, resolveClientIp(request), request.getHeader("User-Agent"));
+            request.setAttribute(RequestClientContext.ATTR, context);
+        }
+        return context;
+    }
+
     public String resolveClientIp(HttpServletRequest request) {
         if (request == null) {
             return null;
@@ -48,6 +65,10 @@ public class ClientMetadataService {
     }
 
     public String sanitizeIpForStorage(String rawIp) {
+        return sanitizeIpForStorage(rawIp, () -> fingerprint(rawIp));
+    }
+
+    String sanitizeIpForStorage(String rawIp, Supplier<String> fingerprint) {
         if (rawIp == null || rawIp.isBlank()) {
             return null;
         }
@@ -58,10 +79,14 @@ public class ClientMetadataService {
             return trim(rawIp, 120);
         }
         String masked = maskIp(rawIp);
-        return trim("anon:" + masked + "|fp:" + fingerprint(rawIp), 120);
+        return trim("anon:" + masked + "|fp:" + fingerprint.get(), 120);
     }
 
     public String sanitizeUserAgentForStorage(String rawUserAgent) {
+        return sanitizeUserAgentForStorage(rawUserAgent, () -> fingerprint(rawUserAgent));
+    }
+
+    String sanitizeUserAgentForStorage(String rawUserAgent, Supplier<String> fingerprint) {
         if (rawUserAgent == null || rawUserAgent.isBlank()) {
             return null;
         }
@@ -72,7 +97,7 @@ public class ClientMetadataService {
             return trim(rawUserAgent, 300);
         }
         String family = extractUserAgentFamily(rawUserAgent);
-        return trim("anon:" + family + "|fp:" + fingerprint(rawUserAgent), 300);
+        return trim("anon:" + family + "|fp:" + fingerprint.get(), 300);
     }
 
     public String sanitizeIpForLogs(String rawIp) {
@@ -135,7 +160,7 @@ public class ClientMetadataService {
         return "unknown";
     }
 
-    private String fingerprint(String value) {
+    String fingerprint(String value) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest((hashSalt + "|" + value).getBytes(StandardCharsets.UTF_8));
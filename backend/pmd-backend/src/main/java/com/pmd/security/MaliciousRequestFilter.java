@@ -5,11 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.List;
-import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -20,19 +16,6 @@ public class MaliciousRequestFilter extends OncePerRequestFilter {
 
     private static final Logger securityLogger = LoggerFactory.getLogger("SECURITY");
 
-    private static final List<Pattern> ATTACK_PATTERNS = List.of(
-        Pattern.compile("#set\\s*\\(", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\$\\{[^}]+\\}", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("<xsl:", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("xmlns:xsl", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("java\\.lang\\.Runtime", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\.forName\\(", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("class\\.module\\.classLoader", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\.\\./"),
-        Pattern.compile("%2e%2e%2f", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\.htaccess", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("\\.env", Pattern.CASE_INSENSITIVE)
-    );
     private final ClientMetadataService clientMetadataService;
 
     public MaliciousRequestFilter(ClientMetadataService clientMetadataService) {
@@ -56,56 +39,38 @@ public class MaliciousRequestFilter extends OncePerRequestFilter {
         String uri = request.getRequestURI();
         String query = request.getQueryString();
         String rawUserAgent = request.getHeader("User-Agent");
-        String rawClientIp = clientMetadataService.resolveClientIp(request);
 
         if (containsMaliciousPattern(uri)) {
-            block(response, rawClientIp, uri, "URI_ATTACK", rawUserAgent);
+            block(request, response, uri, "URI_ATTACK");
             return;
         }
         if (containsMaliciousPattern(query)) {
-            block(response, rawClientIp, uri + "?" + query, "QUERY_ATTACK", rawUserAgent);
+            block(request, response, uri + "?" + query, "QUERY_ATTACK");
             return;
         }
         if (containsMaliciousPattern(rawUserAgent)) {
-            block(response, rawClientIp, uri, "HEADER_ATTACK", rawUserAgent);
+            block(request, response, uri, "HEADER_ATTACK");
             return;
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private void block(HttpServletResponse response, String ip, String target, String attackType, String userAgent)
+    private void block(HttpServletRequest request, HttpServletResponse response, String target, String attackType)
         throws IOException {
+        RequestClientContext client = clientMetadataService.context(request);
         securityLogger.warn(
             "ATTACK_BLOCKED | ip={} | target={} | type={} | userAgent={} | timestamp={}",
-            clientMetadataService.sanitizeIpForLogs(ip),
+            client.ipForLogs(),
             target,
             attackType,
-            clientMetadataService.sanitizeUserAgentForLogs(userAgent),
+            client.userAgentForLogs(),
             Instant.now()
         );
         response.sendError(HttpServletResponse.SC_FORBIDDEN, "Malicious request pattern detected");
     }
 
-    private boolean containsMaliciousPattern(String input) {
-        if (input == null || input.isBlank()) {
-            return false;
-        }
-        String decoded = decode(input);
-        for (Pattern pattern : ATTACK_PATTERNS) {
-            if (pattern.matcher(decoded).find()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String decode(String value) {
-        try {
-            return URLDecoder.decode(value, StandardCharsets.UTF_8);
-        } catch (IllegalArgumentException ex) {
-            return value;
-        }
+    boolean containsMaliciousPattern(String input) {
+        return AttackSignatureScanner.matches(input);
     }
-
 }
@@ -1,60 +1,37 @@
 package com.pmd.security;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.pmd.security.ratelimit.RateLimiter;
+import com.pmd.security.ratelimit.RateLimiters;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.time.Duration;
 import org.springframework.http.HttpMethod;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = LoggerFactory.getLogger(RateLimitingFilter.class);
-
     private final int maxRequestsPerMinute;
-    private final int maxRequestsPerHour;
     private final ClientMetadataService clientMetadataService;
-    private final LoadingCache<String, AtomicInteger> minuteRequestCounts;
-    private final LoadingCache<String, AtomicInteger> hourRequestCounts;
+    private final RateLimiter minuteLimiter;
+    private final RateLimiter hourLimiter;
 
     public RateLimitingFilter(
         ClientMetadataService clientMetadataService,
+        RateLimiters rateLimiters,
         @Value("${pmd.security.rate-limit.per-minute:180}") int maxRequestsPerMinute,
-        @Value("${pmd.security.rate-limit.per-hour:3000}") int maxRequestsPerHour
+        @Value("${pmd.security.rate-limit.per-hour:3000}") int maxRequestsPerHour,
+        @Value("${pmd.security.rate-limit.max-keys:65536}") int maxKeys
     ) {
         this.clientMetadataService = clientMetadataService;
         this.maxRequestsPerMinute = maxRequestsPerMinute;
-        this.maxRequestsPerHour = maxRequestsPerHour;
-        this.minuteRequestCounts = CacheBuilder.newBuilder()
-            .expireAfterWrite(1, TimeUnit.MINUTES)
-            .build(new CacheLoader<>() {
-                @Override
-                public AtomicInteger load(String key) {
-                    return new AtomicInteger(0);
-                }
-            });
-        this.hourRequestCounts = CacheBuilder.newBuilder()
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .build(new CacheLoader<>() {
-                @Override
-                public AtomicInteger load(String key) {
-                    return new AtomicInteger(0);
-                }
-            });
+        this.minuteLimiter = rateLimiters.create("api-minute", maxRequestsPerMinute, Duration.ofMinutes(1), maxKeys);
+        this.hourLimiter = rateLimiters.create("api-hour", maxRequestsPerHour, Duration.ofHours(1), maxKeys);
     }
 
     @Override
@@ -75,43 +52,29 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         FilterChain filterChain
     ) throws ServletException, IOException {
         String rateLimitKey = getRateLimitKey(request);
-        try {
-            int minuteCount = minuteRequestCounts.get(rateLimitKey).incrementAndGet();
-            int hourCount = hourRequestCounts.get(rateLimitKey).incrementAndGet();
-
-            if (minuteCount > maxRequestsPerMinute) {
-                response.setHeader("Retry-After", "60");
-                response.sendError(429, "Too many requests");
-                return;
-            }
-            if (hourCount > maxRequestsPerHour) {
-                response.setHeader("Retry-After", "3600");
-                response.sendError(429, "Too many requests");
-                return;
-            }
+        int minuteRemaining = minuteLimiter.tryAcquire(rateLimitKey);
+        int hourRemaining = hourLimiter.tryAcquire(rateLimitKey);
 
-            response.setHeader("X-RateLimit-Limit-Minute", String.valueOf(maxRequestsPerMinute));
-            response.setHeader("X-RateLimit-Remaining-Minute", String.valueOf(Math.max(0, maxRequestsPerMinute - minuteCount)));
-        } catch (ExecutionException ex) {
-            logger.warn("Rate limiter cache failure for key {}", rateLimitKey, ex);
+        if (minuteRemaining == RateLimiter.REJECTED) {
+            response.setHeader("Retry-After", "60");
+            response.sendError(429, "Too many requests");
+            return;
+        }
+        if (hourRemaining == RateLimiter.REJECTED) {
+            response.setHeader("Retry-After", "3600");
+            response.sendError(429, "Too many requests");
+            return;
         }
 
-        filterChain.doFilter(request, response);
-    }
+        response.setHeader("X-RateLimit-Limit-Minute", String.valueOf(maxRequestsPerMinute));
+        response.setHeader("X-RateLimit-Remaining-Minute", String.valueOf(minuteRemaining));
 
-    private String getClientIp(HttpServletRequest request) {
-        return clientMetadataService.resolveClientIp(request);
+        filterChain.doFilter(request, response);
     }
 
     private String getRateLimitKey(HttpServletRequest request) {
-        String clientIp = getClientIp(request);
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            String principal = authentication.getName();
-            if (principal != null && !principal.isBlank() && !"anonymousUser".equalsIgnoreCase(principal)) {
-                return clientIp + "|" + principal;
-            }
-        }
-        return clientIp + "|anonymous";
+        RequestClientContext client = clientMetadataService.context(request);
+        String principal = client.principal();
+        return client.ip() + "|" + (principal != null ? principal : "anonymous");
     }
 }
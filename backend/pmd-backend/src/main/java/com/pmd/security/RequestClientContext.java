@@ -0,0 +1,101 @@
+package com.pmd.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Who is on the other end of the current request, worked out once and kept as the
+ * {@value #ATTR} request attribute. {@link RequestIdFilter} creates it at the top of the chain;
+ * everything after it (filters, auth services, the audit trail) reads it through
+ * {@link ClientMetadataService#context} instead of re-parsing proxy headers and re-hashing.
+ *
+ * <p>The client IP and raw User-Agent are captured up front. The salted fingerprints and the
+ * storage and log forms built from them are computed on first use and then remembered, so a
+ * request that never writes a session or security event pays for no hashing at all. The
+ * principal is filled in by the JWT filter once the request is authenticated.
+ *
+ * <p>Not thread-safe: a request is handled by one thread at a time.
+ */
+public final class RequestClientContext {
+
+    public static final String ATTR = RequestClientContext.class.getName();
+
+    private final ClientMetadataService clientMetadataService;
+    private final String ip;
+    private final String userAgent;
+    private String ipFingerprint;
+    private String userAgentDigest;
+    private String ipForStorage;
+    private String userAgentForStorage;
+    private String principal;
+
+    RequestClientContext(ClientMetadataService clientMetadataService, String ip, String userAgent) {
+        this.clientMetadataService = clientMetadataService;
+        this.ip = ip;
+        this.userAgent = userAgent;
+    }
+
+    /** The context already attached to the request, or {@code null} outside of a filtered request. */
+    public static RequestClientContext current(HttpServletRequest request) {
+        if (request == null) {
+            return null;
+        }
+        Object attribute = request.getAttribute(ATTR);
+        return attribute instanceof RequestClientContext context ? context : null;
+    }
+
+    /** Client IP as {@link ClientMetadataService#resolveClientIp} resolved it. */
+    public String ip() {
+        return ip;
+    }
+
+    public String userAgent() {
+        return userAgent;
+    }
+
+    /** Salted, truncated SHA-256 of the IP; {@code null} without one. */
+    public String ipFingerprint() {
+        if (ipFingerprint == null && ip != null) {
+            ipFingerprint = clientMetadataService.fingerprint(ip);
+        }
+        return ipFingerprint;
+    }
+
+    /** Salted, truncated SHA-256 of the User-Agent; {@code null} without one. */
+    public String userAgentDigest() {
+        if (userAgentDigest == null && userAgent != null) {
+            userAgentDigest = clientMetadataService.fingerprint(userAgent);
+        }
+        return userAgentDigest;
+    }
+
+    public String ipForStorage() {
+        if (ipForStorage == null) {
+            ipForStorage = clientMetadataService.sanitizeIpForStorage(ip, this::ipFingerprint);
+        }
+        return ipForStorage;
+    }
+
+    public String userAgentForStorage() {
+        if (userAgentForStorage == null) {
+            userAgentForStorage = clientMetadataService.sanitizeUserAgentForStorage(userAgent, this::userAgentDigest);
+        }
+        return userAgentForStorage;
+    }
+
+    public String ipForLogs() {
+        return clientMetadataService.sanitizeIpForLogs(ip);
+    }
+
+    public String userAgentForLogs() {
+        return clientMetadataService.sanitizeUserAgentForLogs(userAgent);
+    }
+
+    /** Id of the authenticated user, or {@code null} while the request is anonymous. */
+    public String principal() {
+        return principal;
+    }
+
+    public void authenticatedAs(String userId) {
+        this.principal = userId;
+    }
+}
@@ -17,6 +17,12 @@ public class RequestIdFilter extends OncePerRequestFilter {
     public static final String ATTR = "requestId";
     private static final String MDC_KEY = "requestId";
 
+    private final ClientMetadataService clientMetadataService;
+
+    public RequestIdFilter(ClientMetadataService clientMetadataService) {
+        this.clientMetadataService = clientMetadataService;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -26,6 +32,7 @@ public class RequestIdFilter extends OncePerRequestFilter {
             requestId = UUID.randomUUID().toString();
         }
         request.setAttribute(ATTR, requestId);
+        clientMetadataService.context(request);
         response.setHeader(HEADER, requestId);
         MDC.put(MDC_KEY, requestId);
         try {
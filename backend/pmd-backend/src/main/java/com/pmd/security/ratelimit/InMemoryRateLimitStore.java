@@ -0,0 +1,33 @@
+package com.pmd.security.ratelimit;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The single-instance default: nothing leaves the process, so each limiter's own table is the
+ * whole truth and there is nothing to sync.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    @Override
+    public boolean shared() {
+        return false;
+    }
+
+    @Override
+    public Map<String, Totals> addAndGet(String limiter, long window, Duration windowLength, Map<String, Long> hits) {
+        Map<String, Totals> totals = new HashMap<>();
+        hits.forEach((key, count) -> totals.put(key, new Totals(0, count)));
+        return totals;
+    }
+
+    @Override
+    public void clear(String limiter, String key, long window, Duration windowLength, long resetAt) {
+    }
+
+    @Override
+    public Map<String, Long> resetsSince(String limiter, long sinceMillis) {
+        return Map.of();
+    }
+}
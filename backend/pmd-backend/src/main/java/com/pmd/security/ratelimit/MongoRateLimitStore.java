@@ -0,0 +1,110 @@
+package com.pmd.security.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Shared counts in {@value #COLLECTION}: one document per limiter, key and window, bumped with
+ * {@code $inc} (upserted, so concurrent instances never lose a hit) and removed by the TTL index
+ * on {@code expiresAt} once the window can no longer weigh into a count.
+ *
+ * <p>Each sync is one unordered bulk write for every key that saw hits since the last one, plus
+ * one read of the current and previous windows for every key still counting.
+ *
+ * <p>A reset also leaves a marker in {@value #RESETS_COLLECTION}, one document per limiter and
+ * key holding the last reset time, which the other instances poll for; it expires with the
+ * windows it cleared.
+ */
+public class MongoRateLimitStore implements RateLimitStore {
+
+    public static final String COLLECTION = "rate_limit_windows";
+    public static final String RESETS_COLLECTION = "rate_limit_resets";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoRateLimitStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Totals> addAndGet(String limiter, long window, Duration windowLength, Map<String, Long> hits) {
+        if (hits.isEmpty()) {
+            return Map.of();
+        }
+        // Kept until the end of the next window, the last moment it still counts as "previous".
+        Date expiresAt = new Date((window + 2) * windowLength.toMillis());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        List<String> ids = new ArrayList<>(hits.size() * 2);
+        boolean anyHits = false;
+        for (Map.Entry<String, Long> hit : hits.entrySet()) {
+            String key = hit.getKey();
+            if (hit.getValue() > 0) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(id(limiter, key, window))),
+                    new Update().inc("count", hit.getValue()).setOnInsert("expiresAt", expiresAt));
+                anyHits = true;
+            }
+            ids.add(id(limiter, key, window));
+            ids.add(id(limiter, key, window - 1));
+        }
+        if (anyHits) {
+            bulk.execute();
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Document document : mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), Document.class,
+            COLLECTION)) {
+            Object count = document.get("count");
+            counts.put(document.getString("_id"), count instanceof Number number ? number.longValue() : 0L);
+        }
+        Map<String, Totals> totals = new HashMap<>();
+        for (String key : hits.keySet()) {
+            totals.put(key, new Totals(
+                counts.getOrDefault(id(limiter, key, window - 1), 0L),
+                counts.getOrDefault(id(limiter, key, window), 0L)));
+        }
+        return totals;
+    }
+
+    @Override
+    public void clear(String limiter, String key, long window, Duration windowLength, long resetAt) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(id(limiter, key, window),
+            id(limiter, key, window - 1))), COLLECTION);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(limiter + ":" + key)),
+            new Update().set("limiter", limiter).set("key", key).max("resetAt", resetAt)
+                .set("expiresAt", new Date((window + 2) * windowLength.toMillis())),
+            RESETS_COLLECTION);
+    }
+
+    @Override
+    public Map<String, Long> resetsSince(String limiter, long sinceMillis) {
+        Query query = Query.query(Criteria.where("limiter").is(limiter).and("resetAt").gt(sinceMillis));
+        query.fields().include("key", "resetAt");
+        Map<String, Long> resets = new HashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, RESETS_COLLECTION)) {
+            Object resetAt = document.get("resetAt");
+            if (resetAt instanceof Number number) {
+                resets.put(document.getString("key"), number.longValue());
+            }
+        }
+        return resets;
+    }
+
+    private static String id(String limiter, String key, long window) {
+        return limiter + ":" + key + ":" + window;
+    }
+}
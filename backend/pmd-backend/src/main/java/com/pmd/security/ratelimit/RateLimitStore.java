@@ -0,0 +1,37 @@
+package com.pmd.security.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Where rate-limit counts are shared between backend instances.
+ *
+ * <p>Limiters always count locally first; a shared store receives each instance's new hits in
+ * batches from {@link RateLimiters#sync()} and answers with the totals from every instance, which
+ * the limiter then adds to its own count. Keys are opaque, stable ids derived from the limiter
+ * key (never the raw IP or username); windows are {@code epochMillis / windowLength}.
+ */
+public interface RateLimitStore {
+
+    /** Window totals across all instances. */
+    record Totals(long previous, long current) {
+    }
+
+    /** {@code false} for a per-instance store: limiters then skip syncing altogether. */
+    boolean shared();
+
+    /**
+     * Adds {@code hits} to each key's count for {@code window} and returns, for every key passed
+     * in, the totals for that window and the one before it. A key with zero hits is only read.
+     */
+    Map<String, Totals> addAndGet(String limiter, long window, Duration windowLength, Map<String, Long> hits);
+
+    /**
+     * Drops a key's counts for {@code window} and the one before it, e.g. after a successful login,
+     * and records the reset at {@code resetAt} (epoch millis) for {@link #resetsSince}.
+     */
+    void clear(String limiter, String key, long window, Duration windowLength, long resetAt);
+
+    /** Keys reset after {@code sinceMillis}, with when; how the other instances learn of a reset. */
+    Map<String, Long> resetsSince(String limiter, long sinceMillis);
+}
@@ -0,0 +1,25 @@
+package com.pmd.security.ratelimit;
+
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * {@code pmd.security.rate-limit.store=memory} (the default) keeps limits per instance;
+ * {@code mongo} shares them, which is what running more than one replica needs.
+ */
+@Configuration
+public class RateLimitStoreConfig {
+
+    @Bean
+    public RateLimitStore rateLimitStore(@Value("${pmd.security.rate-limit.store:memory}") String store,
+                                         MongoTemplate mongoTemplate) {
+        return switch (store.trim().toLowerCase(Locale.ROOT)) {
+            case "memory" -> new InMemoryRateLimitStore();
+            case "mongo" -> new MongoRateLimitStore(mongoTemplate);
+            default -> throw new IllegalStateException("Unknown pmd.security.rate-limit.store: " + store);
+        };
+    }
+}
@@ -0,0 +1,390 @@
+package com.pmd.security.ratelimit;
+
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Approximate sliding-window counter per key, in a fixed-size table of primitives.
+ *
+ * <p>Each slot is three longs: the key's 64-bit hash, a packed {@code window | previous | current}
+ * count word, and a blocked-until time. The count for "the last window" is the current window's
+ * hits plus the previous window's, weighted by how much of it still overlaps. Slots are updated
+ * with compare-and-set, so there is no lock and nothing is allocated per key.
+ *
+ * <p>The table never grows past {@code maxKeys}, rounded up to a power of two. A new key takes a
+ * free or stale slot among a few neighbours of its hash; when all of them are live, the one with
+ * the fewest hits is evicted (and counted), so a spray of one-off keys churns among itself instead of pushing heavy hitters out. Keys are
+ * hashed with a per-process seed, so nobody can pick a string that shares a slot on purpose.
+ *
+ * <p>With a shared {@link RateLimitStore} each slot also keeps the hits not yet pushed and the
+ * other instances' counts from the last {@link #sync()}, which are added to the local estimate.
+ * The store sees a stable id per key (a truncated SHA-256, the same on every instance) rather
+ * than the key itself. Blocks are imposed locally, but a {@link #reset} reaches every instance:
+ * each sync picks up the resets recorded in the store since the last one and clears those keys'
+ * counts and blocks.
+ */
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    /** Returned by {@link #tryAcquire} when the hit takes the key over its limit. */
+    public static final int REJECTED = -1;
+
+    private static final int PROBE = 8;
+    private static final int COUNT_BITS = 22;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int WINDOW_BITS = 64 - 2 * COUNT_BITS;
+    private static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+    // How far back each sync looks again for resets, in case instance clocks disagree.
+    private static final long RESET_SKEW_MILLIS = 5_000;
+
+    private final String name;
+    private final int limit;
+    private final Duration window;
+    private final long windowMillis;
+    private final int mask;
+    private final long seed = ThreadLocalRandom.current().nextLong() | 1;
+    private final LongSupplier clock;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray blockedUntil;
+    private final RateLimitStore store;
+    private final AtomicLongArray storeIds;
+    private final AtomicLongArray pending;
+    private final AtomicLongArray others;
+    private final AtomicLongArray resetSeen;
+    private volatile long resetsCheckedAt;
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+    private final Counter rejections;
+    private final Counter evictions;
+
+    RateLimiter(String name, int limit, Duration window, int maxKeys, MeterRegistry meterRegistry,
+                LongSupplier clock) {
+        this(name, limit, window, maxKeys, meterRegistry, clock, null);
+    }
+
+    RateLimiter(String name, int limit, Duration window, int maxKeys, MeterRegistry meterRegistry,
+                LongSupplier clock, RateLimitStore store) {
+        if (limit < 0 || window.toMillis() <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Invalid rate limiter " + name);
+        }
+        this.name = name;
+        this.limit = limit;
+        this.window = window;
+        this.windowMillis = window.toMillis();
+        int capacity = Integer.highestOneBit(Math.max(PROBE, maxKeys - 1) << 1);
+        this.mask = capacity - 1;
+        this.clock = clock;
+        this.keys = new AtomicLongArray(capacity);
+        this.counts = new AtomicLongArray(capacity);
+        this.blockedUntil = new AtomicLongArray(capacity);
+        this.store = store != null && store.shared() ? store : null;
+        this.storeIds = this.store != null ? new AtomicLongArray(capacity) : null;
+        this.pending = this.store != null ? new AtomicLongArray(capacity) : null;
+        this.others = this.store != null ? new AtomicLongArray(capacity) : null;
+        this.resetSeen = this.store != null ? new AtomicLongArray(capacity) : null;
+        this.resetsCheckedAt = clock.getAsLong();
+        this.rejections = Counter.builder("pmd.ratelimit.rejections")
+            .description("Requests refused by a rate limiter")
+            .tag("limiter", name)
+            .register(meterRegistry);
+        this.evictions = Counter.builder("pmd.ratelimit.evictions")
+            .description("Live keys dropped because the limiter's table was full around them")
+            .tag("limiter", name)
+            .register(meterRegistry);
+        Gauge.builder("pmd.ratelimit.keys", trackedKeys, AtomicInteger::get)
+            .description("Slots of the limiter's table holding a key")
+            .tag("limiter", name)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Counts one hit for the key and returns how many remain in the window, or {@link #REJECTED}
+     * when this hit is over the limit. Rejected hits are counted too, so a client that keeps
+     * hammering stays limited.
+     */
+    public int tryAcquire(String key) {
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        int slot = claim(hash(key), key, window, now);
+        long estimate;
+        while (true) {
+            long word = counts.get(slot);
+            long previous = previousCount(word, window);
+            long current = Math.min(currentCount(word, window) + 1, COUNT_MASK);
+            if (counts.compareAndSet(slot, word, pack(window, previous, current))) {
+                estimate = current + weighted(previous, now);
+                break;
+            }
+        }
+        if (store != null) {
+            pending.incrementAndGet(slot);
+            long other = others.get(slot);
+            estimate += currentCount(other, window) + weighted(previousCount(other, window), now);
+        }
+        if (estimate > limit) {
+            rejections.increment();
+            return REJECTED;
+        }
+        return (int) (limit - estimate);
+    }
+
+    /** Refuses the key in {@link #isBlocked} until {@code duration} from now. */
+    public void block(String key, Duration duration) {
+        long now = clock.getAsLong();
+        int slot = claim(hash(key), key, now / windowMillis, now);
+        long until = now + duration.toMillis();
+        blockedUntil.accumulateAndGet(slot, until, Math::max);
+    }
+
+    public boolean isBlocked(String key) {
+        int slot = find(hash(key));
+        if (slot >= 0 && blockedUntil.get(slot) > clock.getAsLong()) {
+            rejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /** Forgets the key's hits and any block, on every instance when the store is shared. */
+    public void reset(String key) {
+        long now = clock.getAsLong();
+        int slot = find(hash(key));
+        if (slot >= 0) {
+            forget(slot, now);
+        }
+        if (store != null) {
+            try {
+                store.clear(name, storeKey(stableId(key)), now / windowMillis, window, now);
+            } catch (RuntimeException ex) {
+                logger.warn("Rate limit store clear failed for limiter {}: {}", name, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies the resets other instances recorded since the last call, then pushes the hits
+     * counted since the last call to the shared store and takes back the other instances' counts
+     * for every key still counting. Does nothing for a per-instance limiter. When the store is
+     * unreachable the hits are kept for the next call and the limiter goes on with what it
+     * already knows.
+     */
+    public void sync() {
+        if (store == null) {
+            return;
+        }
+        applyResets();
+        long window = clock.getAsLong() / windowMillis;
+        Map<String, Long> hits = new HashMap<>();
+        Map<String, Integer> slots = new HashMap<>();
+        for (int slot = 0; slot <= mask; slot++) {
+            if (keys.get(slot) == 0) {
+                continue;
+            }
+            long count = pending.getAndSet(slot, 0);
+            if (count > 0 || counting(slot, window)) {
+                String storeKey = storeKey(storeIds.get(slot));
+                hits.merge(storeKey, count, Long::sum);
+                slots.put(storeKey, slot);
+            }
+        }
+        if (hits.isEmpty()) {
+            return;
+        }
+        Map<String, RateLimitStore.Totals> totals;
+        try {
+            totals = store.addAndGet(name, window, this.window, hits);
+        } catch (RuntimeException ex) {
+            hits.forEach((storeKey, count) -> pending.addAndGet(slots.get(storeKey), count));
+            logger.warn("Rate limit store sync failed for limiter {}: {}", name, ex.getMessage());
+            return;
+        }
+        slots.forEach((storeKey, slot) -> {
+            RateLimitStore.Totals total = totals.get(storeKey);
+            if (total == null) {
+                return;
+            }
+            long word = counts.get(slot);
+            long previous = Math.max(0, total.previous() - previousCount(word, window));
+            long current = Math.max(0, total.current() - currentCount(word, window));
+            others.set(slot, pack(window, Math.min(previous, COUNT_MASK), Math.min(current, COUNT_MASK)));
+        });
+    }
+
+    private void applyResets() {
+        long checkedAt = clock.getAsLong();
+        Map<String, Long> resets;
+        try {
+            resets = store.resetsSince(name, resetsCheckedAt - RESET_SKEW_MILLIS);
+        } catch (RuntimeException ex) {
+            logger.warn("Rate limit store reset poll failed for limiter {}: {}", name, ex.getMessage());
+            return;
+        }
+        if (!resets.isEmpty()) {
+            for (int slot = 0; slot <= mask; slot++) {
+                if (keys.get(slot) == 0) {
+                    continue;
+                }
+                Long resetAt = resets.get(storeKey(storeIds.get(slot)));
+                // Resets seen before, or older than the slot's key, are already reflected in it.
+                if (resetAt != null && resetAt > resetSeen.get(slot)) {
+                    forget(slot, resetAt);
+                }
+            }
+        }
+        resetsCheckedAt = checkedAt;
+    }
+
+    /** Whether the slot still has hits of its own or of other instances that weigh into a count. */
+    private boolean counting(int slot, long window) {
+        long word = counts.get(slot);
+        long other = others.get(slot);
+        return currentCount(word, window) + previousCount(word, window)
+            + currentCount(other, window) + previousCount(other, window) > 0;
+    }
+
+    private void forget(int slot, long resetAt) {
+        counts.set(slot, 0);
+        blockedUntil.set(slot, 0);
+        if (store != null) {
+            pending.set(slot, 0);
+            others.set(slot, 0);
+            resetSeen.accumulateAndGet(slot, resetAt, Math::max);
+        }
+    }
+
+    private int find(long hash) {
+        int base = (int) (hash ^ (hash >>> 32)) & mask;
+        for (int i = 0; i < PROBE; i++) {
+            int slot = (base + i) & mask;
+            if (keys.get(slot) == hash) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int claim(long hash, String key, long window, long now) {
+        int base = (int) (hash ^ (hash >>> 32)) & mask;
+        while (true) {
+            int victim = -1;
+            long victimWeight = Long.MAX_VALUE;
+            for (int i = 0; i < PROBE; i++) {
+                int slot = (base + i) & mask;
+                long owner = keys.get(slot);
+                if (owner == hash) {
+                    return slot;
+                }
+                if (owner == 0) {
+                    if (keys.compareAndSet(slot, 0, hash)) {
+                        clearSlot(slot, key, now);
+                        trackedKeys.incrementAndGet();
+                        return slot;
+                    }
+                    owner = keys.get(slot);
+                    if (owner == hash) {
+                        return slot;
+                    }
+                }
+                long weight = weight(slot, window, now);
+                if (weight < victimWeight) {
+                    victim = slot;
+                    victimWeight = weight;
+                }
+            }
+            // Approximate on purpose: a hit racing with the takeover may land on either key.
+            long previousOwner = keys.get(victim);
+            if (keys.compareAndSet(victim, previousOwner, hash)) {
+                clearSlot(victim, key, now);
+                if (victimWeight > 0) {
+                    evictions.increment();
+                }
+                return victim;
+            }
+        }
+    }
+
+    private void clearSlot(int slot, String key, long now) {
+        counts.set(slot, 0);
+        blockedUntil.set(slot, 0);
+        if (store != null) {
+            storeIds.set(slot, stableId(key));
+            pending.set(slot, 0);
+            others.set(slot, 0);
+            resetSeen.set(slot, now);
+        }
+    }
+
+    /** How much is lost by evicting this slot: zero once its hits and block have lapsed. */
+    private long weight(int slot, long window, long now) {
+        if (blockedUntil.get(slot) > now) {
+            return Long.MAX_VALUE - 1;
+        }
+        long word = counts.get(slot);
+        return currentCount(word, window) + previousCount(word, window);
+    }
+
+    private long weighted(long previous, long now) {
+        return previous * (windowMillis - now % windowMillis) / windowMillis;
+    }
+
+    private static long currentCount(long word, long window) {
+        return windowOf(word) == (window & WINDOW_MASK) ? word & COUNT_MASK : 0;
+    }
+
+    private static long previousCount(long word, long window) {
+        long stored = windowOf(word);
+        if (stored == (window & WINDOW_MASK)) {
+            return (word >>> COUNT_BITS) & COUNT_MASK;
+        }
+        if (stored == ((window - 1) & WINDOW_MASK)) {
+            return word & COUNT_MASK;
+        }
+        return 0;
+    }
+
+    private static long windowOf(long word) {
+        return word >>> (2 * COUNT_BITS);
+    }
+
+    private static long pack(long window, long previous, long current) {
+        return ((window & WINDOW_MASK) << (2 * COUNT_BITS)) | (previous << COUNT_BITS) | current;
+    }
+
+    /** Unlike {@link #hash}, the same on every instance, and not reversible to the key. */
+    private static long stableId(String key) {
+        return Hashing.sha256().hashUnencodedChars(key == null ? "" : key).asLong();
+    }
+
+    private static String storeKey(long stableId) {
+        return HexFormat.of().toHexDigits(stableId);
+    }
+
+    private long hash(String key) {
+        long h = seed;
+        if (key != null) {
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pmd.security.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the {@link RateLimiter}s the filters and services own, wired to the shared metrics
+ * and the configured {@link RateLimitStore}. Each limiter is named; the name is the
+ * {@code limiter} tag on its rejection, eviction and key-count meters, and its namespace in a
+ * shared store.
+ */
+@Component
+public class RateLimiters {
+
+    private final MeterRegistry meterRegistry;
+    private final RateLimitStore store;
+    private final List<RateLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    public RateLimiters(MeterRegistry meterRegistry, RateLimitStore store) {
+        this.meterRegistry = meterRegistry;
+        this.store = store;
+    }
+
+    public RateLimiter create(String name, int limit, Duration window, int maxKeys) {
+        RateLimiter limiter = new RateLimiter(name, limit, window, maxKeys, meterRegistry,
+            System::currentTimeMillis, store);
+        limiters.add(limiter);
+        return limiter;
+    }
+
+    /**
+     * Exchanges counts with the shared store. Limits are enforced across instances up to this
+     * interval late: between syncs each instance only sees its own new hits.
+     */
+    @Scheduled(fixedDelayString = "${pmd.security.rate-limit.sync-interval-ms:250}")
+    public void sync() {
+        if (!store.shared()) {
+            return;
+        }
+        for (RateLimiter limiter : limiters) {
+            limiter.sync();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.pmd.stats.controller;
 
 import com.pmd.auth.security.UserPrincipal;
+import com.pmd.project.dto.ProjectFilterRequest;
+import com.pmd.project.service.ProjectQuery;
 import com.pmd.stats.dto.PeopleOverviewStatsResponse;
 import com.pmd.stats.dto.PeopleUserStatsResponse;
 import com.pmd.stats.dto.UserStatsResponse;
@@ -39,26 +41,29 @@ public class StatsController {
                                                      @RequestParam(value = "teams", required = false) List<String> teams,
                                                      @RequestParam(value = "assignedToMe", required = false, defaultValue = "false")
                                                      boolean assignedToMe,
+                                                     ProjectFilterRequest filter,
                                                      Authentication authentication) {
         User requester = getRequester(authentication);
         workspaceService.requireWorkspacePermission(requester, workspaceId, WorkspacePermission.VIEW_STATS);
-        return statsService.getWorkspaceDashboardStats(workspaceId, requester, teams, assignedToMe);
+        return statsService.getWorkspaceDashboardStats(
+            workspaceId, requester, teams, assignedToMe, ProjectQuery.from(workspaceId, filter));
     }
 
     @GetMapping("/user/me")
-    public UserStatsResponse myStats(@PathVariable String workspaceId, Authentication authentication) {
+    public UserStatsResponse myStats(@PathVariable String workspaceId, ProjectFilterRequest filter,
+                                     Authentication authentication) {
         User requester = getRequester(authentication);
         workspaceService.requireWorkspacePermission(requester, workspaceId, WorkspacePermission.VIEW_STATS);
-        return statsService.getUserStats(workspaceId, requester, requester);
+        return statsService.getUserStats(workspaceId, requester, requester, ProjectQuery.from(workspaceId, filter));
     }
 
     @GetMapping("/user/{id}")
     public UserStatsResponse userStats(@PathVariable String workspaceId, @PathVariable String id,
-                                       Authentication authentication) {
+                                       ProjectFilterRequest filter, Authentication authentication) {
         User requester = getRequester(authentication);
         workspaceService.requireWorkspacePermission(requester, workspaceId, WorkspacePermission.VIEW_STATS);
         User target = userService.findById(id);
-        return statsService.getUserStats(workspaceId, requester, target);
+        return statsService.getUserStats(workspaceId, requester, target, ProjectQuery.from(workspaceId, filter));
     }
 
     @GetMapping("/people/overview")
@@ -70,11 +75,12 @@ public class StatsController {
 
     @GetMapping("/people/{id}")
     public PeopleUserStatsResponse peopleUser(@PathVariable String workspaceId, @PathVariable String id,
-                                              Authentication authentication) {
+                                              ProjectFilterRequest filter, Authentication authentication) {
         User requester = getRequester(authentication);
         workspaceService.requireWorkspacePermission(requester, workspaceId, WorkspacePermission.VIEW_STATS);
         User target = userService.findById(id);
-        return statsService.getPeopleUserStats(workspaceId, requester, target);
+        return statsService.getPeopleUserStats(
+            workspaceId, requester, target, ProjectQuery.from(workspaceId, filter));
     }
 
     private User getRequester(Authentication authentication) {
@@ -0,0 +1,32 @@
+package com.pmd.stats.event;
+
+/**
+ * Published after a write that can change what the stats endpoints return for a workspace:
+ * projects, teams or memberships.
+ */
+public class WorkspaceStatsChanged {
+
+    /** What was written; listeners holding project-derived state keep it on {@link #PROJECTS}. */
+    public enum Change {
+        PROJECTS,
+        TEAMS,
+        MEMBERSHIP,
+        ALL
+    }
+
+    private final String workspaceId;
+    private final Change change;
+
+    public WorkspaceStatsChanged(String workspaceId, Change change) {
+        this.workspaceId = workspaceId;
+        this.change = change;
+    }
+
+    public String getWorkspaceId() {
+        return workspaceId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pmd.stats.model;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-workspace dashboard counters, keyed by workspace id. Counters are a flat map so every
+ * project write can adjust them with a single {@code $inc}; see {@code WorkspaceStatsService}
+ * for the key layout.
+ */
+@Document("workspace_stats")
+public class WorkspaceStats {
+
+    @Id
+    private String id;
+
+    private Map<String, Long> counters = new HashMap<>();
+
+    private Instant rebuiltAt;
+
+    /** Bumped by every change to {@code counters}; missing on documents written before it existed. */
+    private Long version;
+
+    /** Project writes that have marked this document and not yet applied their increment. */
+    private Long pending;
+
+    /** When a project write last marked or incremented this document. */
+    private Instant changedAt;
+
+    public WorkspaceStats() {
+    }
+
+    public WorkspaceStats(String id, Map<String, Long> counters, Instant rebuiltAt) {
+        this.id = id;
+        this.counters = counters;
+        this.rebuiltAt = rebuiltAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(Map<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    public Instant getRebuiltAt() {
+        return rebuiltAt;
+    }
+
+    public void setRebuiltAt(Instant rebuiltAt) {
+        this.rebuiltAt = rebuiltAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getPending() {
+        return pending;
+    }
+
+    public void setPending(Long pending) {
+        this.pending = pending;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,123 @@
+package com.pmd.stats.service;
+
+import com.pmd.project.model.Project;
+import com.pmd.project.model.ProjectStatus;
+import com.pmd.project.service.ProjectQuery;
+import com.pmd.stats.service.WorkspaceStatsService.TeamCounters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the projects matching a {@link ProjectQuery} into the same per-team counters the
+ * {@code workspace_stats} read model stores, so every stats endpoint builds its slices from one
+ * shape.
+ *
+ * <p>{@code pmd.stats.engine=aggregation} (the default) runs a single {@code $facet} pipeline and
+ * only the grouped counts leave Mongo; {@code java} loads the matching projects and tallies them
+ * in memory, which is the original behaviour and the reference the aggregation is tested against.
+ */
+@Component
+public class ProjectStatsEngine {
+
+    public enum Mode {
+        AGGREGATION,
+        JAVA
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Mode mode;
+
+    public ProjectStatsEngine(MongoTemplate mongoTemplate, @Value("${pmd.stats.engine:aggregation}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public Map<String, TeamCounters> count(ProjectQuery query) {
+        return mode == Mode.JAVA ? countInJava(query) : countWithAggregation(query);
+    }
+
+    Map<String, TeamCounters> countInJava(ProjectQuery query) {
+        List<WorkspaceStatsService.ProjectSnapshot> projects = mongoTemplate.find(query.toQuery(), Project.class).stream()
+            .map(WorkspaceStatsService.ProjectSnapshot::of)
+            .toList();
+        return WorkspaceStatsService.tally(projects);
+    }
+
+    Map<String, TeamCounters> countWithAggregation(ProjectQuery query) {
+        Document facets = mongoTemplate.aggregate(pipeline(query), Project.class, Document.class)
+            .getUniqueMappedResult();
+        return fromFacets(facets);
+    }
+
+    static Aggregation pipeline(ProjectQuery query) {
+        List<String> activeStatuses = ProjectQuery.ACTIVE_STATUSES.stream().map(ProjectStatus::name).toList();
+        return Aggregation.newAggregation(
+            Aggregation.match(query.toCriteria()),
+            context -> new Document("$project", new Document("teamId", 1)
+                .append("status", new Document("$ifNull", List.of("$status", ProjectStatus.NOT_STARTED.name())))
+                .append("members", new Document("$setUnion", List.of(new Document("$filter", new Document(
+                    "input", new Document("$ifNull", List.of("$memberIds", List.of())))
+                    .append("cond", new Document("$ne", List.of("$$this", null)))))))),
+            context -> new Document("$facet", new Document()
+                .append("statuses", List.of(new Document("$group", new Document("_id",
+                    new Document("team", "$teamId").append("status", "$status"))
+                    .append("count", new Document("$sum", 1)))))
+                .append("membership", List.of(new Document("$group", new Document("_id",
+                    new Document("team", "$teamId")
+                        .append("assigned", new Document("$gt", List.of(new Document("$size", "$members"), 0))))
+                    .append("count", new Document("$sum", 1)))))
+                .append("workload", List.of(
+                    new Document("$match", new Document("status", new Document("$in", activeStatuses))),
+                    new Document("$unwind", "$members"),
+                    new Document("$group", new Document("_id",
+                        new Document("team", "$teamId").append("member", "$members"))
+                        .append("count", new Document("$sum", 1)))
+                )))
+        );
+    }
+
+    static Map<String, TeamCounters> fromFacets(Document facets) {
+        Map<String, Long> counters = new HashMap<>();
+        if (facets == null) {
+            return WorkspaceStatsService.decode(counters);
+        }
+        for (Document row : facets.getList("statuses", Document.class, List.of())) {
+            Document id = row.get("_id", Document.class);
+            ProjectStatus status;
+            try {
+                status = ProjectStatus.valueOf(id.getString("status"));
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                continue;
+            }
+            counters.merge(WorkspaceStatsService.statusKey(id.getString("team"), status), count(row), Long::sum);
+        }
+        for (Document row : facets.getList("membership", Document.class, List.of())) {
+            Document id = row.get("_id", Document.class);
+            boolean assigned = Boolean.TRUE.equals(id.getBoolean("assigned"));
+            counters.merge(WorkspaceStatsService.membershipKey(id.getString("team"), assigned), count(row), Long::sum);
+        }
+        for (Document row : facets.getList("workload", Document.class, List.of())) {
+            Document id = row.get("_id", Document.class);
+            Object member = id.get("member");
+            String key = member instanceof String memberId
+                ? WorkspaceStatsService.workloadKey(id.getString("team"), memberId)
+                : null;
+            if (key != null) {
+                counters.merge(key, count(row), Long::sum);
+            }
+        }
+        return WorkspaceStatsService.decode(counters);
+    }
+
+    private static long count(Document row) {
+        Object value = row.get("count");
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -0,0 +1,86 @@
+package com.pmd.stats.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache in front of {@link StatsService}. Entries are keyed by workspace, view and every
+ * input that changes the response (filters, assigned-to-me viewer, admin visibility, target user).
+ *
+ * <p>Invalidation bumps a per-workspace generation that is part of the key rather than removing
+ * entries, so a computation that started before a write can only populate a key nobody will ask
+ * for again. Concurrent misses for the same key wait on the one computation in flight.
+ *
+ * <p>Writes that do not publish {@link WorkspaceStatsChanged}, such as a profile team change,
+ * are picked up once the entry expires.
+ */
+@Component
+public class StatsCache {
+
+    private record Key(String workspaceId, long generation, String view, List<Object> inputs) {
+    }
+
+    private final Cache<Key, Object> cache;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public StatsCache(MeterRegistry meterRegistry,
+                      @Value("${pmd.stats.cache.max-entries:1000}") long maxEntries,
+                      @Value("${pmd.stats.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, "pmd.stats");
+    }
+
+    /** Inputs may contain nulls; they are compared with {@code equals}, so use value types. */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String workspaceId, String view, List<Object> inputs, Supplier<T> compute) {
+        Key key = new Key(workspaceId, generations.getOrDefault(workspaceId, 0L), view, inputs);
+        Timer timer = Timer.builder("pmd.stats.compute")
+            .description("Time spent computing a stats response on a cache miss")
+            .tag("view", view)
+            .register(meterRegistry);
+        try {
+            return (T) cache.get(key, () -> timer.record(compute));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public void invalidate(String workspaceId) {
+        if (workspaceId != null) {
+            generations.merge(workspaceId, 1L, Long::sum);
+        }
+    }
+
+    @EventListener
+    public void onWorkspaceStatsChanged(WorkspaceStatsChanged event) {
+        invalidate(event.getWorkspaceId());
+    }
+}
@@ -1,9 +1,8 @@
 package com.pmd.stats.service;
 
 import com.pmd.auth.policy.AccessPolicy;
-import com.pmd.project.model.Project;
 import com.pmd.project.model.ProjectStatus;
-import com.pmd.project.repository.ProjectRepository;
+import com.pmd.project.service.ProjectQuery;
 import com.pmd.team.model.Team;
 import com.pmd.team.service.TeamService;
 import com.pmd.stats.dto.DashboardCounters;
@@ -15,41 +14,65 @@ import com.pmd.stats.dto.WorkspaceDashboardStatsResponse;
 import com.pmd.user.model.User;
 import com.pmd.user.service.UserService;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalDouble;
 import java.util.Set;
 import org.springframework.http.HttpStatus;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class StatsService {
 
-    private final ProjectRepository projectRepository;
     private final AccessPolicy accessPolicy;
     private final TeamService teamService;
     private final UserService userService;
-
-    public StatsService(ProjectRepository projectRepository,
-                        AccessPolicy accessPolicy, TeamService teamService, UserService userService) {
-        this.projectRepository = projectRepository;
+    private final ProjectStatsEngine projectStatsEngine;
+    private final WorkspaceStatsService workspaceStatsService;
+    private final StatsCache statsCache;
+    private final WorkloadIndex workloadIndex;
+
+    public StatsService(AccessPolicy accessPolicy, TeamService teamService, UserService userService,
+                        ProjectStatsEngine projectStatsEngine, WorkspaceStatsService workspaceStatsService,
+                        StatsCache statsCache, WorkloadIndex workloadIndex) {
         this.accessPolicy = accessPolicy;
         this.teamService = teamService;
         this.userService = userService;
+        this.projectStatsEngine = projectStatsEngine;
+        this.workspaceStatsService = workspaceStatsService;
+        this.statsCache = statsCache;
+        this.workloadIndex = workloadIndex;
     }
 
     public WorkspaceDashboardStatsResponse getWorkspaceDashboardStats(String workspaceId, User requester, List<String> teamFilters,
-                                                                      boolean assignedToMe) {
+                                                                      boolean assignedToMe, ProjectQuery filter) {
         boolean isAdmin = accessPolicy.isAdmin(requester);
-        List<Project> projects = projectRepository.findByWorkspaceId(
-            workspaceId,
-            Sort.by(Sort.Direction.DESC, "createdAt")
-        );
+        ProjectQuery query = filter != null ? filter : ProjectQuery.forWorkspace(workspaceId);
+        Set<String> selectedTeams = new HashSet<>(query.teamIds());
+        selectedTeams.addAll(normalizeTeams(teamFilters));
+        query = query.withTeamIds(selectedTeams);
+        if (assignedToMe) {
+            query = query.withMemberId(requester.getId());
+        }
+        ProjectQuery scopedQuery = query;
+        return statsCache.get(workspaceId, "dashboard", List.of(scopedQuery, assignedToMe, isAdmin),
+            () -> computeWorkspaceDashboardStats(workspaceId, isAdmin, selectedTeams, assignedToMe, scopedQuery));
+    }
+
+    private WorkspaceDashboardStatsResponse computeWorkspaceDashboardStats(String workspaceId, boolean isAdmin,
+                                                                           Set<String> selectedTeams,
+                                                                           boolean assignedToMe, ProjectQuery query) {
+        // The read model holds workspace-wide counters per team, so it can answer any team
+        // selection; other filters and the assigned-to-me view still count the matching projects.
+        Map<String, WorkspaceStatsService.TeamCounters> countersByTeam = assignedToMe || query.hasNonTeamFilters()
+            ? projectStatsEngine.count(query)
+            : workspaceStatsService.load(workspaceId);
         List<User> visibleUsers = userService.listUsersForWorkspace(workspaceId, isAdmin);
         Map<String, String> userTeams = new HashMap<>();
         Map<String, String> teamLabels = new HashMap<>();
@@ -75,69 +98,79 @@ public class StatsService {
             .filter(Objects::nonNull)
             .toList();
 
-        if (assignedToMe) {
-            projects = projects.stream()
-                .filter(project -> project.getMemberIds() != null && project.getMemberIds().contains(requester.getId()))
-                .toList();
+        Map<ProjectStatus, Long> statusCounts = new EnumMap<>(ProjectStatus.class);
+        Map<String, Long> teamCounts = new HashMap<>();
+        Map<String, Long> workloadCounts = new HashMap<>();
+        long assignedCount = 0;
+        long unassignedCount = 0;
+        for (Map.Entry<String, WorkspaceStatsService.TeamCounters> entry : countersByTeam.entrySet()) {
+            String projectTeam = entry.getKey();
+            boolean hasTeam = !WorkspaceStatsService.NO_TEAM.equals(projectTeam);
+            if (!selectedTeams.isEmpty() && (!hasTeam || !selectedTeams.contains(projectTeam))) {
+                continue;
+            }
+            WorkspaceStatsService.TeamCounters counters = entry.getValue();
+            counters.statuses().forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+            assignedCount += counters.assigned();
+            unassignedCount += counters.unassigned();
+            if (hasTeam && counters.total() > 0) {
+                teamCounts.merge(projectTeam, counters.total(), Long::sum);
+            }
+            counters.activeByUser().forEach((memberId, count) -> {
+                String teamId = userTeams.get(memberId);
+                if (teamId == null) {
+                    return;
+                }
+                if (!selectedTeams.isEmpty() && !selectedTeams.contains(teamId)) {
+                    return;
+                }
+                workloadCounts.merge(teamId, count, Long::sum);
+            });
         }
 
-        Set<String> selectedTeams = normalizeTeams(teamFilters);
-
-        List<Project> scopedProjects = filterProjectsByTeams(projects, selectedTeams);
-
-        long assignedCount = scopedProjects.stream()
-            .filter(project -> project.getMemberIds() != null && !project.getMemberIds().isEmpty())
-            .count();
-        long inProgressCount = scopedProjects.stream()
-            .filter(project -> (project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED)
-                == ProjectStatus.IN_PROGRESS)
-            .count();
-        long completedCount = scopedProjects.stream()
-            .filter(project -> (project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED)
-                == ProjectStatus.COMPLETED)
-            .count();
-        long unassignedCount = scopedProjects.stream()
-            .filter(project -> project.getMemberIds() == null || project.getMemberIds().isEmpty())
-            .count();
-        long canceledCount = scopedProjects.stream()
-            .filter(project -> (project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED)
-                == ProjectStatus.CANCELED)
-            .count();
-        long archivedCount = scopedProjects.stream()
-            .filter(project -> (project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED)
-                == ProjectStatus.ARCHIVED)
-            .count();
-
-        List<StatSlice> statusBreakdown = buildStatusBreakdown(scopedProjects);
-        List<StatSlice> projectsByTeam = buildProjectsByTeam(scopedProjects, selectedTeams, teamLabels);
-        List<StatSlice> workloadByTeam = buildWorkloadByTeam(scopedProjects, selectedTeams, userTeams, teamLabels);
+        List<StatSlice> statusBreakdown = buildStatusBreakdown(statusCounts);
+        List<StatSlice> projectsByTeam = toTeamSlices(teamCounts, teamLabels);
+        List<StatSlice> workloadByTeam = toTeamSlices(workloadCounts, teamLabels);
 
         WorkspaceDashboardStatsResponse.DashboardPies pies =
             new WorkspaceDashboardStatsResponse.DashboardPies(statusBreakdown, projectsByTeam, workloadByTeam);
         WorkspaceDashboardStatsResponse.StatsScope scope =
             new WorkspaceDashboardStatsResponse.StatsScope(
                 availableTeams,
-                normalizeTeamsOriginal(teamFilters, availableTeams),
+                normalizeTeamsOriginal(List.copyOf(selectedTeams), availableTeams),
                 assignedToMe
             );
 
         return new WorkspaceDashboardStatsResponse(
-            new DashboardCounters(unassignedCount, assignedCount, inProgressCount, completedCount, canceledCount,
-                archivedCount),
+            new DashboardCounters(
+                unassignedCount,
+                assignedCount,
+                statusCounts.getOrDefault(ProjectStatus.IN_PROGRESS, 0L),
+                statusCounts.getOrDefault(ProjectStatus.COMPLETED, 0L),
+                statusCounts.getOrDefault(ProjectStatus.CANCELED, 0L),
+                statusCounts.getOrDefault(ProjectStatus.ARCHIVED, 0L)
+            ),
             pies,
             scope
         );
     }
 
-    public UserStatsResponse getUserStats(String workspaceId, User requester, User target) {
+    public UserStatsResponse getUserStats(String workspaceId, User requester, User target, ProjectQuery filter) {
         assertUserInWorkspace(workspaceId, target);
         accessPolicy.assertCanViewUser(requester, target);
-        List<Project> projects = projectRepository.findByWorkspaceIdAndMemberIdsContaining(workspaceId, target.getId());
+        boolean isAdmin = accessPolicy.isAdmin(requester);
+        ProjectQuery query = memberScoped(workspaceId, target, filter);
+        return statsCache.get(workspaceId, "user", Arrays.asList(query, target.getTeamId(), isAdmin),
+            () -> computeUserStats(workspaceId, isAdmin, target, query));
+    }
 
-        List<StatSlice> statusBreakdown = buildStatusBreakdown(projects);
-        List<StatSlice> activeInactiveBreakdown = buildActiveInactiveBreakdown(projects);
+    private UserStatsResponse computeUserStats(String workspaceId, boolean isAdmin, User target, ProjectQuery query) {
+        Map<ProjectStatus, Long> statusCounts = countStatuses(query);
 
-        UserStatsResponse.TeamAverages teamAverages = buildTeamAverages(workspaceId, requester, target);
+        List<StatSlice> statusBreakdown = buildStatusBreakdown(statusCounts);
+        List<StatSlice> activeInactiveBreakdown = buildActiveInactiveBreakdown(statusCounts);
+
+        UserStatsResponse.TeamAverages teamAverages = buildTeamAverages(workspaceId, isAdmin, target);
 
         return new UserStatsResponse(
             target.getId(),
@@ -151,6 +184,11 @@ public class StatsService {
 
     public PeopleOverviewStatsResponse getPeopleOverview(String workspaceId, User requester) {
         boolean isAdmin = accessPolicy.isAdmin(requester);
+        return statsCache.get(workspaceId, "people-overview", List.of(isAdmin),
+            () -> computePeopleOverview(workspaceId, isAdmin));
+    }
+
+    private PeopleOverviewStatsResponse computePeopleOverview(String workspaceId, boolean isAdmin) {
         List<User> visibleUsers = userService.listUsersForWorkspace(workspaceId, isAdmin);
         Map<String, String> teamLabels = new HashMap<>();
         Map<String, String> userTeams = new HashMap<>();
@@ -170,11 +208,6 @@ public class StatsService {
             userTeams.put(user.getId(), teamId);
         }
 
-        List<Project> projects = projectRepository.findByWorkspaceId(
-            workspaceId,
-            Sort.by(Sort.Direction.DESC, "createdAt")
-        );
-
         Map<String, Long> peopleCounts = new HashMap<>();
         for (User user : visibleUsers) {
             String teamId = user.getTeamId();
@@ -185,18 +218,13 @@ public class StatsService {
         }
 
         Map<String, Long> activeAssignments = new HashMap<>();
-        for (Project project : projects) {
-            ProjectStatus status = project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED;
-            if (status != ProjectStatus.NOT_STARTED && status != ProjectStatus.IN_PROGRESS) {
-                continue;
-            }
-            for (String memberId : project.getMemberIds() != null ? project.getMemberIds() : List.<String>of()) {
+        for (WorkspaceStatsService.TeamCounters counters : workspaceStatsService.load(workspaceId).values()) {
+            counters.activeByUser().forEach((memberId, count) -> {
                 String teamId = userTeams.get(memberId);
-                if (teamId == null) {
-                    continue;
+                if (teamId != null) {
+                    activeAssignments.merge(teamId, count, Long::sum);
                 }
-                activeAssignments.put(teamId, activeAssignments.getOrDefault(teamId, 0L) + 1);
-            }
+            });
         }
 
         List<StatSlice> peopleByTeam = peopleCounts.entrySet().stream()
@@ -212,17 +240,21 @@ public class StatsService {
         return new PeopleOverviewStatsResponse(pies);
     }
 
-    public PeopleUserStatsResponse getPeopleUserStats(String workspaceId, User requester, User target) {
+    public PeopleUserStatsResponse getPeopleUserStats(String workspaceId, User requester, User target,
+                                                      ProjectQuery filter) {
         assertUserInWorkspace(workspaceId, target);
         accessPolicy.assertCanViewUser(requester, target);
-        List<Project> projects = projectRepository.findByWorkspaceIdAndMemberIdsContaining(workspaceId, target.getId());
-        List<StatSlice> statusBreakdown = buildStatusBreakdown(projects);
-        List<StatSlice> activeInactiveBreakdown = buildActiveInactiveBreakdown(projects);
+        ProjectQuery query = memberScoped(workspaceId, target, filter);
+        return statsCache.get(workspaceId, "people-user", List.of(query), () -> {
+            Map<ProjectStatus, Long> statusCounts = countStatuses(query);
+            List<StatSlice> statusBreakdown = buildStatusBreakdown(statusCounts);
+            List<StatSlice> activeInactiveBreakdown = buildActiveInactiveBreakdown(statusCounts);
 
-        PeopleUserStatsResponse.PeopleUserPies pies =
-            new PeopleUserStatsResponse.PeopleUserPies(statusBreakdown, activeInactiveBreakdown);
+            PeopleUserStatsResponse.PeopleUserPies pies =
+                new PeopleUserStatsResponse.PeopleUserPies(statusBreakdown, activeInactiveBreakdown);
 
-        return new PeopleUserStatsResponse(target.getId(), pies);
+            return new PeopleUserStatsResponse(target.getId(), pies);
+        });
     }
 
     private List<String> normalizeTeamsOriginal(List<String> rawTeams, List<String> availableTeams) {
@@ -235,123 +267,57 @@ public class StatsService {
             .toList();
     }
 
-    private UserStatsResponse.TeamAverages buildTeamAverages(String workspaceId, User requester, User target) {
+    private UserStatsResponse.TeamAverages buildTeamAverages(String workspaceId, boolean isAdmin, User target) {
         String teamId = target.getTeamId();
         if (teamId == null || teamId.isBlank()) {
             return null;
         }
-        List<User> teamUsers = userService.listUsersForWorkspace(workspaceId, accessPolicy.isAdmin(requester)).stream()
-            .filter(user -> teamId.equals(user.getTeamId()))
-            .toList();
-        List<String> teamUserIds = teamUsers.stream()
-            .map(User::getId)
-            .filter(Objects::nonNull)
-            .toList();
-        if (teamUserIds.isEmpty()) {
+        OptionalDouble average = workloadIndex.teamAverage(workspaceId, teamId, isAdmin);
+        if (average.isEmpty()) {
             return null;
         }
-        List<Project> projects = projectRepository.findByWorkspaceId(
-            workspaceId,
-            Sort.by(Sort.Direction.DESC, "createdAt")
-        );
-        Map<String, Long> activeAssignmentsByUser = new HashMap<>();
-        for (Project project : projects) {
-            ProjectStatus status = project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED;
-            if (status != ProjectStatus.NOT_STARTED && status != ProjectStatus.IN_PROGRESS) {
-                continue;
-            }
-            for (String memberId : project.getMemberIds() != null ? project.getMemberIds() : List.<String>of()) {
-                if (!teamUserIds.contains(memberId)) {
-                    continue;
-                }
-                activeAssignmentsByUser.put(memberId, activeAssignmentsByUser.getOrDefault(memberId, 0L) + 1);
-            }
-        }
-        double average = activeAssignmentsByUser.values().stream()
-            .mapToLong(Long::longValue)
-            .average()
-            .orElse(0);
-        return new UserStatsResponse.TeamAverages(average);
+        return new UserStatsResponse.TeamAverages(average.getAsDouble());
     }
 
-    private List<Project> filterProjectsByTeams(List<Project> projects, Set<String> selectedTeams) {
-        if (selectedTeams.isEmpty()) {
-            return projects;
+    private Map<ProjectStatus, Long> countStatuses(ProjectQuery query) {
+        Map<ProjectStatus, Long> statusCounts = new EnumMap<>(ProjectStatus.class);
+        for (WorkspaceStatsService.TeamCounters counters : projectStatsEngine.count(query).values()) {
+            counters.statuses().forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
         }
-        return projects.stream()
-            .filter(project -> project.getTeamId() != null && selectedTeams.contains(project.getTeamId()))
-            .toList();
+        return statusCounts;
     }
 
-    private List<StatSlice> buildStatusBreakdown(List<Project> projects) {
-        Map<ProjectStatus, Long> statusCounts = new EnumMap<>(ProjectStatus.class);
-        for (Project project : projects) {
-            ProjectStatus status = project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED;
-            statusCounts.put(status, statusCounts.getOrDefault(status, 0L) + 1);
-        }
+    private ProjectQuery memberScoped(String workspaceId, User target, ProjectQuery filter) {
+        ProjectQuery query = filter != null ? filter : ProjectQuery.forWorkspace(workspaceId);
+        return query.withMemberId(target.getId());
+    }
+
+    private List<StatSlice> buildStatusBreakdown(Map<ProjectStatus, Long> statusCounts) {
         List<StatSlice> slices = new ArrayList<>();
         slices.add(new StatSlice("Not started", statusCounts.getOrDefault(ProjectStatus.NOT_STARTED, 0L)));
         slices.add(new StatSlice("In progress", statusCounts.getOrDefault(ProjectStatus.IN_PROGRESS, 0L)));
         slices.add(new StatSlice("Completed", statusCounts.getOrDefault(ProjectStatus.COMPLETED, 0L)));
         slices.add(new StatSlice("Canceled", statusCounts.getOrDefault(ProjectStatus.CANCELED, 0L)));
-        if (statusCounts.containsKey(ProjectStatus.ARCHIVED)) {
-            slices.add(new StatSlice("Archived", statusCounts.getOrDefault(ProjectStatus.ARCHIVED, 0L)));
+        if (statusCounts.getOrDefault(ProjectStatus.ARCHIVED, 0L) > 0) {
+            slices.add(new StatSlice("Archived", statusCounts.get(ProjectStatus.ARCHIVED)));
         }
         return slices;
     }
 
-    private List<StatSlice> buildActiveInactiveBreakdown(List<Project> projects) {
+    private List<StatSlice> buildActiveInactiveBreakdown(Map<ProjectStatus, Long> statusCounts) {
         long activeCount = 0;
         long inactiveCount = 0;
-        for (Project project : projects) {
-            ProjectStatus status = project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED;
-            if (status == ProjectStatus.NOT_STARTED || status == ProjectStatus.IN_PROGRESS) {
-                activeCount += 1;
+        for (Map.Entry<ProjectStatus, Long> entry : statusCounts.entrySet()) {
+            if (ProjectQuery.ACTIVE_STATUSES.contains(entry.getKey())) {
+                activeCount += entry.getValue();
             } else {
-                inactiveCount += 1;
+                inactiveCount += entry.getValue();
             }
         }
         return List.of(new StatSlice("Active", activeCount), new StatSlice("Inactive", inactiveCount));
     }
 
-    private List<StatSlice> buildProjectsByTeam(List<Project> projects, Set<String> selectedTeams,
-                                                Map<String, String> teamLabels) {
-        Map<String, Long> counts = new HashMap<>();
-        for (Project project : projects) {
-            String teamId = project.getTeamId();
-            if (teamId == null) {
-                continue;
-            }
-            if (!selectedTeams.isEmpty() && !selectedTeams.contains(teamId)) {
-                continue;
-            }
-            counts.put(teamId, counts.getOrDefault(teamId, 0L) + 1);
-        }
-        return counts.entrySet().stream()
-            .sorted(Map.Entry.comparingByKey())
-            .map(entry -> new StatSlice(resolveTeamLabel(entry.getKey(), teamLabels), entry.getValue()))
-            .toList();
-    }
-
-    private List<StatSlice> buildWorkloadByTeam(List<Project> projects, Set<String> selectedTeams,
-                                                Map<String, String> userTeams, Map<String, String> teamLabels) {
-        Map<String, Long> counts = new HashMap<>();
-        for (Project project : projects) {
-            ProjectStatus status = project.getStatus() != null ? project.getStatus() : ProjectStatus.NOT_STARTED;
-            if (status != ProjectStatus.NOT_STARTED && status != ProjectStatus.IN_PROGRESS) {
-                continue;
-            }
-            for (String memberId : project.getMemberIds() != null ? project.getMemberIds() : List.<String>of()) {
-                String teamId = userTeams.get(memberId);
-                if (teamId == null) {
-                    continue;
-                }
-                if (!selectedTeams.isEmpty() && !selectedTeams.contains(teamId)) {
-                    continue;
-                }
-                counts.put(teamId, counts.getOrDefault(teamId, 0L) + 1);
-            }
-        }
+    private List<StatSlice> toTeamSlices(Map<String, Long> counts, Map<String, String> teamLabels) {
         return counts.entrySet().stream()
             .sorted(Map.Entry.comparingByKey())
             .map(entry -> new StatSlice(resolveTeamLabel(entry.getKey(), teamLabels), entry.getValue()))
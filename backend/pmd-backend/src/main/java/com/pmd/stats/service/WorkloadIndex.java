@@ -0,0 +1,376 @@
+package com.pmd.stats.service;
+
+import com.pmd.project.service.ProjectQuery;
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import com.pmd.workspace.model.WorkspaceMember;
+import com.pmd.workspace.model.WorkspaceMemberStatus;
+import com.pmd.workspace.repository.WorkspaceMemberRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory workload per workspace: active project count per user, plus the active members of
+ * each team, so team averages, least-loaded lookups and per-user counts are answered without
+ * touching {@code projects}.
+ *
+ * <p>A workspace is loaded lazily on first use (one grouped count of active projects and one read
+ * of the active members), then kept current by {@link WorkspaceStatsService#recordChange} for
+ * project writes. Membership writes drop it so the next call reloads. Writes that reach neither
+ * path (seeders, erasure, profile team changes, another instance) are picked up when the entry
+ * passes {@code pmd.stats.workload-index.max-age-seconds}.
+ *
+ * <p>Loads read Mongo outside any map lock, and only one runs per workspace at a time. A delta
+ * cannot tell whether its write was already seen by a load, so a load that a delta or a
+ * membership change raced is answered but not kept, and a delta arriving within
+ * {@code pmd.stats.workload-index.settle-millis} of a load drops the fresh entry instead of being
+ * applied on top of a count that may already include it.
+ */
+@Component
+public class WorkloadIndex {
+
+    /** Users tied for the lowest active project count. */
+    public record Pool(long activeProjectCount, List<String> userIds) {
+    }
+
+    private static final String ALL_TEAMS = "";
+
+    private final ProjectStatsEngine projectStatsEngine;
+    private final WorkspaceMemberRepository workspaceMemberRepository;
+    private final UserRepository userRepository;
+    private final Duration maxAge;
+    private final Duration settle;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public WorkloadIndex(ProjectStatsEngine projectStatsEngine,
+                         WorkspaceMemberRepository workspaceMemberRepository,
+                         UserRepository userRepository,
+                         @Value("${pmd.stats.workload-index.max-age-seconds:300}") long maxAgeSeconds,
+                         @Value("${pmd.stats.workload-index.settle-millis:1000}") long settleMillis) {
+        this.projectStatsEngine = projectStatsEngine;
+        this.workspaceMemberRepository = workspaceMemberRepository;
+        this.userRepository = userRepository;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        this.settle = Duration.ofMillis(Math.max(0, settleMillis));
+    }
+
+    public long activeCount(String workspaceId, String userId) {
+        return workload(workspaceId).count(userId);
+    }
+
+    /** Counts for the given users; users without active projects are left out. */
+    public Map<String, Long> activeCounts(String workspaceId, Collection<String> userIds) {
+        return workload(workspaceId).counts(userIds);
+    }
+
+    /**
+     * Mean active project count over the members whose primary team is {@code teamId} and who
+     * have at least one active project; admins only count when {@code includeAdmins}. Empty when
+     * the team has no such members at all.
+     */
+    public OptionalDouble teamAverage(String workspaceId, String teamId, boolean includeAdmins) {
+        return workload(workspaceId).teamAverage(teamId, includeAdmins);
+    }
+
+    /**
+     * Active members with the fewest active projects, optionally limited to one team (primary or
+     * secondary). Returns {@code null} when nobody qualifies.
+     */
+    public Pool leastLoaded(String workspaceId, String teamId, boolean includeAdmins, Collection<String> excludedUserIds) {
+        String scope = teamId != null && !teamId.isBlank() ? teamId.trim() : ALL_TEAMS;
+        Set<String> excluded = excludedUserIds != null ? new HashSet<>(excludedUserIds) : Set.of();
+        return workload(workspaceId).leastLoaded(scope, includeAdmins, excluded);
+    }
+
+    /**
+     * Applies per-user changes in active project count; ignored until the workspace is loaded.
+     * Drops an entry loaded within the settle window instead, since the load may have counted the
+     * write already.
+     */
+    void apply(String workspaceId, Map<String, Long> activeDeltaByUser) {
+        if (workspaceId == null || activeDeltaByUser.isEmpty()) {
+            return;
+        }
+        Slot slot = slots.computeIfAbsent(workspaceId, ignored -> new Slot());
+        synchronized (slot) {
+            slot.changes++;
+            Workload workload = slot.workload;
+            if (workload == null) {
+                return;
+            }
+            if (workload.loadedAt.plus(settle).isAfter(Instant.now())) {
+                slot.workload = null;
+                return;
+            }
+            activeDeltaByUser.forEach(workload::adjust);
+        }
+    }
+
+    @EventListener
+    public void onWorkspaceStatsChanged(WorkspaceStatsChanged event) {
+        if (event.getWorkspaceId() == null || event.getChange() == WorkspaceStatsChanged.Change.PROJECTS) {
+            return;
+        }
+        Slot slot = slots.get(event.getWorkspaceId());
+        if (slot != null) {
+            synchronized (slot) {
+                slot.changes++;
+                slot.workload = null;
+            }
+        }
+    }
+
+    private Workload workload(String workspaceId) {
+        Slot slot = slots.computeIfAbsent(workspaceId, ignored -> new Slot());
+        CompletableFuture<Workload> loading;
+        long changesBefore;
+        synchronized (slot) {
+            Workload existing = slot.workload;
+            if (existing != null && existing.loadedAt.isAfter(Instant.now().minus(maxAge))) {
+                return existing;
+            }
+            if (slot.loading != null) {
+                loading = slot.loading;
+                changesBefore = -1;
+            } else {
+                loading = new CompletableFuture<>();
+                slot.loading = loading;
+                changesBefore = slot.changes;
+            }
+        }
+        if (changesBefore < 0) {
+            try {
+                return loading.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        Workload loaded;
+        try {
+            loaded = load(workspaceId);
+        } catch (RuntimeException ex) {
+            synchronized (slot) {
+                slot.loading = null;
+            }
+            loading.completeExceptionally(ex);
+            throw ex;
+        }
+        synchronized (slot) {
+            slot.loading = null;
+            if (slot.changes == changesBefore) {
+                slot.workload = loaded;
+            }
+        }
+        loading.complete(loaded);
+        return loaded;
+    }
+
+    private Workload load(String workspaceId) {
+        Map<String, Long> counts = new HashMap<>();
+        ProjectQuery active = ProjectQuery.forWorkspace(workspaceId).withStatuses(ProjectQuery.ACTIVE_STATUSES);
+        for (WorkspaceStatsService.TeamCounters counters : projectStatsEngine.count(active).values()) {
+            counters.activeByUser().forEach((userId, count) -> counts.merge(userId, count, Long::sum));
+        }
+        List<String> memberIds = workspaceMemberRepository
+            .findByWorkspaceIdAndStatus(workspaceId, WorkspaceMemberStatus.ACTIVE)
+            .stream()
+            .map(WorkspaceMember::getUserId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Workload workload = new Workload(Instant.now());
+        if (!memberIds.isEmpty()) {
+            for (User user : userRepository.findAllById(memberIds)) {
+                workload.addMember(user, counts.getOrDefault(user.getId(), 0L));
+            }
+        }
+        counts.forEach(workload::putCountIfAbsent);
+        return workload;
+    }
+
+    private record Member(boolean admin, String primaryTeamId, Set<String> scopes) {
+    }
+
+    /**
+     * One workspace's entry, the load in progress for it, and how many deltas and membership
+     * changes it has seen. Guarded by its own monitor; never held across Mongo reads.
+     */
+    private static final class Slot {
+        private Workload workload;
+        private CompletableFuture<Workload> loading;
+        private long changes;
+    }
+
+    /** One workspace. Guarded by its own monitor; reads and writes are short and in-memory. */
+    private static final class Workload {
+
+        private final Instant loadedAt;
+        private final Map<String, Long> counts = new HashMap<>();
+        private final Map<String, Member> members = new HashMap<>();
+        /** Scope (team id, or {@link #ALL_TEAMS}) to active members bucketed by load. */
+        private final Map<String, TreeMap<Long, Set<String>>> buckets = new HashMap<>();
+        /**
+         * Primary team to {sum, users with load > 0} over all members, the same over non-admins,
+         * then the member counts {all, non-admins}.
+         */
+        private final Map<String, long[]> teamTotals = new HashMap<>();
+
+        private Workload(Instant loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void addMember(User user, long count) {
+            if (user.getId() == null || members.containsKey(user.getId())) {
+                return;
+            }
+            Set<String> scopes = new LinkedHashSet<>();
+            scopes.add(ALL_TEAMS);
+            String primaryTeamId = blankToNull(user.getTeamId());
+            if (primaryTeamId != null) {
+                scopes.add(primaryTeamId);
+            }
+            if (user.getTeamIds() != null) {
+                user.getTeamIds().stream().map(Workload::blankToNull).filter(Objects::nonNull).forEach(scopes::add);
+            }
+            Member member = new Member(user.isAdmin(), primaryTeamId, scopes);
+            members.put(user.getId(), member);
+            if (count > 0) {
+                counts.put(user.getId(), count);
+            }
+            for (String scope : scopes) {
+                bucket(scope, count).add(user.getId());
+            }
+            if (primaryTeamId != null) {
+                long[] totals = totals(primaryTeamId);
+                totals[4]++;
+                if (!member.admin()) {
+                    totals[5]++;
+                }
+            }
+            updateTeamTotals(member, 0L, count);
+        }
+
+        synchronized void putCountIfAbsent(String userId, long count) {
+            if (count > 0) {
+                counts.putIfAbsent(userId, count);
+            }
+        }
+
+        synchronized void adjust(String userId, long delta) {
+            long previous = counts.getOrDefault(userId, 0L);
+            long next = Math.max(0L, previous + delta);
+            if (next == previous) {
+                return;
+            }
+            if (next == 0L) {
+                counts.remove(userId);
+            } else {
+                counts.put(userId, next);
+            }
+            Member member = members.get(userId);
+            if (member == null) {
+                return;
+            }
+            for (String scope : member.scopes()) {
+                TreeMap<Long, Set<String>> byLoad = buckets.get(scope);
+                Set<String> previousBucket = byLoad.get(previous);
+                previousBucket.remove(userId);
+                if (previousBucket.isEmpty()) {
+                    byLoad.remove(previous);
+                }
+                bucket(scope, next).add(userId);
+            }
+            updateTeamTotals(member, previous, next);
+        }
+
+        synchronized long count(String userId) {
+            return counts.getOrDefault(userId, 0L);
+        }
+
+        synchronized Map<String, Long> counts(Collection<String> userIds) {
+            Map<String, Long> result = new HashMap<>();
+            if (userIds != null) {
+                for (String userId : userIds) {
+                    Long count = userId != null ? counts.get(userId) : null;
+                    if (count != null) {
+                        result.put(userId, count);
+                    }
+                }
+            }
+            return result;
+        }
+
+        synchronized OptionalDouble teamAverage(String teamId, boolean includeAdmins) {
+            long[] totals = teamTotals.get(teamId);
+            if (totals == null || totals[includeAdmins ? 4 : 5] == 0) {
+                return OptionalDouble.empty();
+            }
+            long sum = includeAdmins ? totals[0] : totals[2];
+            long users = includeAdmins ? totals[1] : totals[3];
+            return OptionalDouble.of(users == 0 ? 0 : (double) sum / users);
+        }
+
+        synchronized Pool leastLoaded(String scope, boolean includeAdmins, Set<String> excluded) {
+            TreeMap<Long, Set<String>> byLoad = buckets.get(scope);
+            if (byLoad == null) {
+                return null;
+            }
+            for (Map.Entry<Long, Set<String>> entry : byLoad.entrySet()) {
+                List<String> eligible = entry.getValue().stream()
+                    .filter(userId -> !excluded.contains(userId))
+                    .filter(userId -> includeAdmins || !members.get(userId).admin())
+                    .sorted()
+                    .toList();
+                if (!eligible.isEmpty()) {
+                    return new Pool(entry.getKey(), eligible);
+                }
+            }
+            return null;
+        }
+
+        private Set<String> bucket(String scope, long load) {
+            return buckets.computeIfAbsent(scope, ignored -> new TreeMap<>())
+                .computeIfAbsent(load, ignored -> new HashSet<>());
+        }
+
+        private void updateTeamTotals(Member member, long previous, long next) {
+            if (member.primaryTeamId() == null) {
+                return;
+            }
+            long[] totals = totals(member.primaryTeamId());
+            long sumDelta = next - previous;
+            long usersDelta = (next > 0 ? 1 : 0) - (previous > 0 ? 1 : 0);
+            totals[0] += sumDelta;
+            totals[1] += usersDelta;
+            if (!member.admin()) {
+                totals[2] += sumDelta;
+                totals[3] += usersDelta;
+            }
+        }
+
+        private long[] totals(String teamId) {
+            return teamTotals.computeIfAbsent(teamId, ignored -> new long[6]);
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+}
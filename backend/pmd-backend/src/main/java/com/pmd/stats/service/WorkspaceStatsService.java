@@ -0,0 +1,404 @@
+package com.pmd.stats.service;
+
+import com.pmd.project.model.Project;
+import com.pmd.project.model.ProjectStatus;
+import com.pmd.project.service.ProjectQuery;
+import com.pmd.stats.model.WorkspaceStats;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the {@code workspace_stats} read model behind the workspace dashboard.
+ *
+ * <p>Counters live in one flat map per workspace so a project write is a single atomic
+ * {@code $inc}. Keys are {@code <kind>:<team>[:<detail>]}, where team is the project's team id
+ * or {@link #NO_TEAM}:
+ * <ul>
+ *   <li>{@code s:<team>:<STATUS>} projects per status (a missing status counts as NOT_STARTED)</li>
+ *   <li>{@code a:<team>} / {@code u:<team>} projects with / without members</li>
+ *   <li>{@code w:<team>:<userId>} active projects the user is a member of</li>
+ * </ul>
+ *
+ * <p>A recount from {@code projects} cannot be stored as a whole while project writes race it, so
+ * every write goes through {@link #beginChange} before it touches the project, which bumps
+ * {@code version} and {@code pending}, and {@link #recordChange} after, which applies the
+ * increment and drops {@code pending} again. A recount is stored only when no write was pending
+ * when the document was read and {@code version} has not moved since: every project write it
+ * might have half-seen is then either fully in it or still to add its increment on top.
+ *
+ * <p>A document without {@code rebuiltAt} holds no trusted counts; the next read rebuilds it.
+ * {@link #reconcile()} repairs writes that bypass {@code ProjectService}. A mark older than
+ * {@link #ABANDONED_AFTER} is taken to belong to a writer that died before its increment.
+ */
+@Service
+public class WorkspaceStatsService {
+
+    public static final String NO_TEAM = "-";
+
+    private static final Logger log = LoggerFactory.getLogger(WorkspaceStatsService.class);
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+    static final Duration ABANDONED_AFTER = Duration.ofMinutes(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final WorkloadIndex workloadIndex;
+
+    public WorkspaceStatsService(MongoTemplate mongoTemplate, WorkloadIndex workloadIndex) {
+        this.mongoTemplate = mongoTemplate;
+        this.workloadIndex = workloadIndex;
+    }
+
+    /** The fields of a project the counters depend on, captured before and after a write. */
+    public record ProjectSnapshot(String workspaceId, String teamId, ProjectStatus status, List<String> memberIds) {
+
+        public ProjectSnapshot {
+            memberIds = memberIds != null ? List.copyOf(memberIds.stream().filter(id -> id != null).toList()) : List.of();
+        }
+
+        public static ProjectSnapshot of(Project project) {
+            if (project == null) {
+                return null;
+            }
+            return new ProjectSnapshot(project.getWorkspaceId(), project.getTeamId(), project.getStatus(),
+                project.getMemberIds());
+        }
+    }
+
+    /** Decoded counters for the projects of one team (or of no team). */
+    public record TeamCounters(Map<ProjectStatus, Long> statuses, long assigned, long unassigned,
+                               Map<String, Long> activeByUser) {
+
+        public long total() {
+            return statuses.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    /**
+     * Marks the workspace's counters as about to change; call before writing the project, then
+     * {@link #recordChange} once it is written or {@link #abandonChange} if the write failed.
+     */
+    public void beginChange(String workspaceId) {
+        if (workspaceId == null) {
+            return;
+        }
+        Update mark = new Update().inc("pending", 1L).inc("version", 1L).set("changedAt", Instant.now());
+        try {
+            try {
+                mongoTemplate.upsert(byId(workspaceId), mark, WorkspaceStats.class);
+            } catch (DuplicateKeyException ex) {
+                // Two first marks raced to create the document; it exists now.
+                mongoTemplate.updateFirst(byId(workspaceId), mark, WorkspaceStats.class);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Workspace stats mark failed, invalidating workspaceId={}", workspaceId, ex);
+            invalidate(workspaceId);
+        }
+    }
+
+    /** Applies the change from {@code before} to {@code after}; either side may be null. */
+    public void recordChange(ProjectSnapshot before, ProjectSnapshot after) {
+        String workspaceId = after != null ? after.workspaceId() : before != null ? before.workspaceId() : null;
+        if (workspaceId == null) {
+            return;
+        }
+        Map<String, Long> delta = diff(before, after);
+        if (!delta.isEmpty()) {
+            workloadIndex.apply(workspaceId, activeDeltaByUser(delta));
+        }
+        finishChange(workspaceId, delta);
+    }
+
+    /** Ends a {@link #beginChange} whose project write did not happen. */
+    public void abandonChange(String workspaceId) {
+        if (workspaceId != null) {
+            finishChange(workspaceId, Map.of());
+        }
+    }
+
+    private void finishChange(String workspaceId, Map<String, Long> delta) {
+        Update update = new Update().inc("pending", -1L).inc("version", 1L).set("changedAt", Instant.now());
+        delta.forEach((key, value) -> update.inc("counters." + key, value));
+        try {
+            mongoTemplate.updateFirst(byId(workspaceId), update, WorkspaceStats.class);
+        } catch (DataAccessException ex) {
+            // The project write already succeeded; the next read has to rebuild the counters.
+            log.warn("Workspace stats increment failed, invalidating workspaceId={}", workspaceId, ex);
+            invalidate(workspaceId);
+        }
+    }
+
+    public Map<String, TeamCounters> load(String workspaceId) {
+        WorkspaceStats stats = mongoTemplate.findById(workspaceId, WorkspaceStats.class);
+        if (stats != null && stats.getRebuiltAt() != null) {
+            return decode(stats.getCounters());
+        }
+        if (stats == null) {
+            try {
+                // Something for writes to mark while the projects are counted.
+                mongoTemplate.upsert(byId(workspaceId), new Update().setOnInsert("version", 0L), WorkspaceStats.class);
+            } catch (DuplicateKeyException ex) {
+                // Another request created it first.
+            }
+            stats = mongoTemplate.findById(workspaceId, WorkspaceStats.class);
+        }
+        Map<String, Long> counted = countProjects(workspaceId);
+        if (stats != null && settled(stats)) {
+            // Whether or not it lands, the count is right for this read.
+            store(stats, counted);
+        }
+        return decode(counted);
+    }
+
+    /** Makes the next read rebuild the counters, for writes that do not go through this service. */
+    public void invalidate(String workspaceId) {
+        if (workspaceId == null) {
+            return;
+        }
+        mongoTemplate.updateFirst(byId(workspaceId), new Update().unset("rebuiltAt").inc("version", 1L),
+            WorkspaceStats.class);
+    }
+
+    /** Drops the counters of a workspace that no longer exists. */
+    public void delete(String workspaceId) {
+        if (workspaceId == null) {
+            return;
+        }
+        mongoTemplate.remove(byId(workspaceId), WorkspaceStats.class);
+    }
+
+    /**
+     * Recounts every built workspace and applies the difference as an {@code $inc}, under the
+     * same rule as a rebuild: not while a write is pending, and only if {@code version} is still
+     * the one read before the recount. Otherwise the workspace is read and counted again.
+     */
+    @Scheduled(cron = "0 47 * * * *")
+    public void reconcile() {
+        List<String> workspaceIds = mongoTemplate.findDistinct(new Query(), "_id", WorkspaceStats.class, String.class);
+        int repaired = 0;
+        for (String workspaceId : workspaceIds) {
+            if (reconcile(workspaceId)) {
+                repaired++;
+            }
+        }
+        if (repaired > 0) {
+            log.info("Workspace stats reconciliation repaired {} of {} workspaces", repaired, workspaceIds.size());
+        }
+    }
+
+    /** True when a correction was applied. */
+    boolean reconcile(String workspaceId) {
+        for (int attempt = 1; attempt <= MAX_RECONCILE_ATTEMPTS; attempt++) {
+            WorkspaceStats current = mongoTemplate.findById(workspaceId, WorkspaceStats.class);
+            if (current == null || current.getRebuiltAt() == null) {
+                // Not built yet; the next read builds it.
+                return false;
+            }
+            if (!settled(current)) {
+                break;
+            }
+            Map<String, Long> expected = countProjects(workspaceId);
+            if (correction(current, expected).isEmpty() && pending(current) == 0) {
+                return false;
+            }
+            if (store(current, expected)) {
+                log.info("Repaired workspace stats drift workspaceId={}", workspaceId);
+                return true;
+            }
+        }
+        log.info("Workspace stats were being written during reconciliation, leaving workspaceId={} for the next run",
+            workspaceId);
+        return false;
+    }
+
+    /**
+     * Brings the stored counters to {@code expected}, counted after {@code current} was read. Lands
+     * only if no write has marked the document since; true when it did.
+     */
+    private boolean store(WorkspaceStats current, Map<String, Long> expected) {
+        Update update = new Update().set("rebuiltAt", Instant.now()).set("pending", 0L).inc("version", 1L);
+        correction(current, expected).forEach((key, value) -> update.inc("counters." + key, value));
+        // A null version also matches documents written before the field existed.
+        Query unchanged = Query.query(Criteria.where("_id").is(current.getId())
+            .and("version").is(current.getVersion()));
+        return mongoTemplate.updateFirst(unchanged, update, WorkspaceStats.class).getModifiedCount() > 0;
+    }
+
+    private static Map<String, Long> correction(WorkspaceStats current, Map<String, Long> expected) {
+        Map<String, Long> correction = new HashMap<>(expected);
+        Map<String, Long> stored = current.getCounters() != null ? current.getCounters() : Map.of();
+        stored.forEach((key, value) -> correction.merge(key, -value, Long::sum));
+        correction.values().removeIf(value -> value == 0L);
+        return correction;
+    }
+
+    /**
+     * True when no write is between its mark and its increment. A count below zero comes from an
+     * increment whose mark failed and is reset by the next store, and a mark left for longer than
+     * {@link #ABANDONED_AFTER} belongs to a writer that is gone.
+     */
+    private static boolean settled(WorkspaceStats stats) {
+        return pending(stats) <= 0 || stats.getChangedAt() == null
+            || stats.getChangedAt().isBefore(Instant.now().minus(ABANDONED_AFTER));
+    }
+
+    private static long pending(WorkspaceStats stats) {
+        return stats.getPending() != null ? stats.getPending() : 0L;
+    }
+
+    /** Counters for an in-memory set of projects, decoded the same way as a stored document. */
+    public static Map<String, TeamCounters> tally(Collection<ProjectSnapshot> projects) {
+        Map<String, Long> counters = new HashMap<>();
+        for (ProjectSnapshot project : projects) {
+            contribute(counters, project, 1L);
+        }
+        return decode(counters);
+    }
+
+    static Map<String, Long> diff(ProjectSnapshot before, ProjectSnapshot after) {
+        Map<String, Long> delta = new HashMap<>();
+        contribute(delta, before, -1L);
+        contribute(delta, after, 1L);
+        delta.values().removeIf(value -> value == 0L);
+        return delta;
+    }
+
+    private static void contribute(Map<String, Long> counters, ProjectSnapshot project, long sign) {
+        if (project == null) {
+            return;
+        }
+        String teamId = project.teamId();
+        ProjectStatus status = project.status() != null ? project.status() : ProjectStatus.NOT_STARTED;
+        counters.merge(statusKey(teamId, status), sign, Long::sum);
+        counters.merge(membershipKey(teamId, !project.memberIds().isEmpty()), sign, Long::sum);
+        if (!ProjectQuery.ACTIVE_STATUSES.contains(status)) {
+            return;
+        }
+        for (String memberId : new LinkedHashSet<>(project.memberIds())) {
+            String key = workloadKey(teamId, memberId);
+            if (key != null) {
+                counters.merge(key, sign, Long::sum);
+            }
+        }
+    }
+
+    static String statusKey(String teamId, ProjectStatus status) {
+        return "s:" + teamKey(teamId) + ":" + status.name();
+    }
+
+    static String membershipKey(String teamId, boolean assigned) {
+        return (assigned ? "a:" : "u:") + teamKey(teamId);
+    }
+
+    /** Sums the {@code w:} entries of a diff per user, across teams. */
+    static Map<String, Long> activeDeltaByUser(Map<String, Long> delta) {
+        Map<String, Long> byUser = new HashMap<>();
+        delta.forEach((key, value) -> {
+            if (key.startsWith("w:")) {
+                byUser.merge(key.substring(key.lastIndexOf(':') + 1), value, Long::sum);
+            }
+        });
+        byUser.values().removeIf(value -> value == 0L);
+        return byUser;
+    }
+
+    /** Null when the member id cannot be used as a field name. */
+    static String workloadKey(String teamId, String memberId) {
+        return isSafeKeyPart(memberId) ? "w:" + teamKey(teamId) + ":" + memberId : null;
+    }
+
+    static Map<String, TeamCounters> decode(Map<String, Long> counters) {
+        Map<String, Map<ProjectStatus, Long>> statuses = new HashMap<>();
+        Map<String, Long> assigned = new HashMap<>();
+        Map<String, Long> unassigned = new HashMap<>();
+        Map<String, Map<String, Long>> workload = new HashMap<>();
+        if (counters != null) {
+            counters.forEach((key, value) -> {
+                if (value == null || value <= 0L) {
+                    return;
+                }
+                String[] parts = key.split(":", 3);
+                if (parts.length < 2) {
+                    return;
+                }
+                String team = parts[1];
+                switch (parts[0]) {
+                    case "s" -> {
+                        if (parts.length == 3) {
+                            try {
+                                statuses.computeIfAbsent(team, ignored -> new EnumMap<>(ProjectStatus.class))
+                                    .merge(ProjectStatus.valueOf(parts[2]), value, Long::sum);
+                            } catch (IllegalArgumentException ignored) {
+                                // A status that no longer exists; the reconciler will zero it out.
+                            }
+                        }
+                    }
+                    case "a" -> assigned.merge(team, value, Long::sum);
+                    case "u" -> unassigned.merge(team, value, Long::sum);
+                    case "w" -> {
+                        if (parts.length == 3) {
+                            workload.computeIfAbsent(team, ignored -> new HashMap<>()).merge(parts[2], value, Long::sum);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            });
+        }
+        Set<String> teams = new LinkedHashSet<>();
+        teams.addAll(statuses.keySet());
+        teams.addAll(assigned.keySet());
+        teams.addAll(unassigned.keySet());
+        teams.addAll(workload.keySet());
+        Map<String, TeamCounters> decoded = new HashMap<>();
+        for (String team : teams) {
+            decoded.put(team, new TeamCounters(
+                statuses.getOrDefault(team, Map.of()),
+                assigned.getOrDefault(team, 0L),
+                unassigned.getOrDefault(team, 0L),
+                workload.getOrDefault(team, Map.of())
+            ));
+        }
+        return decoded;
+    }
+
+    private Map<String, Long> countProjects(String workspaceId) {
+        Query query = Query.query(Criteria.where("workspaceId").is(workspaceId));
+        query.fields().include("workspaceId", "teamId", "status", "memberIds");
+        Map<String, Long> counters = new HashMap<>();
+        try (Stream<Project> projects = mongoTemplate.stream(query, Project.class)) {
+            projects.forEach(project -> contribute(counters, ProjectSnapshot.of(project), 1L));
+        }
+        return counters;
+    }
+
+    /** Ids become field names, so anything Mongo would read as a path or operator is kept out. */
+    private static String teamKey(String teamId) {
+        return teamId != null && isSafeKeyPart(teamId) ? teamId : NO_TEAM;
+    }
+
+    private static boolean isSafeKeyPart(String value) {
+        return value != null && !value.isBlank() && value.indexOf('.') < 0 && value.indexOf(':') < 0
+            && !value.startsWith("$");
+    }
+
+    private static Query byId(String workspaceId) {
+        return Query.query(Criteria.where("_id").is(workspaceId));
+    }
+}
@@ -1,14 +1,17 @@
 package com.pmd.team.service;
 
+import com.pmd.stats.event.WorkspaceStatsChanged;
 import com.pmd.team.dto.TeamRequest;
 import com.pmd.team.model.Team;
 import com.pmd.team.repository.TeamRepository;
 import com.pmd.user.model.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.regex.Pattern;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -23,9 +26,11 @@ public class TeamService {
     private static final String DEFAULT_TEAM_COLOR = "#3B82F6";
 
     private final TeamRepository teamRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TeamService(TeamRepository teamRepository) {
+    public TeamService(TeamRepository teamRepository, ApplicationEventPublisher eventPublisher) {
         this.teamRepository = teamRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Team> findActiveTeams(String workspaceId) {
@@ -36,6 +41,16 @@ public class TeamService {
         return teamRepository.findByIdAndWorkspaceId(id, workspaceId);
     }
 
+    /** Bulk counterpart of {@link #findById}: one query for all ids, scoped to the workspace. */
+    public List<Team> findByIds(String workspaceId, Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return teamRepository.findAllById(ids).stream()
+            .filter(team -> workspaceId != null && workspaceId.equals(team.getWorkspaceId()))
+            .toList();
+    }
+
     public Optional<Team> findBySlug(String workspaceId, String slug) {
         return teamRepository.findBySlugAndWorkspaceId(slug, workspaceId);
     }
@@ -72,7 +87,9 @@ public class TeamService {
         team.setActive(true);
         team.setCreatedAt(Instant.now());
         team.setCreatedBy(creator != null ? creator.getId() : null);
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.TEAMS));
+        return saved;
     }
 
     public Team updateTeam(String workspaceId, String id, String name, Boolean isActive, String color) {
@@ -100,7 +117,9 @@ public class TeamService {
         if (color != null) {
             team.setColor(normalizeColor(color, team.getColor() == null ? DEFAULT_TEAM_COLOR : team.getColor()));
         }
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.TEAMS));
+        return saved;
     }
 
     public String slugify(String input) {
@@ -1,11 +1,8 @@
 package com.pmd.upload.service;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import com.pmd.security.ratelimit.RateLimiter;
+import com.pmd.security.ratelimit.RateLimiters;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -18,24 +15,17 @@ import org.springframework.web.server.ResponseStatusException;
  * referenced are not cleaned up, so without a cap a single account could script thousands of
  * 2 MB uploads and fill the Pi's SD card. With comment attachments disabled the only honest use
  * is the occasional avatar change, so a low ceiling costs real users nothing while removing the
- * abuse vector. In-memory and per-instance, which is fine for a single-node deployment.
+ * abuse vector. Per-instance unless {@code pmd.security.rate-limit.store} shares the counts.
  */
 @Service
 public class UploadRateLimiterService {
 
-    private final int maxPerHour;
-    private final LoadingCache<String, AtomicInteger> uploadsByUser;
+    private final RateLimiter uploadsByUser;
 
-    public UploadRateLimiterService(@Value("${pmd.uploads.rate-limit.per-hour:20}") int maxPerHour) {
-        this.maxPerHour = maxPerHour;
-        this.uploadsByUser = CacheBuilder.newBuilder()
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .build(new CacheLoader<>() {
-                @Override
-                public AtomicInteger load(String key) {
-                    return new AtomicInteger(0);
-                }
-            });
+    public UploadRateLimiterService(RateLimiters rateLimiters,
+                                    @Value("${pmd.uploads.rate-limit.per-hour:20}") int maxPerHour,
+                                    @Value("${pmd.uploads.rate-limit.max-keys:4096}") int maxKeys) {
+        this.uploadsByUser = rateLimiters.create("uploads", maxPerHour, Duration.ofHours(1), maxKeys);
     }
 
     /** Counts this upload and rejects with 429 once the hourly ceiling is passed. */
@@ -43,13 +33,9 @@ public class UploadRateLimiterService {
         if (userId == null || userId.isBlank()) {
             return;
         }
-        try {
-            if (uploadsByUser.get(userId).incrementAndGet() > maxPerHour) {
-                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
-                    "You have uploaded too many files. Please try again later.");
-            }
-        } catch (ExecutionException ex) {
-            // The loader cannot fail; if it somehow does, do not block a legitimate upload.
+        if (uploadsByUser.tryAcquire(userId) == RateLimiter.REJECTED) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                "You have uploaded too many files. Please try again later.");
         }
     }
 }
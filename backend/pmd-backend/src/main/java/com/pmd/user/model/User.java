@@ -77,6 +77,35 @@ public class User {
     public User() {
     }
 
+    /** Field-by-field copy; the id lists are copied, the widget settings are shared. */
+    public User(User other) {
+        this.id = other.id;
+        this.username = other.username;
+        this.passwordHash = other.passwordHash;
+        this.displayName = other.displayName;
+        this.email = other.email;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.team = other.team;
+        this.teamId = other.teamId;
+        this.teamIds = other.teamIds != null ? new ArrayList<>(other.teamIds) : null;
+        this.isAdmin = other.isAdmin;
+        this.bio = other.bio;
+        this.avatarUrl = other.avatarUrl;
+        this.googleId = other.googleId;
+        this.emailVerified = other.emailVerified;
+        this.pendingEmail = other.pendingEmail;
+        this.mustChangePassword = other.mustChangePassword;
+        this.schemaVersion = other.schemaVersion;
+        this.termsAcceptedAt = other.termsAcceptedAt;
+        this.termsVersion = other.termsVersion;
+        this.createdAt = other.createdAt;
+        this.recommendedByUserIds = other.recommendedByUserIds != null
+            ? new ArrayList<>(other.recommendedByUserIds) : null;
+        this.recommendedCount = other.recommendedCount;
+        this.peoplePageWidgets = other.peoplePageWidgets;
+    }
+
     public User(String id, String username, String passwordHash, String displayName, String email, String firstName,
                 String lastName, String team, String teamId, boolean isAdmin, String bio, String avatarUrl, boolean emailVerified, Instant createdAt,
                 List<String> recommendedByUserIds, int recommendedCount, PeoplePageWidgets peoplePageWidgets) {
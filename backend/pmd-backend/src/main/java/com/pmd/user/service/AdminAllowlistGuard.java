@@ -1,5 +1,6 @@
 package com.pmd.user.service;
 
+import com.pmd.auth.security.PrincipalCache;
 import com.pmd.user.model.User;
 import com.pmd.util.StartupMongoRetry;
 import java.util.Arrays;
@@ -44,14 +45,16 @@ public class AdminAllowlistGuard implements ApplicationRunner {
 
     private final Set<String> allowedEmails;
     private final MongoTemplate mongo;
+    private final PrincipalCache principalCache;
 
     public AdminAllowlistGuard(@Value("${pmd.security.admin-emails:}") String adminEmails,
-                               MongoTemplate mongo) {
+                               MongoTemplate mongo, PrincipalCache principalCache) {
         this.allowedEmails = Arrays.stream(adminEmails.split(","))
             .map(email -> email.trim().toLowerCase(Locale.ROOT))
             .filter(email -> !email.isEmpty())
             .collect(Collectors.toUnmodifiableSet());
         this.mongo = mongo;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -75,6 +78,7 @@ public class AdminAllowlistGuard implements ApplicationRunner {
                 new Query(Criteria.where("_id").is(admin.getId())),
                 new Update().set("isAdmin", false),
                 User.class);
+            principalCache.invalidate(admin.getId());
             // ERROR, not info: an un-allowlisted admin bit is an incident, whatever its origin.
             logger.error("Stripped platform-admin flag from un-allowlisted account {} ({})",
                 admin.getId(), admin.getEmail());
@@ -3,13 +3,15 @@ package com.pmd.user.service;
 import com.pmd.user.model.User;
 import com.pmd.user.repository.UserRepository;
 import com.pmd.auth.policy.AccessPolicy;
-import com.pmd.project.model.ProjectStatus;
+import com.pmd.auth.security.PrincipalCache;
+import com.pmd.stats.service.WorkloadIndex;
 import com.pmd.workspace.model.WorkspaceMemberStatus;
 import com.pmd.workspace.model.WorkspaceRole;
 import com.pmd.workspace.repository.WorkspaceMemberRepository;
 import com.pmd.workspace.repository.WorkspaceRoleRepository;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -21,34 +23,41 @@ import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
-import org.springframework.data.mongodb.core.mapping.Field;
-import org.springframework.data.mongodb.core.query.Criteria;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final AccessPolicy accessPolicy;
-    private final MongoTemplate mongoTemplate;
     private final WorkspaceMemberRepository workspaceMemberRepository;
     private final WorkspaceRoleRepository workspaceRoleRepository;
+    private final WorkloadIndex workloadIndex;
+    private final PrincipalCache principalCache;
 
-    public UserService(UserRepository userRepository, AccessPolicy accessPolicy, MongoTemplate mongoTemplate,
+    public UserService(UserRepository userRepository, AccessPolicy accessPolicy,
                        WorkspaceMemberRepository workspaceMemberRepository,
-                       WorkspaceRoleRepository workspaceRoleRepository) {
+                       WorkspaceRoleRepository workspaceRoleRepository,
+                       WorkloadIndex workloadIndex,
+                       PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.accessPolicy = accessPolicy;
-        this.mongoTemplate = mongoTemplate;
         this.workspaceMemberRepository = workspaceMemberRepository;
         this.workspaceRoleRepository = workspaceRoleRepository;
+        this.workloadIndex = workloadIndex;
+        this.principalCache = principalCache;
     }
 
+    /**
+     * Served from {@link PrincipalCache}, so the requester lookup after authentication reuses the
+     * filter's snapshot. That one instance is shared by the whole request, so edit it only on the
+     * way to {@link #save}; edits never reach the cache or other requests.
+     */
     public User findById(String id) {
-        return userRepository.findById(id)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = principalCache.get(id);
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return user;
     }
 
     /** Non-throwing lookup for display/enrichment paths where a missing user must not fail the request. */
@@ -56,7 +65,7 @@ public class UserService {
         if (id == null || id.isBlank()) {
             return null;
         }
-        return userRepository.findById(id).orElse(null);
+        return principalCache.get(id);
     }
 
     public User findByUsername(String username) {
@@ -116,7 +125,9 @@ public class UserService {
         } else {
             user.setPeoplePageWidgets(user.getPeoplePageWidgets().mergeWithDefaults());
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidate(saved.getId());
+        return saved;
     }
 
     public List<User> findAssignableUsers(String workspaceId, String query, String teamId, boolean includeAdmins) {
@@ -192,6 +203,7 @@ public class UserService {
         return user != null && user.isAdmin();
     }
 
+    /** Active project counts per user, served by {@link WorkloadIndex}; users with none are left out. */
     public Map<String, Long> findActiveProjectCounts(String workspaceId, List<User> users, boolean includeAdminProjects) {
         if (users == null || users.isEmpty()) {
             return Collections.emptyMap();
@@ -203,22 +215,21 @@ public class UserService {
         if (userIds.isEmpty()) {
             return Collections.emptyMap();
         }
-        Criteria criteria = Criteria.where("workspaceId").is(workspaceId)
-            .and("status").in(ProjectStatus.NOT_STARTED, ProjectStatus.IN_PROGRESS);
-        Aggregation aggregation = Aggregation.newAggregation(
-            Aggregation.match(criteria),
-            Aggregation.unwind("memberIds"),
-            Aggregation.match(Criteria.where("memberIds").in(userIds)),
-            Aggregation.group("memberIds").count().as("count")
-        );
-        AggregationResults<ActiveCountResult> results = mongoTemplate.aggregate(
-            aggregation,
-            "projects",
-            ActiveCountResult.class
-        );
-        return results.getMappedResults().stream()
-            .filter(result -> result.getId() != null)
-            .collect(Collectors.toMap(ActiveCountResult::getId, ActiveCountResult::getCount));
+        return workloadIndex.activeCounts(workspaceId, userIds);
+    }
+
+    /**
+     * Finds the assignable workspace members (active, optionally non-admin and in {@code teamId})
+     * with the fewest active projects, from {@link WorkloadIndex}. Returns {@code null} when nobody
+     * qualifies.
+     */
+    public LeastLoadedPool findLeastLoadedAssignees(String workspaceId, String teamId, boolean includeAdmins,
+                                                    Collection<String> excludedUserIds) {
+        if (workspaceId == null || workspaceId.isBlank()) {
+            return null;
+        }
+        WorkloadIndex.Pool pool = workloadIndex.leastLoaded(workspaceId, teamId, includeAdmins, excludedUserIds);
+        return pool != null ? new LeastLoadedPool(pool.activeProjectCount(), pool.userIds()) : null;
     }
 
     private Map<String, List<String>> findWorkspaceRoleAssignments(String workspaceId, List<User> users) {
@@ -328,7 +339,9 @@ public class UserService {
             created.setBio(bio);
             created.setEmailVerified(true);
             created.setCreatedAt(Instant.now());
-            return userRepository.save(created);
+            User saved = userRepository.save(created);
+            principalCache.invalidate(saved.getId());
+            return saved;
         }
         boolean changed = false;
         if (!firstName.equals(user.getFirstName())) {
@@ -354,7 +367,9 @@ public class UserService {
         }
         user.setAdmin(true);
         if (changed) {
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            principalCache.invalidate(saved.getId());
+            return saved;
         }
         return user;
     }
@@ -374,19 +389,8 @@ public class UserService {
         return fallback;
     }
 
-    private static final class ActiveCountResult {
-        @Field("_id")
-        private String id;
-
-        private long count;
-
-        public String getId() {
-            return id;
-        }
-
-        public long getCount() {
-            return count;
-        }
+    /** Members tied for the lowest active-project count, and that count. */
+    public record LeastLoadedPool(long activeProjectCount, List<String> userIds) {
     }
 
     public record WorkspaceRoleDisplay(String roleName, String roleBadgeLabel, String roleBadgeColor) {
@@ -31,6 +31,8 @@ import com.pmd.team.repository.TeamRepository;
 import com.pmd.project.repository.ProjectRepository;
 import com.pmd.team.dto.TeamRequest;
 import com.pmd.team.service.TeamService;
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import com.pmd.stats.service.WorkspaceStatsService;
 import com.pmd.workspace.dto.WorkspaceCreateRequest;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -49,6 +51,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -95,6 +98,8 @@ public class WorkspaceService {
     private final DemoWorkspaceSeeder demoWorkspaceSeeder;
     private final WorkspaceInviteNotificationService workspaceInviteNotificationService;
     private final UserService userService;
+    private final WorkspaceStatsService workspaceStatsService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger logger = LoggerFactory.getLogger(WorkspaceService.class);
 
     public WorkspaceService(WorkspaceRepository workspaceRepository,
@@ -115,9 +120,13 @@ public class WorkspaceService {
                             WorkspaceInviteNotificationService workspaceInviteNotificationService,
                             UserService userService,
                             AvatarCleanupService avatarCleanupService,
-                            AdminAccessAuditService adminAccessAuditService) {
+                            AdminAccessAuditService adminAccessAuditService,
+                            WorkspaceStatsService workspaceStatsService,
+                            ApplicationEventPublisher eventPublisher) {
         this.avatarCleanupService = avatarCleanupService;
         this.adminAccessAuditService = adminAccessAuditService;
+        this.workspaceStatsService = workspaceStatsService;
+        this.eventPublisher = eventPublisher;
         this.workspaceRepository = workspaceRepository;
         this.workspaceMemberRepository = workspaceMemberRepository;
         this.workspaceInviteRepository = workspaceInviteRepository;
@@ -347,6 +356,7 @@ public class WorkspaceService {
             member.setJoinedAt(now);
         }
         WorkspaceMember savedMember = workspaceMemberRepository.save(member);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspace.getId(), WorkspaceStatsChanged.Change.MEMBERSHIP));
         incrementInviteUses(invite);
         User inviter = safeFindUserById(invite.getCreatedByUserId());
         workspaceInviteNotificationService.notifyMemberJoined(workspace, savedMember, user, inviter);
@@ -600,6 +610,7 @@ public class WorkspaceService {
             joiner.setInvitedByUserId(request.getInvitedByUserId());
         }
         WorkspaceMember savedJoiner = workspaceMemberRepository.save(joiner);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.MEMBERSHIP));
         if (request.getInviteId() != null) {
             workspaceInviteRepository.findById(request.getInviteId()).ifPresent(this::incrementInviteUses);
         }
@@ -795,6 +806,8 @@ public class WorkspaceService {
                 return workspaceMemberRepository.save(created);
             });
         demoWorkspaceSeeder.seedWorkspace(finalWorkspace.getId(), user);
+        workspaceStatsService.invalidate(finalWorkspace.getId());
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(finalWorkspace.getId(), WorkspaceStatsChanged.Change.ALL));
         return new WorkspaceMembership(finalWorkspace, member);
     }
 
@@ -807,6 +820,9 @@ public class WorkspaceService {
         requireWorkspacePermission(requester, workspaceId, WorkspacePermission.MANAGE_WORKSPACE_SETTINGS);
         demoWorkspaceSeeder.resetWorkspaceData(workspaceId);
         demoWorkspaceSeeder.seedWorkspace(workspaceId, requester);
+        // The seeder writes projects directly, so the counters are rebuilt on the next read.
+        workspaceStatsService.invalidate(workspaceId);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.ALL));
     }
 
     public WorkspaceMember requireActiveMembership(String workspaceId, User user) {
@@ -1047,6 +1063,7 @@ public class WorkspaceService {
         logger.info("Finalizing scheduled deletion for workspaceId={} workspaceName={}", workspaceId, workspace.getName());
 
         projectRepository.deleteByWorkspaceId(workspaceId);
+        workspaceStatsService.delete(workspaceId);
         teamRepository.deleteByWorkspaceId(workspaceId);
         workspaceInviteRepository.deleteByWorkspaceId(workspaceId);
         workspaceJoinRequestRepository.deleteByWorkspaceId(workspaceId);
@@ -1059,6 +1076,7 @@ public class WorkspaceService {
         workspaceInviteAcceptedDigestRepository.deleteByWorkspaceId(workspaceId);
         workspaceJoinRequestEmailThrottleRepository.deleteByWorkspaceId(workspaceId);
         workspaceRepository.deleteById(workspaceId);
+        eventPublisher.publishEvent(new WorkspaceStatsChanged(workspaceId, WorkspaceStatsChanged.Change.ALL));
     }
 
     private void validateInvite(WorkspaceInvite invite) {
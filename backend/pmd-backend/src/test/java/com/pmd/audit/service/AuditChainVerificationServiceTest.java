@@ -0,0 +1,95 @@
+package com.pmd.audit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.pmd.audit.model.AuditChainStatus;
+import com.pmd.audit.model.WorkspaceAuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+class AuditChainVerificationServiceTest {
+
+    private final AuditChainVerifier verifier = mock(AuditChainVerifier.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, AuditChainStatus> saved = new ConcurrentHashMap<>();
+
+    @Test
+    void runRecordsEachWorkspaceAndStaysWithinTheReadBudget() throws Exception {
+        when(mongoTemplate.findDistinct(any(Query.class), eq("workspaceId"), eq(WorkspaceAuditEvent.class), eq(String.class)))
+            .thenReturn(List.of("ws-intact", "ws-broken", "ws-down"));
+        when(mongoTemplate.save(any(AuditChainStatus.class))).thenAnswer(invocation -> {
+            AuditChainStatus status = invocation.getArgument(0);
+            saved.put(status.getWorkspaceId(), status);
+            return status;
+        });
+        when(verifier.verify(eq("ws-intact"), any(Runnable.class))).thenAnswer(invocation -> {
+            Runnable beforeRead = invocation.getArgument(1);
+            for (int i = 0; i < 30; i++) {
+                beforeRead.run();
+            }
+            return new AuditChainVerifier.Result(true, 30, null, null);
+        });
+        when(verifier.verify(eq("ws-broken"), any(Runnable.class)))
+            .thenReturn(new AuditChainVerifier.Result(false, 0, "event-7", "content of an event was edited after it was written"));
+        when(verifier.verify(eq("ws-down"), any(Runnable.class))).thenThrow(new IllegalStateException("Mongo unreachable"));
+        AuditChainVerificationService service =
+            new AuditChainVerificationService(verifier, mongoTemplate, meterRegistry, 2, 50);
+
+        long started = System.nanoTime();
+        service.scheduledRun();
+        // The run goes to its own thread, leaving the scheduler's free for other tasks.
+        assertTrue(service.isRunning());
+        assertTrue((System.nanoTime() - started) / 1_000_000 < 400, "scheduledRun waited for the run");
+        awaitRun(service);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertEquals(AuditChainStatus.INTACT, saved.get("ws-intact").getOutcome());
+        assertEquals(30, saved.get("ws-intact").getEventsChecked());
+        assertEquals("event-7", saved.get("ws-broken").getBrokenEventId());
+        assertEquals(AuditChainStatus.FAILED, saved.get("ws-down").getOutcome());
+        assertEquals(1.0, meterRegistry.get("pmd.audit.chains").tag("outcome", "broken").gauge().value());
+        assertEquals(1.0, meterRegistry.get("pmd.audit.chains").tag("outcome", "intact").gauge().value());
+        assertEquals(1, meterRegistry.get("pmd.audit.verification").tag("outcome", "failed").timer().count());
+        assertEquals(0.0, meterRegistry.get("pmd.audit.verification.last-run-failed").gauge().value());
+        // 30 reads at 50 per second: the budget spreads them over roughly half a second.
+        assertTrue(elapsedMillis >= 400, "reads were not throttled: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void runThatCannotListWorkspacesIsRecordedAsFailed() throws Exception {
+        when(mongoTemplate.findDistinct(any(Query.class), eq("workspaceId"), eq(WorkspaceAuditEvent.class), eq(String.class)))
+            .thenThrow(new IllegalStateException("Mongo unreachable"));
+        AuditChainVerificationService service =
+            new AuditChainVerificationService(verifier, mongoTemplate, meterRegistry, 2, 50);
+
+        assertTrue(service.startRun());
+        awaitRun(service);
+
+        assertEquals(1.0, meterRegistry.get("pmd.audit.verification.last-run-failed").gauge().value());
+        assertTrue(meterRegistry.get("pmd.audit.verification.last-run").gauge().value() > 0);
+        // A second run may start: the failure released the run flag.
+        assertTrue(service.startRun());
+        awaitRun(service);
+    }
+
+    private static void awaitRun(AuditChainVerificationService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(service.isRunning());
+    }
+}
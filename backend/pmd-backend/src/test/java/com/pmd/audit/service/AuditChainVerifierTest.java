@@ -2,9 +2,11 @@ package com.pmd.audit.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.pmd.audit.model.AuditChainCheckpoint;
 import com.pmd.audit.model.WorkspaceAuditEvent;
 import com.pmd.audit.repository.WorkspaceAuditEventRepository;
 import com.pmd.user.model.User;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +39,11 @@ class AuditChainVerifierTest {
 
     private String appendChain(int events) {
         String workspaceId = "ws-verify-" + System.nanoTime();
+        append(workspaceId, events);
+        return workspaceId;
+    }
+
+    private void append(String workspaceId, int events) {
         User actor = new User();
         actor.setId("actor-" + System.nanoTime());
         actor.setDisplayName("Alice Actor");
@@ -45,7 +52,13 @@ class AuditChainVerifierTest {
                 workspaceId, "SECURITY", "ACTION_" + i, "SUCCESS", actor,
                 null, null, null, null, "ENTITY", "e" + i, "Entity " + i, "msg " + i));
         }
-        return workspaceId;
+    }
+
+    private void tamper(WorkspaceAuditEvent event) {
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(event.getId())),
+            new Update().set("action", "TAMPERED"),
+            WorkspaceAuditEvent.class);
     }
 
     @Test
@@ -73,10 +86,7 @@ class AuditChainVerifierTest {
         String workspaceId = appendChain(3);
         WorkspaceAuditEvent middle = auditRepository.findByWorkspaceIdOrderByCreatedAtAscIdAsc(workspaceId).get(1);
         // Tamper with a hashed field without recomputing the hash.
-        mongoTemplate.updateFirst(
-            new Query(Criteria.where("_id").is(middle.getId())),
-            new Update().set("action", "TAMPERED"),
-            WorkspaceAuditEvent.class);
+        tamper(middle);
 
         AuditChainVerifier.Result result = verifier.verify(workspaceId);
         assertThat(result.intact()).isFalse();
@@ -94,4 +104,56 @@ class AuditChainVerifierTest {
 
         assertThat(verifier.verify(workspaceId).intact()).isFalse();
     }
+
+    @Test
+    void laterRunsCheckOnlyWhatWasAppendedSinceTheCheckpoint() {
+        String workspaceId = appendChain(3);
+        assertThat(verifier.verify(workspaceId).eventsChecked()).isEqualTo(3);
+        WorkspaceAuditEvent first = auditRepository.findByWorkspaceIdOrderByCreatedAtAscIdAsc(workspaceId).get(0);
+        tamper(first);
+        append(workspaceId, 2);
+
+        AuditChainVerifier.Result incremental = verifier.verify(workspaceId);
+        assertThat(incremental.intact()).isTrue();
+        assertThat(incremental.eventsChecked()).isEqualTo(5);
+
+        AuditChainVerifier.Result full = verifier.verifyFromStart(workspaceId);
+        assertThat(full.intact()).isFalse();
+        assertThat(full.brokenEventId()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void anEditedCheckpointIsIgnored() {
+        String workspaceId = appendChain(4);
+        assertThat(verifier.verify(workspaceId).intact()).isTrue();
+        WorkspaceAuditEvent second = auditRepository.findByWorkspaceIdOrderByCreatedAtAscIdAsc(workspaceId).get(1);
+        tamper(second);
+        // Pretend the chain was verified up to the last event again, to hide the edit.
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(workspaceId)),
+            new Update().set("verifiedAt", Instant.now()).set("eventCount", 40),
+            AuditChainCheckpoint.class);
+
+        AuditChainVerifier.Result result = verifier.verify(workspaceId);
+        assertThat(result.intact()).isFalse();
+        assertThat(result.brokenEventId()).isEqualTo(second.getId());
+    }
+
+    @Test
+    void eventsStoredOutOfTimeOrderStillLink() {
+        String workspaceId = appendChain(4);
+        List<WorkspaceAuditEvent> events = auditRepository.findByWorkspaceIdOrderByCreatedAtAscIdAsc(workspaceId);
+        // Another instance's clock ran behind: the newest event sorts first. createdAt is hashed,
+        // so the event is re-hashed as that instance would have written it.
+        WorkspaceAuditEvent last = events.get(3);
+        last.setCreatedAt(events.get(0).getCreatedAt().minusSeconds(60));
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(last.getId())),
+            new Update().set("createdAt", last.getCreatedAt()).set("eventHash", writer.recomputeHash(last)),
+            WorkspaceAuditEvent.class);
+
+        AuditChainVerifier.Result result = verifier.verify(workspaceId);
+        assertThat(result.intact()).isTrue();
+        assertThat(result.eventsChecked()).isEqualTo(4);
+    }
 }
@@ -0,0 +1,224 @@
+package com.pmd.audit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditEventSinkTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<String> stored = new ArrayList<>();
+
+    @Test
+    void fullQueueDropsAfterTheOfferTimeoutAndShutdownSpillsTheRest() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WorkspaceAuditWriter writer = mock(WorkspaceAuditWriter.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(writer).logAll(anyList());
+        Path journal = dir.resolve("audit-spill.journal");
+        AuditEventSink sink = new AuditEventSink(writer, userRepository, meterRegistry, 2, 10, 50,
+            journal.toString());
+        sink.start();
+
+        // The first event is taken by the worker, which then hangs on Mongo.
+        sink.submit(request("ws-1", "FIRST"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        sink.submit(request("ws-1", "SECOND"));
+        sink.submit(request("ws-1", "THIRD"));
+        sink.submit(request("ws-2", "FOURTH"));
+
+        assertEquals(1.0, meterRegistry.get("pmd.audit.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("pmd.audit.queue").gauge().value());
+
+        sink.shutdown();
+        release.countDown();
+        // The hung insert of FIRST was never confirmed, so it is spilled ahead of the queue.
+        assertEquals(3.0, meterRegistry.get("pmd.audit.spilled").counter().count());
+        assertTrue(Files.exists(journal));
+
+        // The next start stores the spilled events first, in order.
+        AuditEventSink restarted = new AuditEventSink(recordingWriter(), userRepository, new SimpleMeterRegistry(), 2,
+            10, 5_000, journal.toString());
+        restarted.start();
+        restarted.submit(request("ws-1", "AFTER_RESTART"));
+        restarted.shutdown();
+
+        assertEquals(List.of("ws-1:FIRST", "ws-1:SECOND", "ws-1:THIRD", "ws-1:AFTER_RESTART"), stored);
+        assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    void insertThatFailsAfterShutdownGaveUpIsSpilled() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        WorkspaceAuditWriter writer = mock(WorkspaceAuditWriter.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            Uninterruptibles.sleepUninterruptibly(300, TimeUnit.MILLISECONDS);
+            throw new IllegalStateException("Mongo went away");
+        }).when(writer).logAll(anyList());
+        Path journal = dir.resolve("audit-spill.journal");
+        AuditEventSink sink = new AuditEventSink(writer, userRepository, meterRegistry, 16, 10, 50,
+            journal.toString());
+        sink.start();
+        sink.submit(request("ws-1", "IN_FLIGHT"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        sink.shutdown();
+
+        assertEquals(1.0, meterRegistry.get("pmd.audit.spilled").counter().count());
+        AuditEventSink restarted = new AuditEventSink(recordingWriter(), userRepository, new SimpleMeterRegistry(), 16,
+            10, 5_000, journal.toString());
+        restarted.start();
+        restarted.shutdown();
+        assertEquals(List.of("ws-1:IN_FLIGHT"), stored);
+    }
+
+    @Test
+    void replayThatCannotStoreKeepsTheJournalForTheNextStart() {
+        Path journal = dir.resolve("audit-spill.journal");
+        new AuditSpillJournal(journal).append(List.of(request("ws-1", "SPILLED"), request("ws-2", "ALSO_SPILLED")));
+        WorkspaceAuditWriter mongoDown = new WorkspaceAuditWriter(null, null) {
+            @Override
+            public void logAll(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+                if ("ws-1".equals(requests.get(0).workspaceId())) {
+                    throw new IllegalStateException("Mongo not ready");
+                }
+                stored.add(requests.get(0).workspaceId() + ":" + requests.get(0).action());
+            }
+        };
+
+        AuditEventSink failing = new AuditEventSink(mongoDown, userRepository, new SimpleMeterRegistry(), 16, 10,
+            5_000, journal.toString());
+        failing.start();
+        failing.shutdown();
+
+        assertEquals(List.of("ws-2:ALSO_SPILLED"), stored);
+        assertTrue(Files.exists(journal));
+
+        AuditEventSink restarted = new AuditEventSink(recordingWriter(), userRepository, new SimpleMeterRegistry(), 16,
+            10, 5_000, journal.toString());
+        restarted.start();
+        restarted.shutdown();
+
+        assertEquals(List.of("ws-2:ALSO_SPILLED", "ws-1:SPILLED"), stored);
+        assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    void journalLeavesOutActorNamesAndReplayLooksThemUpAgain() throws Exception {
+        Path journal = dir.resolve("audit-spill.journal");
+        User erased = new User();
+        erased.setId("user-2");
+        erased.setDisplayName("Sam");
+        new AuditSpillJournal(journal).append(List.of(request("ws-1", "BY_ALEX"),
+            new WorkspaceAuditService.WorkspaceAuditWriteRequest("ws-1", "PROJECT", "BY_SAM", null, erased,
+                null, null, null, null, null, null, null, null)));
+        String contents = new String(Files.readAllBytes(journal), StandardCharsets.UTF_8);
+        assertFalse(contents.contains("Alex"));
+        assertFalse(contents.contains("Sam"));
+
+        User alex = new User();
+        alex.setId("user-1");
+        alex.setDisplayName("Alex Renamed");
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(alex));
+        List<String> actorNames = new ArrayList<>();
+        WorkspaceAuditWriter writer = new WorkspaceAuditWriter(null, null) {
+            @Override
+            public void logAll(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+                requests.forEach(request -> actorNames.add(request.actor().getDisplayName()));
+            }
+        };
+        AuditEventSink restarted = new AuditEventSink(writer, userRepository, new SimpleMeterRegistry(), 16, 10,
+            5_000, journal.toString());
+        restarted.start();
+        restarted.shutdown();
+
+        assertEquals(Arrays.asList("Alex Renamed", null), actorNames);
+    }
+
+    @Test
+    void flushReturnsOnceEverythingSubmittedBeforeIsStored() {
+        WorkspaceAuditWriter slow = new WorkspaceAuditWriter(null, null) {
+            @Override
+            public void logAll(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (stored) {
+                    requests.forEach(request -> stored.add(request.workspaceId() + ":" + request.action()));
+                }
+            }
+        };
+        AuditEventSink sink = new AuditEventSink(slow, userRepository, meterRegistry, 16, 10, 5_000, "");
+        sink.start();
+        sink.submit(request("ws-1", "FIRST"));
+        sink.submit(request("ws-2", "SECOND"));
+
+        assertTrue(sink.flush(5, TimeUnit.SECONDS));
+        synchronized (stored) {
+            assertEquals(2, stored.size());
+        }
+        sink.shutdown();
+    }
+
+    @Test
+    void eventsSubmittedDuringShutdownAreWrittenDirectly() {
+        AuditEventSink sink = new AuditEventSink(recordingWriter(), userRepository, meterRegistry, 16, 10, 5_000,
+            "");
+        sink.start();
+        sink.submit(request("ws-1", "QUEUED"));
+        sink.shutdown();
+        sink.submit(request("ws-1", "LATE"));
+
+        assertEquals(List.of("ws-1:QUEUED", "ws-1:LATE"), stored);
+        assertEquals(1L, meterRegistry.get("pmd.audit.lag").timer().count());
+    }
+
+    private WorkspaceAuditWriter recordingWriter() {
+        return new WorkspaceAuditWriter(null, null) {
+            @Override
+            public void logAll(List<WorkspaceAuditService.WorkspaceAuditWriteRequest> requests) {
+                synchronized (stored) {
+                    requests.forEach(request -> stored.add(request.workspaceId() + ":" + request.action()));
+                }
+            }
+        };
+    }
+
+    private WorkspaceAuditService.WorkspaceAuditWriteRequest request(String workspaceId, String action) {
+        User actor = new User();
+        actor.setId("user-1");
+        actor.setDisplayName("Alex");
+        return new WorkspaceAuditService.WorkspaceAuditWriteRequest(workspaceId, "PROJECT", action, null, actor,
+            null, null, null, null, null, null, null, "Moved to review");
+    }
+}
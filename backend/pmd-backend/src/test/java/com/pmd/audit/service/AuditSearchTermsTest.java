@@ -0,0 +1,41 @@
+package com.pmd.audit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+class AuditSearchTermsTest {
+
+    @Test
+    void eventTextIsSplitIntoLowerCaseWordsWithTheActorsKeptApart() {
+        List<String> terms = AuditSearchTerms.of("PROJECT", "PROJECT_STATUS_CHANGED", "Ψηφιακή Πύλη",
+            "Moved \"Ψηφιακή Πύλη\" to review (v2)", "Maria Papadopoulou");
+
+        assertEquals(List.of("project", "status", "changed", "ψηφιακή", "πύλη", "moved", "to", "review", "v2",
+            "a:maria", "a:papadopoulou"), terms);
+    }
+
+    @Test
+    void everyQueryWordMustPrefixAWordOfTheEvent() {
+        Document query = new Query(AuditSearchTerms.matching("  Stat  maria ")).getQueryObject();
+
+        List<?> all = query.getList("$and", Object.class);
+        assertEquals(2, all.size());
+        List<?> first = ((Document) ((Document) all.get(0)).get(AuditSearchTerms.FIELD)).getList("$in", Object.class);
+        assertEquals("^stat", ((Pattern) first.get(0)).pattern());
+        assertEquals("^a:stat", ((Pattern) first.get(1)).pattern());
+        assertTrue(((Document) all.get(1)).toJson().contains("^a:maria"));
+    }
+
+    @Test
+    void queriesWithoutWordsDoNotFilter() {
+        assertNull(AuditSearchTerms.matching(null));
+        assertNull(AuditSearchTerms.matching(" .* ) "));
+    }
+}
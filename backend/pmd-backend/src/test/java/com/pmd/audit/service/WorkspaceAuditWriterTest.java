@@ -0,0 +1,126 @@
+package com.pmd.audit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.pmd.audit.model.WorkspaceAuditEvent;
+import com.pmd.audit.repository.WorkspaceAuditEventRepository;
+import com.pmd.user.model.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+class WorkspaceAuditWriterTest {
+
+    private WorkspaceAuditEventRepository repository;
+    private MongoTemplate mongoTemplate;
+    private WorkspaceAuditWriter writer;
+    private User actor;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WorkspaceAuditEventRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        writer = new WorkspaceAuditWriter(repository, mongoTemplate);
+        actor = new User();
+        actor.setId("user-1");
+        actor.setDisplayName("Alex");
+    }
+
+    @Test
+    void concurrentAppendsFormOneChainFromASingleTailRead() throws Exception {
+        List<WorkspaceAuditEvent> stored = new ArrayList<>();
+        AtomicInteger inserts = new AtomicInteger();
+        when(mongoTemplate.insert(anyCollection(), eq(WorkspaceAuditEvent.class))).thenAnswer(invocation -> {
+            Collection<WorkspaceAuditEvent> batch = invocation.getArgument(0);
+            inserts.incrementAndGet();
+            // A slow round trip, so appends pile up behind the leader.
+            Thread.sleep(5);
+            synchronized (stored) {
+                stored.addAll(batch);
+            }
+            return batch;
+        });
+
+        int callers = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            int n = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                writer.log(request("ws-1", "EVENT_" + n));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(callers, stored.size());
+        assertNull(stored.get(0).getPrevEventHash());
+        for (int i = 1; i < stored.size(); i++) {
+            assertEquals(stored.get(i - 1).getEventHash(), stored.get(i).getPrevEventHash());
+            assertEquals(writer.recomputeHash(stored.get(i)), stored.get(i).getEventHash());
+        }
+        verify(repository, times(1)).findTopByWorkspaceIdOrderByCreatedAtDescIdDesc("ws-1");
+        assertTrue(inserts.get() < callers, "queued events are written together, got " + inserts.get());
+    }
+
+    @Test
+    void losingTheTailToAnotherInstanceReseedsAndRelinks() {
+        List<WorkspaceAuditEvent> stored = new ArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        when(mongoTemplate.insert(anyCollection(), eq(WorkspaceAuditEvent.class))).thenAnswer(invocation -> {
+            Collection<WorkspaceAuditEvent> batch = invocation.getArgument(0);
+            if (attempts.incrementAndGet() == 2) {
+                throw new DuplicateKeyException("E11000 duplicate key: workspaceId_prevEventHash");
+            }
+            stored.addAll(batch);
+            return batch;
+        });
+        WorkspaceAuditEvent elsewhere = new WorkspaceAuditEvent();
+        elsewhere.setEventHash("written-by-another-instance");
+        when(repository.findTopByWorkspaceIdOrderByCreatedAtDescIdDesc("ws-1")).thenReturn(null, elsewhere);
+
+        writer.log(request("ws-1", "FIRST"));
+        writer.log(request("ws-1", "SECOND"));
+        writer.log(request("ws-1", "THIRD"));
+
+        assertEquals(3, stored.size());
+        assertNull(stored.get(0).getPrevEventHash());
+        assertEquals("written-by-another-instance", stored.get(1).getPrevEventHash());
+        assertEquals(stored.get(1).getEventHash(), stored.get(2).getPrevEventHash());
+        verify(repository, times(2)).findTopByWorkspaceIdOrderByCreatedAtDescIdDesc("ws-1");
+
+        Set<String> hashes = new HashSet<>();
+        stored.forEach(event -> hashes.add(event.getEventHash()));
+        assertEquals(3, hashes.size());
+    }
+
+    private WorkspaceAuditService.WorkspaceAuditWriteRequest request(String workspaceId, String action) {
+        return new WorkspaceAuditService.WorkspaceAuditWriteRequest(workspaceId, "PROJECT", action, null, actor,
+            null, null, null, "project-1", null, null, null, null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.pmd.auth.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.pmd.config.JwtProperties;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A remembered verification may only ever short-cut a token that would verify again: a forged
+ * signature must fail however warm the cache is, and an entry must not outlive the token.
+ */
+class JwtServiceTest {
+
+    private static JwtService jwtService(long expirationSeconds) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("test-secret-32-bytes-minimum-123456");
+        properties.setExpirationSeconds(expirationSeconds);
+        return new JwtService(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void repeatTokenIsServedFromTheCacheAndForgeriesStillFail() {
+        JwtService jwtService = jwtService(900);
+        String token = jwtService.generateToken("user-1", Map.of("username", "alex@pmd.local"));
+
+        assertEquals("user-1", jwtService.parseToken(token).getSubject());
+        assertSame(jwtService.parseToken(token), jwtService.parseToken(token));
+
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        char flipped = signature.charAt(0) == 'A' ? 'B' : 'A';
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + flipped + signature.substring(1);
+        assertThrows(JwtException.class, () -> jwtService.parseToken(forged));
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItExpires() throws InterruptedException {
+        JwtService jwtService = jwtService(1);
+        String token = jwtService.generateToken("user-1", Map.of());
+        jwtService.parseToken(token);
+
+        Thread.sleep(1_100);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseToken(token));
+    }
+}
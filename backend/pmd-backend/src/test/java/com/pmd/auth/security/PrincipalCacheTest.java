@@ -0,0 +1,72 @@
+package com.pmd.auth.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class PrincipalCacheTest {
+
+    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        principalCache = new PrincipalCache(userRepository, new SimpleMeterRegistry(), 100, 60);
+        User stored = new User();
+        stored.setId("user-1");
+        stored.setDisplayName("Alex");
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(stored));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void oneRequestReusesOneSnapshotAndLaterRequestsHitTheCache() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        User fromFilter = principalCache.get("user-1");
+        assertSame(fromFilter, principalCache.get("user-1"));
+
+        // A half-edited snapshot must not leak into the next request.
+        fromFilter.setDisplayName("Edited but never saved");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        User nextRequest = principalCache.get("user-1");
+        assertNotSame(fromFilter, nextRequest);
+        assertEquals("Alex", nextRequest.getDisplayName());
+
+        verify(userRepository, times(1)).findById("user-1");
+    }
+
+    @Test
+    void invalidateReloadsAndMissingUsersAreNotCached() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        principalCache.get("user-1");
+        principalCache.invalidate("user-1");
+        principalCache.get("user-1");
+        verify(userRepository, times(2)).findById("user-1");
+
+        when(userRepository.findById("gone")).thenReturn(Optional.empty());
+        assertNull(principalCache.get("gone"));
+        assertNull(principalCache.get("gone"));
+        verify(userRepository, times(2)).findById("gone");
+    }
+}
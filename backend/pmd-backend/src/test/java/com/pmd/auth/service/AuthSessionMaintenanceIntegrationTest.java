@@ -0,0 +1,68 @@
+package com.pmd.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.pmd.auth.model.AuthSession;
+import com.pmd.config.AuthSessionProperties;
+import com.pmd.user.model.User;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Login used to revoke overflow sessions one save at a time. This checks the bulk revoke against
+ * a real collection; that login no longer sweeps is covered by {@code AuthSessionServiceTest},
+ * and its latency against collection size by {@code AuthSessionServiceBenchmark}.
+ */
+@SpringBootTest
+class AuthSessionMaintenanceIntegrationTest {
+
+    private static final String PREFIX = "maint-" + UUID.randomUUID() + "-";
+
+    @Autowired
+    private AuthSessionService authSessionService;
+
+    @Autowired
+    private AuthSessionProperties properties;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        mongoTemplate.remove(Query.query(Criteria.where("userId").regex("^" + PREFIX)), AuthSession.class);
+    }
+
+    @Test
+    void overflowRevokesTheOldestSessionsInOneGo() {
+        User user = user("limit");
+        for (int i = 0; i < properties.getMaxSessionsPerUser() + 3; i++) {
+            authSessionService.createSession(user, false, null);
+        }
+
+        List<AuthSession> sessions = mongoTemplate.find(
+            Query.query(Criteria.where("userId").is(user.getId())), AuthSession.class);
+        List<AuthSession> live = sessions.stream().filter(session -> session.getRevokedAt() == null).toList();
+        assertThat(live).hasSize(properties.getMaxSessionsPerUser());
+        Instant oldestLive = live.stream().map(AuthSession::getCreatedAt).min(Instant::compareTo).orElseThrow();
+        assertThat(sessions).filteredOn(session -> session.getRevokedAt() != null)
+            .allSatisfy(revoked -> assertThat(revoked.getCreatedAt()).isBeforeOrEqualTo(oldestLive));
+
+        authSessionService.revokeAllByUserId(user.getId());
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("userId").is(user.getId())
+            .and("revokedAt").is(null)), AuthSession.class)).isZero();
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setId(PREFIX + name);
+        return user;
+    }
+}
@@ -0,0 +1,108 @@
+package com.pmd.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.hash.Hashing;
+import com.mongodb.client.result.UpdateResult;
+import com.pmd.auth.model.AuthSession;
+import com.pmd.auth.repository.AuthSessionRepository;
+import com.pmd.config.AuthSessionProperties;
+import com.pmd.security.ClientMetadataService;
+import com.pmd.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.web.server.ResponseStatusException;
+
+class AuthSessionServiceTest {
+
+    private AuthSessionRepository repository;
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private SessionActivityBuffer activity;
+    private AuthSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AuthSessionRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(AuthSession.class))).thenReturn(bulk);
+        activity = new SessionActivityBuffer(mongoTemplate);
+        service = new AuthSessionService(repository, new AuthSessionProperties(),
+            new ClientMetadataService(false, false, ""), mongoTemplate, activity, new SimpleMeterRegistry());
+
+        AuthSession stored = new AuthSession();
+        stored.setId("session-1");
+        stored.setUserId("user-1");
+        stored.setTokenHash(Hashing.sha256().hashString("raw-token", StandardCharsets.UTF_8).toString());
+        stored.setCreatedAt(Instant.now().minusSeconds(3_600));
+        stored.setLastUsedAt(Instant.now().minusSeconds(3_600));
+        stored.setExpiresAt(Instant.now().plusSeconds(3_600));
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    void repeatedLookupsHitTheCacheAndCoalesceIntoOneWrite() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.findActiveSessionByRawToken("raw-token").isPresent());
+        }
+        verify(repository, times(1)).findByTokenHash(anyString());
+
+        activity.flush();
+        activity.flush();
+        verify(bulk, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(bulk, times(1)).execute();
+    }
+
+    @Test
+    void loginDoesNotSweepExpiredSessions() {
+        User user = new User();
+        user.setId("user-1");
+
+        service.createSession(user, false, null);
+
+        // Expired rows are left to the TTL index; the only read is the user's own live sessions.
+        verify(repository, never()).deleteByExpiresAtBefore(any(Instant.class));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(AuthSession.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(AuthSession.class));
+        ArgumentCaptor<Query> reads = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(reads.capture(), eq(AuthSession.class));
+        assertEquals("user-1", reads.getValue().getQueryObject().get("userId"));
+        verify(repository).save(any(AuthSession.class));
+    }
+
+    @Test
+    void rotationLosingTheRaceIsRejectedAndEvictsTheSession() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AuthSession.class)))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        AuthSession session = service.findActiveSessionByRawToken("raw-token").orElseThrow();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+            () -> service.rotateSession(session, null));
+        assertEquals(401, ex.getStatusCode().value());
+
+        service.findActiveSessionByRawToken("raw-token");
+        verify(repository, times(2)).findByTokenHash(anyString());
+        activity.flush();
+        verify(bulk, times(1)).updateOne(any(Query.class), any(Update.class));
+    }
+}
@@ -0,0 +1,63 @@
+package com.pmd.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+class BreachedPasswordFilterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyListedPasswordIsFoundAndOthersRarelyAre() throws IOException {
+        List<String> listed = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            listed.add("Leaked-" + i + "!pw");
+        }
+        listed.add("Summer2024!Paris");
+        listed.add("");
+        Path list = Files.write(dir.resolve("breached.txt"), listed, StandardCharsets.UTF_8);
+        Path bloom = dir.resolve("breached.bloom");
+
+        assertEquals(50_001, BreachedPasswordFilterBuilder.build(list, bloom, 0.001));
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(bloom.toString());
+
+        for (String password : listed) {
+            if (!password.isEmpty()) {
+                assertTrue(filter.contains(password), password);
+            }
+        }
+        assertTrue(filter.contains("SUMMER2024!paris"));
+        int falsePositives = 0;
+        for (int i = 0; i < 50_000; i++) {
+            falsePositives += filter.contains("Unlisted-" + i + "?pw") ? 1 : 0;
+        }
+        assertTrue(falsePositives < 150, "false positives " + falsePositives);
+
+        PasswordPolicyService policy = new PasswordPolicyService(filter);
+        assertThrows(ResponseStatusException.class, () -> policy.validateForRegister("Summer2024!Paris"));
+        policy.validateForRegister("Unlisted-7?Strong");
+    }
+
+    @Test
+    void unconfiguredFilterMatchesNothingAndABadFileFailsFast() throws IOException {
+        BreachedPasswordFilter disabled = new BreachedPasswordFilter("");
+        assertFalse(disabled.isEnabled());
+        assertFalse(disabled.contains("Summer2024!Paris"));
+
+        Path garbage = Files.write(dir.resolve("garbage.bloom"), new byte[64]);
+        assertThrows(IllegalStateException.class, () -> new BreachedPasswordFilter(garbage.toString()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.pmd.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.UpdateResult;
+import com.pmd.auth.security.PrincipalCache;
+import com.pmd.user.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Encoder whose first call parks the only hashing thread until released. */
+    private static final class GatedEncoder implements PasswordEncoder {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> order = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String encode(CharSequence raw) {
+            gate(raw);
+            return "hash:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            gate(raw);
+            return encoded.equals("hash:" + raw);
+        }
+
+        private void gate(CharSequence raw) {
+            if (started.getCount() > 0) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            order.add(raw.toString());
+        }
+    }
+
+    @Test
+    void fullQueueIsRefusedAtOnceAndSignInsGoFirst() throws Exception {
+        GatedEncoder encoder = new GatedEncoder();
+        PasswordHashingService service = new PasswordHashingService(encoder, mock(MongoTemplate.class),
+            mock(PrincipalCache.class), meterRegistry, 1, 2, 5_000);
+
+        CompletableFuture<String> blocker = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        assertTrue(encoder.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> registration = CompletableFuture.supplyAsync(() -> service.encode("register"));
+        waitForQueue(1);
+        CompletableFuture<Boolean> login = CompletableFuture.supplyAsync(() -> service.matches("login", "hash:login"));
+        waitForQueue(2);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> service.matches("x", "y"));
+        assertEquals(503, ex.getStatusCode().value());
+
+        encoder.release.countDown();
+        assertEquals("hash:first", blocker.get(5, TimeUnit.SECONDS));
+        assertTrue(login.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:register", registration.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "login", "register"), encoder.order);
+        assertEquals(1.0, meterRegistry.get("pmd.password.rejections").counter().count());
+        assertEquals(2, meterRegistry.get("pmd.password.hash").tag("operation", "encode").timer().count());
+        service.shutdown();
+    }
+
+    @Test
+    void weakerStoredHashIsReplacedAfterSignIn() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        PrincipalCache principalCache = mock(PrincipalCache.class);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(User.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        PasswordHashingService service = new PasswordHashingService(new BCryptPasswordEncoder(5), mongoTemplate,
+            principalCache, meterRegistry, 1, 4, 5_000);
+        User user = new User();
+        user.setId("user-1");
+        user.setPasswordHash(new BCryptPasswordEncoder(4).encode("secret"));
+
+        assertTrue(service.matches("secret", user.getPasswordHash()));
+        service.rehashIfNeeded(user, "secret");
+
+        verify(principalCache, timeout(5_000)).invalidate("user-1");
+        service.shutdown();
+    }
+
+    private void waitForQueue(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("pmd.password.queue").gauge().value() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
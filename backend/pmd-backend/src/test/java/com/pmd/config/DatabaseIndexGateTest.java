@@ -21,6 +21,7 @@ class DatabaseIndexGateTest {
         assertIndexPresent("projects", "idx_projects_workspace_status");
         assertIndexPresent("projects", "idx_projects_workspace_team");
         assertIndexPresent("projects", "idx_projects_workspace_created");
+        assertIndexPresent("projects", "idx_projects_workspace_created_id");
         assertIndexPresent("teams", "uniq_teams_workspace_slug");
         assertIndexPresent("teams", "idx_teams_workspace_active_name");
         assertIndexPresent("workspace_roles", "idx_workspace_roles_workspace_system_name");
@@ -30,8 +31,10 @@ class DatabaseIndexGateTest {
         assertIndexPresent("workspace_audit_events", "idx_workspace_audit_workspace_action_created");
         assertIndexPresent("workspace_audit_events", "idx_workspace_audit_workspace_event_hash");
         assertIndexPresent("workspace_audit_events", "idx_workspace_audit_workspace_created_id");
+        assertIndexPresent("workspace_audit_events", "idx_workspace_audit_workspace_terms_created");
         assertIndexPresent("auth_sessions", "ttl_auth_sessions_expires");
         assertIndexPresent("auth_security_events", "ttl_auth_security_events_created");
+        assertIndexPresent("rate_limit_windows", "ttl_rate_limit_windows_expires");
     }
 
     private void assertIndexPresent(String collection, String indexName) {
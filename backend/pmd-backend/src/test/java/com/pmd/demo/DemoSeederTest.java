@@ -14,7 +14,7 @@ import org.springframework.mock.env.MockEnvironment;
 class DemoSeederTest {
 
     private DemoSeeder seederFor(MockEnvironment environment) {
-        return new DemoSeeder(environment, null, null, null, null);
+        return new DemoSeeder(environment, null, null, null, null, null);
     }
 
     @Test
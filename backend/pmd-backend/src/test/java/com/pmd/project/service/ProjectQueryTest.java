@@ -0,0 +1,67 @@
+package com.pmd.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pmd.project.dto.ProjectFilterRequest;
+import com.pmd.project.model.ProjectStatus;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.server.ResponseStatusException;
+
+class ProjectQueryTest {
+
+    @Test
+    void parsesRequestParametersIntoFilters() {
+        ProjectFilterRequest request = new ProjectFilterRequest();
+        request.setStatus(List.of("in_progress,COMPLETED"));
+        request.setTeamIds(List.of("team-1", " team-2 "));
+        request.setMemberId("user-1");
+        request.setCreatedFrom("2026-01-01T00:00:00Z");
+        request.setNamePrefix("Road");
+
+        ProjectQuery query = ProjectQuery.from("workspace-1", request);
+
+        assertEquals(Set.of(ProjectStatus.IN_PROGRESS, ProjectStatus.COMPLETED), query.statuses());
+        assertEquals(Set.of("team-1", "team-2"), query.teamIds());
+        assertEquals("user-1", query.memberId());
+        String criteria = query.toCriteria().getCriteriaObject().toString();
+        assertTrue(criteria.contains("workspaceId=workspace-1"));
+        assertTrue(criteria.contains("memberIds=user-1"));
+        assertTrue(criteria.contains("createdAt"));
+        assertTrue(criteria.contains("Road"));
+    }
+
+    @Test
+    void notStartedFilterAlsoMatchesMissingStatus() {
+        ProjectQuery query = ProjectQuery.forWorkspace("workspace-1").withStatuses(Set.of(ProjectStatus.NOT_STARTED));
+
+        assertTrue(query.toCriteria().getCriteriaObject().toString().contains("null"));
+    }
+
+    @Test
+    void leavesIndexChoiceToThePlanner() {
+        Query query = ProjectQuery.forWorkspace("workspace-1")
+            .withStatuses(ProjectQuery.ACTIVE_STATUSES)
+            .withTeamIds(List.of("team-1"))
+            .toQuery();
+
+        assertNull(query.getHint());
+        assertEquals(-1, query.getSortObject().get("createdAt"));
+    }
+
+    @Test
+    void rejectsUnknownStatusAndMalformedDates() {
+        ProjectFilterRequest badStatus = new ProjectFilterRequest();
+        badStatus.setStatus(List.of("DONE"));
+        ProjectFilterRequest badDate = new ProjectFilterRequest();
+        badDate.setUpdatedTo("yesterday");
+
+        assertThrows(ResponseStatusException.class, () -> ProjectQuery.from("workspace-1", badStatus));
+        assertThrows(ResponseStatusException.class, () -> ProjectQuery.from("workspace-1", badDate));
+    }
+}
@@ -3,34 +3,51 @@ package com.pmd.project.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.eq;
 
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.result.UpdateResult;
 import com.pmd.auth.policy.AccessPolicy;
 import com.pmd.mention.service.MentionPolicyService;
 import com.pmd.notification.EmailNotificationService;
+import com.pmd.project.dto.DashboardStatsResponse;
+import com.pmd.project.dto.ProjectPageResponse;
 import com.pmd.project.dto.RandomAssignResponse;
 import com.pmd.project.model.Project;
 import com.pmd.project.model.ProjectStatus;
 import com.pmd.project.repository.ProjectRepository;
+import com.pmd.stats.service.WorkloadIndex;
+import com.pmd.stats.service.WorkspaceStatsService;
+import com.pmd.team.model.Team;
 import com.pmd.team.service.TeamService;
 import com.pmd.user.model.User;
 import com.pmd.user.repository.UserRepository;
 import com.pmd.user.service.UserService;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 class ProjectServiceTest {
 
@@ -74,7 +91,9 @@ class ProjectServiceTest {
             teamService,
             emailNotificationService,
             mentionNotificationService,
-            mentionPolicyService
+            mentionPolicyService,
+            new ProjectResponseAssembler(userRepository, teamService),
+            new WorkspaceStatsService(mongoTemplate, mock(WorkloadIndex.class))
         );
     }
 
@@ -98,15 +117,119 @@ class ProjectServiceTest {
         other.setMemberIds(List.of("user-2"));
 
         when(accessPolicy.isAdmin(requester)).thenReturn(false);
-        when(projectRepository.findByWorkspaceId(eq(workspaceId), any(Sort.class))).thenReturn(List.of(mine, other));
+        when(mongoTemplate.find(any(Query.class), eq(Project.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            return query.getQueryObject().toString().contains("memberIds=user-1")
+                ? List.of(mine)
+                : List.of(mine, other);
+        });
         when(userRepository.findById(anyString())).thenReturn(Optional.empty());
 
-        var results = projectService.findAll(workspaceId, requester, true);
+        var results = projectService.findAll(workspaceId, requester, true, ProjectQuery.forWorkspace(workspaceId));
 
         assertEquals(1, results.size());
         assertEquals("project-1", results.get(0).getId());
     }
 
+    @Test
+    void findAllResolvesAuthorsAndTeamsWithConstantQueryCount() {
+        String workspaceId = "workspace-1";
+        User requester = new User();
+        requester.setId("user-1");
+
+        for (int projectCount : new int[] {1, 10, 100}) {
+            List<Project> projects = new ArrayList<>();
+            for (int i = 0; i < projectCount; i++) {
+                Project project = new Project();
+                project.setId("project-" + i);
+                project.setWorkspaceId(workspaceId);
+                project.setStatus(ProjectStatus.NOT_STARTED);
+                project.setCreatedByUserId("author-" + (i % 7));
+                project.setTeamId("team-" + (i % 3));
+                projects.add(project);
+            }
+            User author = new User();
+            author.setId("author-0");
+            author.setDisplayName("Author Zero");
+            Team team = new Team();
+            team.setId("team-0");
+            team.setName("Team Zero");
+            team.setWorkspaceId(workspaceId);
+
+            clearInvocations(userRepository, teamService);
+            when(mongoTemplate.find(any(Query.class), eq(Project.class))).thenReturn(projects);
+            when(userRepository.findAllById(anyList())).thenReturn(List.of(author));
+            when(teamService.findByIds(eq(workspaceId), anyCollection())).thenReturn(List.of(team));
+
+            var results = projectService.findAll(
+                workspaceId, requester, false, ProjectQuery.forWorkspace(workspaceId));
+
+            assertEquals(projectCount, results.size());
+            assertEquals("Author Zero", results.get(0).getCreatedByName());
+            assertEquals("Team Zero", results.get(0).getTeamName());
+            verify(userRepository, times(1)).findAllById(anyList());
+            verify(userRepository, never()).findById(anyString());
+            verify(teamService, times(1)).findByIds(eq(workspaceId), anyCollection());
+            verify(teamService, never()).findById(anyString(), anyString());
+        }
+    }
+
+    @Test
+    void findPageQueriesOneBoundedKeysetPageWithoutComments() {
+        String workspaceId = "workspace-1";
+        User requester = new User();
+        requester.setId("user-1");
+        Instant createdAt = Instant.parse("2026-01-01T00:00:00Z");
+        List<Project> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Project project = new Project();
+            project.setId("project-" + i);
+            project.setWorkspaceId(workspaceId);
+            project.setCreatedAt(createdAt.minusSeconds(i));
+            rows.add(project);
+        }
+        when(mongoTemplate.find(any(Query.class), eq(Project.class))).thenReturn(rows);
+
+        ProjectPageResponse page = projectService.findPage(
+            workspaceId, requester, true, ProjectQuery.forWorkspace(workspaceId), 2, "2026-02-01T00:00:00Z,project-x");
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(captor.capture(), eq(Project.class));
+        Query query = captor.getValue();
+        assertEquals(3, query.getLimit());
+        assertEquals(0, query.getFieldsObject().get("comments"));
+        assertTrue(query.getQueryObject().toString().contains("memberIds"));
+        assertEquals(2, page.getItems().size());
+        assertEquals(createdAt.minusSeconds(1) + ",project-1", page.getNextCursor());
+    }
+
+    @Test
+    void findPageKeepsPagingThroughProjectsWithoutCreatedAt() {
+        String workspaceId = "workspace-1";
+        User requester = new User();
+        requester.setId("user-1");
+        List<Project> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Project project = new Project();
+            project.setId("project-" + i);
+            project.setWorkspaceId(workspaceId);
+            rows.add(project);
+        }
+        when(mongoTemplate.find(any(Query.class), eq(Project.class))).thenReturn(rows);
+
+        ProjectPageResponse page = projectService.findPage(
+            workspaceId, requester, true, ProjectQuery.forWorkspace(workspaceId), 2, null);
+        assertEquals(",project-1", page.getNextCursor());
+
+        projectService.findPage(
+            workspaceId, requester, true, ProjectQuery.forWorkspace(workspaceId), 2, page.getNextCursor());
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(captor.capture(), eq(Project.class));
+        String second = captor.getAllValues().get(1).getQueryObject().toJson();
+        assertTrue(second.contains("\"createdAt\": null"), second);
+        assertTrue(second.contains("\"_id\": {\"$lt\": \"project-1\"}"), second);
+    }
+
     @Test
     void randomAssignPicksLowestActiveCountAndAssignsExactlyOne() {
         String workspaceId = "workspace-1";
@@ -137,19 +260,84 @@ class ProjectServiceTest {
         doNothing().when(accessPolicy).assertCanViewProject(requester, project);
         doNothing().when(accessPolicy).assertCanAssignUserToProject(any(User.class), any(User.class), any(Project.class));
         when(projectRepository.findByIdAndWorkspaceId("project-1", workspaceId)).thenReturn(Optional.of(project));
-        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Project.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
 
-        when(userService.findAssignableUsers(eq(workspaceId), eq(null), eq(null), eq(false)))
-            .thenReturn(List.of(lowest, higher));
-        when(userService.findActiveProjectCounts(eq(workspaceId), anyList(), eq(false)))
-            .thenReturn(Map.of("user-low", 0L, "user-high", 2L));
+        when(userService.findLeastLoadedAssignees(eq(workspaceId), eq(null), eq(false), anyCollection()))
+            .thenReturn(new UserService.LeastLoadedPool(0L, List.of("user-low")));
         when(userRepository.findAllById(anyList())).thenReturn(List.of(lowest));
         when(userRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findById("user-low")).thenReturn(Optional.of(lowest));
 
         RandomAssignResponse response = projectService.randomAssign(workspaceId, "project-1", requester, null);
 
         assertEquals("user-low", response.getAssignedPerson().getId());
         assertTrue(response.getProject().getMemberIds().contains("user-low"));
         assertEquals(1, response.getProject().getMemberIds().size());
+        assertEquals(0L, response.getAssignedPerson().getActiveProjectCount());
+        verify(userService, never()).findAssignableUsers(anyString(), any(), any(), anyBoolean());
+        // Only the touched fields are written, so a not-yet-migrated comments array survives.
+        verify(projectRepository, never()).save(any(Project.class));
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(Project.class));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(List.of("user-low"), set.get("memberIds"));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void randomProjectSamplesInsideMongoWithSingleAggregation() {
+        String workspaceId = "workspace-1";
+        User requester = new User();
+        requester.setId("user-1");
+        Project sampled = new Project();
+        sampled.setId("project-7");
+        sampled.setWorkspaceId(workspaceId);
+        sampled.setStatus(ProjectStatus.IN_PROGRESS);
+
+        @SuppressWarnings("unchecked")
+        AggregationResults<Project> results = mock(AggregationResults.class);
+        when(results.getUniqueMappedResult()).thenReturn(sampled);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Project.class), eq(Project.class))).thenReturn(results);
+
+        var response = projectService.randomProject(workspaceId, requester, null);
+
+        assertEquals("project-7", response.getId());
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate, times(1)).aggregate(captor.capture(), eq(Project.class), eq(Project.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Project.class));
+        verify(projectRepository, never()).findByWorkspaceId(anyString(), any());
+        assertTrue(captor.getValue().toString().contains("$sample"));
+    }
+
+    @Test
+    void myDashboardWorkloadIsAggregatedFromProjectComments() {
+        String workspaceId = "workspace-1";
+        User requester = new User();
+        requester.setId("user-1");
+        Project first = new Project();
+        first.setId("project-1");
+        first.setName("Alpha");
+        first.setStatus(ProjectStatus.IN_PROGRESS);
+        Project second = new Project();
+        second.setId("project-2");
+        second.setName("Beta");
+        second.setStatus(ProjectStatus.COMPLETED);
+        when(projectRepository.findByWorkspaceIdAndMemberIdsContaining(workspaceId, "user-1"))
+            .thenReturn(List.of(first, second));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("project_comments"), eq(Document.class)))
+            .thenReturn(new AggregationResults<>(List.of(
+                new Document("_id", "project-2").append("comments", 3).append("minutes", 90L)), new Document()));
+
+        DashboardStatsResponse stats = projectService.getMyDashboardStats(workspaceId, requester);
+
+        assertEquals(1, stats.getWorkloadBreakdown().size());
+        assertEquals("Beta", stats.getWorkloadBreakdown().get(0).getLabel());
+        assertEquals(90L, stats.getWorkloadBreakdown().get(0).getValue());
+        ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(captor.capture(), eq("project_comments"), eq(Document.class));
+        String pipeline = captor.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("authorUserId"));
+        assertTrue(pipeline.contains("project-1"));
     }
 }
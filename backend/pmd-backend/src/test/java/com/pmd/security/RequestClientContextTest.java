@@ -0,0 +1,42 @@
+package com.pmd.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class RequestClientContextTest {
+
+    private final ClientMetadataService clientMetadataService = new ClientMetadataService(true, false, "salt");
+
+    @Test
+    void builtOncePerRequestAndMatchesTheStandaloneHelpers() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.2");
+        request.addHeader("CF-Connecting-IP", "203.0.113.9");
+        request.addHeader("User-Agent", "Mozilla/5.0 (X11; Linux x86_64)");
+
+        RequestClientContext client = clientMetadataService.context(request);
+
+        assertThat(clientMetadataService.context(request)).isSameAs(client);
+        assertThat(RequestClientContext.current(request)).isSameAs(client);
+        assertThat(client.ip()).isEqualTo("203.0.113.9");
+        assertThat(client.ipForStorage()).isEqualTo(clientMetadataService.sanitizeIpForStorage("203.0.113.9"))
+            .endsWith("|fp:" + client.ipFingerprint());
+        assertThat(client.userAgentForStorage())
+            .isEqualTo(clientMetadataService.sanitizeUserAgentForStorage("Mozilla/5.0 (X11; Linux x86_64)"))
+            .isEqualTo("anon:mozilla|fp:" + client.userAgentDigest());
+        assertThat(client.ipForLogs()).isEqualTo("203.0.113.0/24");
+        assertThat(client.principal()).isNull();
+    }
+
+    @Test
+    void requestlessWorkGetsAnEmptyContext() {
+        RequestClientContext client = clientMetadataService.context(null);
+
+        assertThat(client.ip()).isNull();
+        assertThat(client.ipForStorage()).isNull();
+        assertThat(client.userAgentForStorage()).isNull();
+        assertThat(client.ipForLogs()).isEqualTo("unknown");
+    }
+}
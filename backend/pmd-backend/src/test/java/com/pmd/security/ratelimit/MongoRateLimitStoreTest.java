@@ -0,0 +1,63 @@
+package com.pmd.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+@SpringBootTest
+class MongoRateLimitStoreTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void countsFromEveryInstanceAddUp() {
+        MongoRateLimitStore store = new MongoRateLimitStore(mongoTemplate);
+        String limiter = "test-" + UUID.randomUUID();
+        Duration window = Duration.ofMinutes(10);
+
+        store.addAndGet(limiter, 100, window, Map.of("a", 4L));
+        store.addAndGet(limiter, 101, window, Map.of("a", 2L));
+        Map<String, RateLimitStore.Totals> totals = store.addAndGet(limiter, 101, window, Map.of("a", 3L, "b", 1L));
+
+        assertThat(totals.get("a")).isEqualTo(new RateLimitStore.Totals(4, 5));
+        assertThat(totals.get("b")).isEqualTo(new RateLimitStore.Totals(0, 1));
+
+        store.clear(limiter, "a", 101, window, 5_000L);
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("_id").regex("^" + limiter + ":a:")),
+            MongoRateLimitStore.COLLECTION)).isZero();
+        assertThat(store.resetsSince(limiter, 4_999L)).isEqualTo(Map.of("a", 5_000L));
+        assertThat(store.resetsSince(limiter, 5_000L)).isEmpty();
+    }
+
+    @Test
+    void twoInstancesEnforceOneLimit() {
+        MongoRateLimitStore store = new MongoRateLimitStore(mongoTemplate);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        String name = "test-" + UUID.randomUUID();
+        RateLimiter first = new RateLimiter(name, 10, Duration.ofMinutes(10), 64, meterRegistry,
+            System::currentTimeMillis, store);
+        RateLimiter second = new RateLimiter(name, 10, Duration.ofMinutes(10), 64, meterRegistry,
+            System::currentTimeMillis, store);
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(first.tryAcquire("198.51.100.7")).isNotEqualTo(RateLimiter.REJECTED);
+            assertThat(second.tryAcquire("198.51.100.7")).isNotEqualTo(RateLimiter.REJECTED);
+        }
+        first.sync();
+        second.sync();
+
+        assertThat(second.tryAcquire("198.51.100.7")).isEqualTo(RateLimiter.REJECTED);
+        assertThat(mongoTemplate.count(Query.query(Criteria.where("_id").regex("198\\.51")),
+            MongoRateLimitStore.COLLECTION)).isZero();
+    }
+}
@@ -0,0 +1,176 @@
+package com.pmd.security.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(Duration.ofDays(20_000).toMillis());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Map<String, Long> windows = new HashMap<>();
+    private final Map<String, Long> resets = new HashMap<>();
+
+    /** A map standing in for the shared collections, for two "instances" of the same limiter. */
+    private final RateLimitStore sharedStore = new RateLimitStore() {
+        @Override
+        public boolean shared() {
+            return true;
+        }
+
+        @Override
+        public Map<String, Totals> addAndGet(String limiter, long window, Duration windowLength,
+                                             Map<String, Long> hits) {
+            Map<String, Totals> totals = new HashMap<>();
+            hits.forEach((key, count) -> {
+                long current = windows.merge(limiter + key + window, count, Long::sum);
+                totals.put(key, new Totals(windows.getOrDefault(limiter + key + (window - 1), 0L), current));
+            });
+            return totals;
+        }
+
+        @Override
+        public void clear(String limiter, String key, long window, Duration windowLength, long resetAt) {
+            windows.remove(limiter + key + window);
+            windows.remove(limiter + key + (window - 1));
+            resets.merge(limiter + ":" + key, resetAt, Math::max);
+        }
+
+        @Override
+        public Map<String, Long> resetsSince(String limiter, long sinceMillis) {
+            Map<String, Long> since = new HashMap<>();
+            resets.forEach((id, resetAt) -> {
+                if (id.startsWith(limiter + ":") && resetAt > sinceMillis) {
+                    since.put(id.substring(limiter.length() + 1), resetAt);
+                }
+            });
+            return since;
+        }
+    };
+
+    private RateLimiter sharedLimiter() {
+        return new RateLimiter("login-ip", 10, Duration.ofMinutes(1), 64, meterRegistry, now::get, sharedStore);
+    }
+
+    private RateLimiter limiter(int limit, int maxKeys) {
+        return new RateLimiter("test", limit, Duration.ofMinutes(1), maxKeys, meterRegistry, now::get);
+    }
+
+    @Test
+    void sharedStoreEnforcesOneLimitAcrossInstancesAfterSync() {
+        RateLimiter first = sharedLimiter();
+        RateLimiter second = sharedLimiter();
+
+        for (int i = 0; i < 6; i++) {
+            first.tryAcquire("1.2.3.4");
+            second.tryAcquire("1.2.3.4");
+        }
+        first.sync();
+        second.sync();
+        // The second instance has seen the first's hits: 7 local + 6 elsewhere.
+        assertEquals(RateLimiter.REJECTED, second.tryAcquire("1.2.3.4"));
+        // The first learns of the second's on its next sync.
+        first.sync();
+        assertEquals(RateLimiter.REJECTED, first.tryAcquire("1.2.3.4"));
+        assertEquals(9, first.tryAcquire("5.6.7.8"));
+        assertTrue(windows.keySet().stream().noneMatch(id -> id.contains("1.2.3.4")),
+            "the store sees hashed keys only");
+    }
+
+    @Test
+    void resetOnOneInstanceReachesTheOthersOnTheirNextSync() {
+        RateLimiter first = sharedLimiter();
+        RateLimiter second = sharedLimiter();
+        for (int i = 0; i < 11; i++) {
+            first.tryAcquire("alex@pmd.local");
+        }
+        first.block("alex@pmd.local", Duration.ofMinutes(15));
+        second.tryAcquire("alex@pmd.local");
+        first.sync();
+        second.sync();
+        assertEquals(RateLimiter.REJECTED, second.tryAcquire("alex@pmd.local"));
+
+        now.addAndGet(1_000);
+        second.reset("alex@pmd.local");
+        first.sync();
+
+        assertFalse(first.isBlocked("alex@pmd.local"));
+        assertEquals(9, first.tryAcquire("alex@pmd.local"));
+        assertEquals(9, second.tryAcquire("alex@pmd.local"));
+    }
+
+    @Test
+    void resetsAreNotAppliedTwice() {
+        RateLimiter first = sharedLimiter();
+        RateLimiter second = sharedLimiter();
+        first.tryAcquire("1.2.3.4");
+        now.addAndGet(1_000);
+        second.reset("1.2.3.4");
+        first.sync();
+        // Hits after the reset survive the syncs that still see it within the clock-skew margin.
+        first.tryAcquire("1.2.3.4");
+        first.sync();
+        first.sync();
+
+        assertEquals(8, first.tryAcquire("1.2.3.4"));
+    }
+
+    @Test
+    void previousWindowWeighsInUntilItHasSlidOut() {
+        RateLimiter limiter = limiter(10, 64);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(9 - i, limiter.tryAcquire("1.2.3.4|anonymous"));
+        }
+        assertEquals(RateLimiter.REJECTED, limiter.tryAcquire("1.2.3.4|anonymous"));
+
+        // Start of the next window: the 11 hits still count in full.
+        now.addAndGet(Duration.ofMinutes(1).toMillis() - now.get() % Duration.ofMinutes(1).toMillis());
+        assertEquals(RateLimiter.REJECTED, limiter.tryAcquire("1.2.3.4|anonymous"));
+        // Halfway through, about half of them do.
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+        assertEquals(3, limiter.tryAcquire("1.2.3.4|anonymous"));
+        // Two windows on, nothing is left.
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        assertEquals(9, limiter.tryAcquire("1.2.3.4|anonymous"));
+
+        assertEquals(2.0, meterRegistry.get("pmd.ratelimit.rejections").counter().count());
+    }
+
+    @Test
+    void blockLastsForItsDurationAndResetClearsIt() {
+        RateLimiter limiter = limiter(3, 64);
+        limiter.block("alex@pmd.local", Duration.ofMinutes(15));
+        assertTrue(limiter.isBlocked("alex@pmd.local"));
+        assertFalse(limiter.isBlocked("maria@pmd.local"));
+
+        now.addAndGet(Duration.ofMinutes(16).toMillis());
+        assertFalse(limiter.isBlocked("alex@pmd.local"));
+
+        limiter.block("alex@pmd.local", Duration.ofMinutes(15));
+        limiter.reset("alex@pmd.local");
+        assertFalse(limiter.isBlocked("alex@pmd.local"));
+    }
+
+    @Test
+    void sprayOfKeysStaysWithinTheTableAndSparesHeavyHitters() {
+        RateLimiter limiter = limiter(100, 64);
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("heavy");
+        }
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("10.0." + (i >> 8 & 255) + "." + (i & 255) + "|anonymous");
+        }
+
+        assertEquals(49, limiter.tryAcquire("heavy"));
+        assertEquals(64.0, meterRegistry.get("pmd.ratelimit.keys").gauge().value());
+        assertTrue(meterRegistry.get("pmd.ratelimit.evictions").counter().count() > 90_000);
+    }
+}
@@ -0,0 +1,98 @@
+package com.pmd.stats.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.pmd.project.model.Project;
+import com.pmd.project.model.ProjectStatus;
+import com.pmd.project.service.ProjectQuery;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * The {@code $facet} pipeline must count exactly what the in-memory reference counts. Each seed
+ * writes a random workspace (missing statuses, teamless projects, null and duplicate members)
+ * and compares both engines across the filter shapes the stats endpoints send.
+ */
+@SpringBootTest
+class ProjectStatsEngineEquivalenceTest {
+
+    private static final String[] TEAMS = {null, "team-a", "team-b", "team-c"};
+    private static final String[] MEMBERS = {"user-1", "user-2", "user-3", "user-4", "user-5", null};
+
+    @Autowired
+    private ProjectStatsEngine projectStatsEngine;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<String> workspaceIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        mongoTemplate.remove(Query.query(Criteria.where("workspaceId").in(workspaceIds)), Project.class);
+    }
+
+    @Test
+    void aggregationMatchesInMemoryCountsOnRandomWorkspaces() {
+        for (long seed = 1; seed <= 25; seed++) {
+            Random random = new Random(seed);
+            String workspaceId = "stats-equivalence-" + seed + "-" + System.nanoTime();
+            workspaceIds.add(workspaceId);
+            Instant base = Instant.parse("2026-01-01T00:00:00Z");
+            int projectCount = random.nextInt(120);
+            for (int i = 0; i < projectCount; i++) {
+                mongoTemplate.insert(randomProject(random, workspaceId, base));
+            }
+
+            ProjectQuery all = ProjectQuery.forWorkspace(workspaceId);
+            List<ProjectQuery> queries = List.of(
+                all,
+                all.withTeamIds(Set.of("team-a", "team-c")),
+                all.withStatuses(Set.of(ProjectStatus.NOT_STARTED)),
+                all.withStatuses(ProjectQuery.ACTIVE_STATUSES).withTeamIds(Set.of("team-b")),
+                all.withMemberId("user-" + (1 + random.nextInt(5))),
+                new ProjectQuery(workspaceId, null, null, null, base.plusSeconds(86_400L * 30), null, null, null,
+                    null)
+            );
+            for (ProjectQuery query : queries) {
+                assertThat(projectStatsEngine.countWithAggregation(query))
+                    .as("seed %d, query %s", seed, query)
+                    .isEqualTo(projectStatsEngine.countInJava(query));
+            }
+        }
+    }
+
+    private static Project randomProject(Random random, String workspaceId, Instant base) {
+        Project project = new Project();
+        project.setWorkspaceId(workspaceId);
+        project.setName("Project " + random.nextInt(10_000));
+        project.setTeamId(TEAMS[random.nextInt(TEAMS.length)]);
+        ProjectStatus[] statuses = ProjectStatus.values();
+        project.setStatus(random.nextInt(6) == 0 ? null : statuses[random.nextInt(statuses.length)]);
+        int shape = random.nextInt(4);
+        if (shape == 0) {
+            project.setMemberIds(null);
+        } else {
+            List<String> members = new ArrayList<>();
+            int size = random.nextInt(5);
+            for (int i = 0; i < size; i++) {
+                members.add(MEMBERS[random.nextInt(MEMBERS.length)]);
+            }
+            project.setMemberIds(members);
+        }
+        Instant createdAt = base.plusSeconds(random.nextInt(86_400 * 90));
+        project.setCreatedAt(createdAt);
+        project.setUpdatedAt(createdAt);
+        return project;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pmd.stats.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class StatsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatsCache statsCache = new StatsCache(meterRegistry, 100, 60);
+
+    @Test
+    void concurrentMissesShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> statsCache.get("workspace-1", "dashboard", List.of(false), () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "stats";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("stats", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(1L, meterRegistry.get("pmd.stats.compute").tag("view", "dashboard").timer().count());
+    }
+
+    @Test
+    void workspaceEventInvalidatesOnlyThatWorkspace() {
+        AtomicInteger computations = new AtomicInteger();
+
+        statsCache.get("workspace-1", "people-overview", List.of(true), computations::incrementAndGet);
+        statsCache.get("workspace-2", "people-overview", List.of(true), computations::incrementAndGet);
+        statsCache.get("workspace-1", "people-overview", List.of(true), computations::incrementAndGet);
+        assertEquals(2, computations.get());
+
+        statsCache.onWorkspaceStatsChanged(new WorkspaceStatsChanged("workspace-1", WorkspaceStatsChanged.Change.PROJECTS));
+        statsCache.get("workspace-1", "people-overview", List.of(true), computations::incrementAndGet);
+        statsCache.get("workspace-2", "people-overview", List.of(true), computations::incrementAndGet);
+
+        assertEquals(3, computations.get());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "pmd.stats").tag("result", "hit")
+            .functionCounter().count() >= 2);
+    }
+
+    @Test
+    void failedComputationIsRethrownAndNotCached() {
+        ResponseStatusException thrown = assertThrows(ResponseStatusException.class,
+            () -> statsCache.get("workspace-1", "user", List.of("user-1"), () -> {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+            }));
+        assertEquals(HttpStatus.NOT_FOUND, thrown.getStatusCode());
+
+        assertEquals("ok", statsCache.get("workspace-1", "user", List.of("user-1"), () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
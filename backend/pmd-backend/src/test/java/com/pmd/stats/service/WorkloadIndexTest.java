@@ -0,0 +1,184 @@
+package com.pmd.stats.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.pmd.project.service.ProjectQuery;
+import com.pmd.stats.event.WorkspaceStatsChanged;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import com.pmd.workspace.model.WorkspaceMember;
+import com.pmd.workspace.model.WorkspaceMemberStatus;
+import com.pmd.workspace.repository.WorkspaceMemberRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class WorkloadIndexTest {
+
+    private static final String WORKSPACE = "workspace-1";
+
+    private ProjectStatsEngine projectStatsEngine;
+    private WorkspaceMemberRepository workspaceMemberRepository;
+    private UserRepository userRepository;
+    private final Map<String, Long> activeCounts = new HashMap<>();
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        projectStatsEngine = mock(ProjectStatsEngine.class);
+        workspaceMemberRepository = mock(WorkspaceMemberRepository.class);
+        userRepository = mock(UserRepository.class);
+        when(projectStatsEngine.count(any(ProjectQuery.class))).thenAnswer(invocation -> Map.of(
+            "-", new WorkspaceStatsService.TeamCounters(Map.of(), 0, 0, new HashMap<>(activeCounts))));
+        when(workspaceMemberRepository.findByWorkspaceIdAndStatus(WORKSPACE, WorkspaceMemberStatus.ACTIVE))
+            .thenAnswer(invocation -> users.stream().map(user -> member(user.getId())).toList());
+        when(userRepository.findAllById(anyIterable())).thenAnswer(invocation -> List.copyOf(users));
+
+        users.add(user("user-a", "team-1", List.of(), false));
+        users.add(user("user-b", "team-1", List.of(), false));
+        users.add(user("user-c", "team-2", List.of("team-1"), false));
+        users.add(user("user-d", "team-1", List.of(), true));
+        activeCounts.put("user-a", 2L);
+        activeCounts.put("user-c", 1L);
+        activeCounts.put("user-gone", 3L);
+    }
+
+    @Test
+    void leastLoadedHonoursTeamAdminAndExclusionFilters() {
+        WorkloadIndex index = newIndex();
+
+        assertEquals(new WorkloadIndex.Pool(0L, List.of("user-b")),
+            index.leastLoaded(WORKSPACE, "team-1", false, List.of()));
+        assertEquals(new WorkloadIndex.Pool(0L, List.of("user-b", "user-d")),
+            index.leastLoaded(WORKSPACE, "team-1", true, List.of()));
+        assertEquals(new WorkloadIndex.Pool(1L, List.of("user-c")),
+            index.leastLoaded(WORKSPACE, "team-1", false, List.of("user-b")));
+        assertEquals(new WorkloadIndex.Pool(1L, List.of("user-c")),
+            index.leastLoaded(WORKSPACE, "team-2", false, List.of()));
+        assertNull(index.leastLoaded(WORKSPACE, "team-3", true, List.of()));
+
+        assertEquals(Map.of("user-a", 2L, "user-gone", 3L),
+            index.activeCounts(WORKSPACE, List.of("user-a", "user-b", "user-gone")));
+        assertEquals(OptionalDouble.of(2.0), index.teamAverage(WORKSPACE, "team-1", false));
+        assertTrue(index.teamAverage(WORKSPACE, "team-3", true).isEmpty());
+        verify(projectStatsEngine, times(1)).count(any(ProjectQuery.class));
+    }
+
+    @Test
+    void projectDeltasUpdateInPlaceAndMembershipChangesReload() {
+        WorkloadIndex index = newIndex();
+        index.leastLoaded(WORKSPACE, null, true, List.of());
+
+        index.apply(WORKSPACE, Map.of("user-b", 2L, "user-a", -2L));
+        index.onWorkspaceStatsChanged(new WorkspaceStatsChanged(WORKSPACE, WorkspaceStatsChanged.Change.PROJECTS));
+
+        assertEquals(new WorkloadIndex.Pool(0L, List.of("user-a")),
+            index.leastLoaded(WORKSPACE, "team-1", false, List.of()));
+        assertEquals(2L, index.activeCount(WORKSPACE, "user-b"));
+        verify(projectStatsEngine, times(1)).count(any(ProjectQuery.class));
+
+        users.add(user("user-e", "team-1", List.of(), false));
+        index.onWorkspaceStatsChanged(new WorkspaceStatsChanged(WORKSPACE, WorkspaceStatsChanged.Change.MEMBERSHIP));
+
+        assertEquals(new WorkloadIndex.Pool(0L, List.of("user-b", "user-e")),
+            index.leastLoaded(WORKSPACE, "team-1", false, List.of()));
+        verify(projectStatsEngine, times(2)).count(any(ProjectQuery.class));
+    }
+
+    @Test
+    void deltasRacingALoadKeepItFromBeingCached() {
+        WorkloadIndex index = newIndex();
+        when(projectStatsEngine.count(any(ProjectQuery.class))).thenAnswer(invocation -> {
+            // A write commits after the count read Mongo and applies its delta before the load ends.
+            index.apply(WORKSPACE, Map.of("user-b", 1L));
+            return Map.of("-", new WorkspaceStatsService.TeamCounters(Map.of(), 0, 0, new HashMap<>(activeCounts)));
+        });
+
+        index.activeCount(WORKSPACE, "user-b");
+        index.activeCount(WORKSPACE, "user-b");
+
+        verify(projectStatsEngine, times(2)).count(any(ProjectQuery.class));
+    }
+
+    @Test
+    void deltasRightAfterALoadDropTheEntry() {
+        WorkloadIndex index = new WorkloadIndex(projectStatsEngine, workspaceMemberRepository, userRepository,
+            300, 60_000);
+        index.activeCount(WORKSPACE, "user-a");
+
+        // The write may have committed before the load read it, so the delta is not added on top.
+        index.apply(WORKSPACE, Map.of("user-a", 1L));
+        activeCounts.put("user-a", 3L);
+
+        assertEquals(3L, index.activeCount(WORKSPACE, "user-a"));
+        verify(projectStatsEngine, times(2)).count(any(ProjectQuery.class));
+    }
+
+    @Test
+    void randomDeltasMatchAFreshLoad() {
+        Random random = new Random(42);
+        List<String> userIds = List.of("user-a", "user-b", "user-c", "user-d", "user-gone");
+        WorkloadIndex incremental = newIndex();
+        incremental.leastLoaded(WORKSPACE, null, true, List.of());
+
+        for (int step = 0; step < 300; step++) {
+            String userId = userIds.get(random.nextInt(userIds.size()));
+            long current = activeCounts.getOrDefault(userId, 0L);
+            long delta = random.nextBoolean() || current == 0 ? 1L : -1L;
+            if (current + delta == 0) {
+                activeCounts.remove(userId);
+            } else {
+                activeCounts.put(userId, current + delta);
+            }
+            incremental.apply(WORKSPACE, Map.of(userId, delta));
+
+            WorkloadIndex fresh = newIndex();
+            for (String teamId : new String[] {null, "team-1", "team-2"}) {
+                for (boolean includeAdmins : new boolean[] {true, false}) {
+                    List<String> excluded = List.of(userIds.get(random.nextInt(userIds.size())));
+                    assertEquals(fresh.leastLoaded(WORKSPACE, teamId, includeAdmins, excluded),
+                        incremental.leastLoaded(WORKSPACE, teamId, includeAdmins, excluded), "step " + step);
+                    if (teamId != null) {
+                        assertEquals(fresh.teamAverage(WORKSPACE, teamId, includeAdmins),
+                            incremental.teamAverage(WORKSPACE, teamId, includeAdmins), "step " + step);
+                    }
+                }
+            }
+            assertEquals(fresh.activeCounts(WORKSPACE, userIds), incremental.activeCounts(WORKSPACE, userIds));
+        }
+    }
+
+    private WorkloadIndex newIndex() {
+        return new WorkloadIndex(projectStatsEngine, workspaceMemberRepository, userRepository, 300, 0);
+    }
+
+    private static User user(String id, String teamId, List<String> teamIds, boolean admin) {
+        User user = new User();
+        user.setId(id);
+        user.setTeamId(teamId);
+        user.setTeamIds(teamIds);
+        user.setAdmin(admin);
+        return user;
+    }
+
+    private static WorkspaceMember member(String userId) {
+        WorkspaceMember member = new WorkspaceMember();
+        member.setWorkspaceId(WORKSPACE);
+        member.setUserId(userId);
+        member.setStatus(WorkspaceMemberStatus.ACTIVE);
+        return member;
+    }
+}
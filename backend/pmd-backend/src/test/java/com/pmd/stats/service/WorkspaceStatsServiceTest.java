@@ -0,0 +1,237 @@
+package com.pmd.stats.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.client.result.UpdateResult;
+import com.pmd.project.model.Project;
+import com.pmd.project.model.ProjectStatus;
+import com.pmd.stats.model.WorkspaceStats;
+import com.pmd.stats.service.WorkspaceStatsService.ProjectSnapshot;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+class WorkspaceStatsServiceTest {
+
+    private static final String WORKSPACE = "workspace-1";
+
+    @Test
+    void statusChangeIsOneAtomicIncrement() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkloadIndex workloadIndex = mock(WorkloadIndex.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, workloadIndex);
+
+        service.recordChange(
+            new ProjectSnapshot(WORKSPACE, "team-1", ProjectStatus.IN_PROGRESS, List.of("user-1")),
+            new ProjectSnapshot(WORKSPACE, "team-1", ProjectStatus.COMPLETED, List.of("user-1"))
+        );
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), captor.capture(), eq(WorkspaceStats.class));
+        Document inc = (Document) captor.getValue().getUpdateObject().get("$inc");
+        assertEquals(-1L, inc.get("counters.s:team-1:IN_PROGRESS"));
+        assertEquals(1L, inc.get("counters.s:team-1:COMPLETED"));
+        assertEquals(-1L, inc.get("counters.w:team-1:user-1"));
+        assertEquals(1L, inc.get("version"));
+        assertEquals(-1L, inc.get("pending"));
+        assertEquals(5, inc.size());
+        verify(workloadIndex).apply(WORKSPACE, Map.of("user-1", -1L));
+    }
+
+    @Test
+    void unchangedCountersOnlyClearTheMark() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkloadIndex workloadIndex = mock(WorkloadIndex.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, workloadIndex);
+        ProjectSnapshot snapshot = new ProjectSnapshot(WORKSPACE, null, null, List.of("user-1"));
+
+        service.recordChange(snapshot, snapshot);
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), captor.capture(), eq(WorkspaceStats.class));
+        Document inc = (Document) captor.getValue().getUpdateObject().get("$inc");
+        assertEquals(Map.of("pending", -1L, "version", 1L), new HashMap<>(inc));
+        verify(workloadIndex, never()).apply(any(), any());
+    }
+
+    @Test
+    void beginChangeMarksTheDocumentEvenBeforeItIsBuilt() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, mock(WorkloadIndex.class));
+
+        service.beginChange(WORKSPACE);
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), captor.capture(), eq(WorkspaceStats.class));
+        Document inc = (Document) captor.getValue().getUpdateObject().get("$inc");
+        assertEquals(Map.of("pending", 1L, "version", 1L), new HashMap<>(inc));
+    }
+
+    @Test
+    void loadDoesNotStoreACountWhileAWriteIsPending() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, mock(WorkloadIndex.class));
+        WorkspaceStats unbuilt = new WorkspaceStats(WORKSPACE, new HashMap<>(), null);
+        unbuilt.setVersion(3L);
+        unbuilt.setPending(1L);
+        unbuilt.setChangedAt(Instant.now());
+        when(mongoTemplate.findById(WORKSPACE, WorkspaceStats.class)).thenReturn(unbuilt);
+        when(mongoTemplate.stream(any(Query.class), eq(Project.class)))
+            .thenAnswer(invocation -> Stream.of(completedProject()));
+
+        Map<String, WorkspaceStatsService.TeamCounters> counters = service.load(WORKSPACE);
+
+        assertEquals(1L, counters.get(WorkspaceStatsService.NO_TEAM).total());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(WorkspaceStats.class));
+    }
+
+    @Test
+    void loadStoresTheCountOnlyAgainstTheVersionItWasTakenAt() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, mock(WorkloadIndex.class));
+        WorkspaceStats unbuilt = new WorkspaceStats(WORKSPACE, new HashMap<>(Map.of("s:-:COMPLETED", 1L)), null);
+        unbuilt.setVersion(5L);
+        unbuilt.setPending(0L);
+        when(mongoTemplate.findById(WORKSPACE, WorkspaceStats.class)).thenReturn(unbuilt);
+        when(mongoTemplate.stream(any(Query.class), eq(Project.class)))
+            .thenAnswer(invocation -> Stream.of(completedProject(), completedProject()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(WorkspaceStats.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        service.load(WORKSPACE);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(WorkspaceStats.class));
+        assertEquals(5L, query.getValue().getQueryObject().get("version"));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        // The one increment already applied stays; the correction adds only what it missed.
+        assertEquals(1L, inc.get("counters.s:-:COMPLETED"));
+    }
+
+    @Test
+    void reconcileTakesOverAMarkWhoseWriterIsGone() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, mock(WorkloadIndex.class));
+        WorkspaceStats stuck = new WorkspaceStats(WORKSPACE, new HashMap<>(Map.of("s:-:COMPLETED", 1L)), Instant.now());
+        stuck.setVersion(9L);
+        stuck.setPending(1L);
+        stuck.setChangedAt(Instant.now().minus(WorkspaceStatsService.ABANDONED_AFTER).minusSeconds(1));
+        when(mongoTemplate.findById(WORKSPACE, WorkspaceStats.class)).thenReturn(stuck);
+        when(mongoTemplate.stream(any(Query.class), eq(Project.class)))
+            .thenAnswer(invocation -> Stream.of(completedProject()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(WorkspaceStats.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(service.reconcile(WORKSPACE));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(WorkspaceStats.class));
+        assertEquals(0L, ((Document) update.getValue().getUpdateObject().get("$set")).get("pending"));
+    }
+
+    @Test
+    void reconcileRecountsWhenTheDocumentChangedUnderIt() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        WorkspaceStatsService service = new WorkspaceStatsService(mongoTemplate, mock(WorkloadIndex.class));
+        WorkspaceStats stale = new WorkspaceStats(WORKSPACE, new HashMap<>(Map.of("s:-:COMPLETED", 1L)), Instant.now());
+        stale.setVersion(7L);
+        WorkspaceStats moved = new WorkspaceStats(WORKSPACE, new HashMap<>(Map.of("s:-:COMPLETED", 1L)), Instant.now());
+        moved.setVersion(8L);
+        when(mongoTemplate.findById(WORKSPACE, WorkspaceStats.class)).thenReturn(stale, moved);
+        Project project = new Project();
+        project.setWorkspaceId(WORKSPACE);
+        project.setStatus(ProjectStatus.COMPLETED);
+        when(mongoTemplate.stream(any(Query.class), eq(Project.class)))
+            .thenAnswer(invocation -> Stream.of(project, project));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(WorkspaceStats.class)))
+            .thenReturn(UpdateResult.acknowledged(0, 0L, null), UpdateResult.acknowledged(1, 1L, null));
+
+        assertTrue(service.reconcile(WORKSPACE));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateFirst(queries.capture(), updates.capture(), eq(WorkspaceStats.class));
+        assertEquals(7L, queries.getAllValues().get(0).getQueryObject().get("version"));
+        assertEquals(8L, queries.getAllValues().get(1).getQueryObject().get("version"));
+        Document inc = (Document) updates.getAllValues().get(1).getUpdateObject().get("$inc");
+        assertEquals(1L, inc.get("counters.s:-:COMPLETED"));
+    }
+
+    @Test
+    void incrementsMatchARecountAfterRandomWrites() {
+        Random random = new Random(42);
+        List<ProjectSnapshot> projects = new ArrayList<>();
+        Map<String, Long> counters = new HashMap<>();
+        for (int step = 0; step < 2_000; step++) {
+            int action = random.nextInt(3);
+            if (action == 0 || projects.isEmpty()) {
+                ProjectSnapshot created = randomProject(random);
+                projects.add(created);
+                apply(counters, WorkspaceStatsService.diff(null, created));
+            } else if (action == 1) {
+                int index = random.nextInt(projects.size());
+                ProjectSnapshot updated = randomProject(random);
+                apply(counters, WorkspaceStatsService.diff(projects.get(index), updated));
+                projects.set(index, updated);
+            } else {
+                ProjectSnapshot deleted = projects.remove(random.nextInt(projects.size()));
+                apply(counters, WorkspaceStatsService.diff(deleted, null));
+            }
+        }
+
+        Map<String, Long> recount = new HashMap<>();
+        for (ProjectSnapshot project : projects) {
+            apply(recount, WorkspaceStatsService.diff(null, project));
+        }
+        recount.values().removeIf(value -> value == 0L);
+        counters.values().removeIf(value -> value == 0L);
+        assertEquals(recount, counters);
+        assertTrue(counters.values().stream().allMatch(value -> value > 0));
+        assertEquals(projects.size(), WorkspaceStatsService.tally(projects).values().stream()
+            .mapToLong(WorkspaceStatsService.TeamCounters::total)
+            .sum());
+    }
+
+    private static Project completedProject() {
+        Project project = new Project();
+        project.setWorkspaceId(WORKSPACE);
+        project.setStatus(ProjectStatus.COMPLETED);
+        return project;
+    }
+
+    private static void apply(Map<String, Long> counters, Map<String, Long> delta) {
+        delta.forEach((key, value) -> counters.merge(key, value, Long::sum));
+    }
+
+    private static ProjectSnapshot randomProject(Random random) {
+        String[] teams = {null, "team-1", "team-2"};
+        ProjectStatus[] statuses = ProjectStatus.values();
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            if (random.nextBoolean()) {
+                members.add("user-" + i);
+            }
+        }
+        ProjectStatus status = random.nextInt(5) == 0 ? null : statuses[random.nextInt(statuses.length)];
+        return new ProjectSnapshot(WORKSPACE, teams[random.nextInt(teams.length)], status, members);
+    }
+}
@@ -3,6 +3,9 @@ package com.pmd.upload.service;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.pmd.security.ratelimit.InMemoryRateLimitStore;
+import com.pmd.security.ratelimit.RateLimiters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -13,9 +16,13 @@ import org.springframework.web.server.ResponseStatusException;
  */
 class UploadRateLimiterServiceTest {
 
+    private static UploadRateLimiterService limiter(int maxPerHour) {
+        return new UploadRateLimiterService(new RateLimiters(new SimpleMeterRegistry(), new InMemoryRateLimitStore()), maxPerHour, 64);
+    }
+
     @Test
     void allowsUpToTheHourlyCeilingThenRejects() {
-        UploadRateLimiterService limiter = new UploadRateLimiterService(3);
+        UploadRateLimiterService limiter = limiter(3);
         String user = "user-a";
 
         for (int i = 0; i < 3; i++) {
@@ -30,7 +37,7 @@ class UploadRateLimiterServiceTest {
 
     @Test
     void countsEachAccountSeparately() {
-        UploadRateLimiterService limiter = new UploadRateLimiterService(1);
+        UploadRateLimiterService limiter = limiter(1);
         limiter.checkAndRecord("user-a");
         // A different account is unaffected by user-a exhausting its allowance.
         assertThatCode(() -> limiter.checkAndRecord("user-b")).doesNotThrowAnyException();
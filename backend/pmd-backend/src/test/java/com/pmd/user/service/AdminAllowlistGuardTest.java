@@ -2,6 +2,7 @@ package com.pmd.user.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.pmd.auth.security.PrincipalCache;
 import com.pmd.user.model.User;
 import com.pmd.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +29,9 @@ class AdminAllowlistGuardTest {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     // The keeper's email is fixed (it has to match the allowlist property), so this test is not
     // self-isolating by construction. Clear the collection first — and, now that a unique index
     // on username exists, a leftover keeper from a prior run would otherwise fail the insert.
@@ -63,7 +67,7 @@ class AdminAllowlistGuardTest {
     void blankAllowlistDisablesTheSweepInsteadOfStrippingEveryone() {
         User admin = user("survivor-" + System.nanoTime() + "@pmd.local", true);
 
-        new AdminAllowlistGuard("", mongoTemplate).run(null);
+        new AdminAllowlistGuard("", mongoTemplate, principalCache).run(null);
 
         assertThat(userRepository.findById(admin.getId()).orElseThrow().isAdmin()).isTrue();
     }
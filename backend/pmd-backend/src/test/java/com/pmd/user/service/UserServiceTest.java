@@ -0,0 +1,65 @@
+package com.pmd.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.pmd.auth.policy.AccessPolicy;
+import com.pmd.auth.security.PrincipalCache;
+import com.pmd.stats.service.WorkloadIndex;
+import com.pmd.user.model.User;
+import com.pmd.user.repository.UserRepository;
+import com.pmd.workspace.repository.WorkspaceMemberRepository;
+import com.pmd.workspace.repository.WorkspaceRoleRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserServiceTest {
+
+    private WorkloadIndex workloadIndex;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        workloadIndex = mock(WorkloadIndex.class);
+        userService = new UserService(
+            mock(UserRepository.class),
+            mock(AccessPolicy.class),
+            mock(WorkspaceMemberRepository.class),
+            mock(WorkspaceRoleRepository.class),
+            workloadIndex,
+            mock(PrincipalCache.class)
+        );
+    }
+
+    @Test
+    void leastLoadedAssigneesComeFromTheWorkloadIndex() {
+        when(workloadIndex.leastLoaded("workspace-1", "team-1", false, List.of("user-c")))
+            .thenReturn(new WorkloadIndex.Pool(1L, List.of("user-a", "user-b")));
+
+        UserService.LeastLoadedPool pool =
+            userService.findLeastLoadedAssignees("workspace-1", "team-1", false, List.of("user-c"));
+
+        assertEquals(1L, pool.activeProjectCount());
+        assertEquals(List.of("user-a", "user-b"), pool.userIds());
+        assertNull(userService.findLeastLoadedAssignees("workspace-1", null, true, List.of()));
+    }
+
+    @Test
+    void activeProjectCountsSkipTheIndexWithoutUsers() {
+        User user = new User();
+        user.setId("user-a");
+        when(workloadIndex.activeCounts("workspace-1", List.of("user-a"))).thenReturn(Map.of("user-a", 2L));
+
+        assertEquals(Map.of("user-a", 2L), userService.findActiveProjectCounts("workspace-1", List.of(user), false));
+
+        UserService blank = new UserService(mock(UserRepository.class), mock(AccessPolicy.class),
+            mock(WorkspaceMemberRepository.class), mock(WorkspaceRoleRepository.class), mock(WorkloadIndex.class),
+            mock(PrincipalCache.class));
+        assertEquals(Map.of(), blank.findActiveProjectCounts("workspace-1", List.of(new User()), false));
+    }
+}
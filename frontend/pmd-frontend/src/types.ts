@@ -1,13 +1,5 @@
 export type ProjectStatus = 'NOT_STARTED' | 'IN_PROGRESS' | 'COMPLETED' | 'CANCELED' | (string & {})
 
-export type ProjectCommentResponse = {
-  commentId?: string | null
-  authorId?: string | null
-  message?: string | null
-  timeSpentMinutes?: number | null
-  createdAt?: string | null
-}
-
 export type Project = {
   id?: string | null
   name?: string | null
@@ -22,7 +14,6 @@ export type Project = {
   workspaceId?: string | null
   createdAt?: string | null
   updatedAt?: string | null
-  comments?: ProjectCommentResponse[] | null
 }
 
 export type Team = {
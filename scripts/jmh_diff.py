@@ -0,0 +1,54 @@
+"""Compare two JMH JSON result files (see the `benchmarks` profile in backend/pmd-backend/pom.xml).
+
+    python scripts/jmh_diff.py baseline.json backend/pmd-backend/target/jmh-results.json
+
+Prints one line per benchmark and parameter set, and exits with status 1 when any score got
+worse by more than --threshold percent. Lower is better for time modes (avgt, sample, ss);
+higher is better for throughput (thrpt).
+"""
+
+import argparse
+import json
+import sys
+from pathlib import Path
+
+
+def load(path: Path) -> dict:
+    results = {}
+    for run in json.loads(path.read_text(encoding="utf-8")):
+        params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+        name = run["benchmark"].rsplit(".", 2)
+        key = ".".join(name[-2:]) + (f" [{params}]" if params else "")
+        metric = run["primaryMetric"]
+        results[key] = (run["mode"], metric["score"], metric.get("scoreError"), metric["scoreUnit"])
+    return results
+
+
+def main() -> int:
+    parser = argparse.ArgumentParser(description="Diff two JMH JSON result files.")
+    parser.add_argument("baseline", type=Path)
+    parser.add_argument("candidate", type=Path)
+    parser.add_argument("--threshold", type=float, default=10.0, help="regression threshold in percent")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+    regressions = 0
+    width = max((len(key) for key in baseline.keys() | candidate.keys()), default=10)
+    for key in sorted(baseline.keys() | candidate.keys()):
+        if key not in baseline or key not in candidate:
+            print(f"{key:<{width}}  {'only in ' + ('candidate' if key in candidate else 'baseline')}")
+            continue
+        mode, old, _, unit = baseline[key]
+        _, new, error, _ = candidate[key]
+        change = (new - old) / old * 100 if old else 0.0
+        worse = change < -args.threshold if mode == "thrpt" else change > args.threshold
+        regressions += worse
+        error_text = f" ± {error:.3f}" if isinstance(error, (int, float)) and error == error else ""
+        flag = "  REGRESSION" if worse else ""
+        print(f"{key:<{width}}  {old:12.3f} -> {new:12.3f}{error_text} {unit}  {change:+7.1f}%{flag}")
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())